@@ -0,0 +1,31 @@
+package com.ecommerce.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * A response as the gateway stores it: the headers to replay, the whole body, and what it cost
+ * to get it from the service.
+ *
+ * @param productId    the product a {@code /products/{id}} response is for, null for any other
+ * @param originNanos  how long the service took to produce it
+ * @param storedAtNanos {@link System#nanoTime()} when it was stored
+ * @param expiresAtNanos {@link System#nanoTime()} after which it is no longer served
+ */
+public record CachedResponse(HttpStatusCode status,
+                             HttpHeaders headers,
+                             byte[] body,
+                             String etag,
+                             Long productId,
+                             long originNanos,
+                             long storedAtNanos,
+                             long expiresAtNanos) {
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return (nowNanos - storedAtNanos) / 1_000_000_000L;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.apigateway.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Purges the {@link ResponseCache} from the Product Service change feed, so that changes which
+ * never pass through the gateway, such as stock taken by Order Service, do not stay cached until
+ * the TTL runs out.
+ * <p>
+ * One long poll at a time reads the changes after the last sequence seen and purges each changed
+ * product. On start, and whenever the feed reports a reset or a new epoch, the cache is emptied
+ * and the feed followed from its current position, since the changes in between are unknown.
+ * While the feed is unreachable, cached responses still expire after their TTL.
+ */
+@Component
+public class ProductChangePurger {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangePurger.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final ResponseCache cache;
+    private final WebClient webClient;
+    private final boolean enabled;
+    private final Duration pollWait;
+    private final Duration retryInterval;
+
+    private volatile String epoch;
+    private volatile long lastSequence;
+    private Disposable subscription;
+
+    @Autowired
+    public ProductChangePurger(ResponseCache cache,
+                               WebClient.Builder webClientBuilder,
+                               ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                               @Value("${gateway.response-cache.change-feed.enabled:true}") boolean enabled,
+                               @Value("${gateway.response-cache.change-feed.uri:http://PRODUCT-SERVICE}") String uri,
+                               @Value("${gateway.response-cache.change-feed.poll-wait:25s}") Duration pollWait,
+                               @Value("${gateway.response-cache.change-feed.retry-interval:1s}") Duration retryInterval) {
+        this(cache, webClientBuilder.baseUrl(uri).filter(loadBalancer).build(), enabled, pollWait, retryInterval);
+    }
+
+    ProductChangePurger(ResponseCache cache, WebClient webClient, boolean enabled, Duration pollWait,
+                        Duration retryInterval) {
+        this.cache = cache;
+        this.webClient = webClient;
+        this.enabled = enabled;
+        this.pollWait = pollWait;
+        this.retryInterval = retryInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        subscription = Mono.defer(this::poll)
+                .repeat()
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, retryInterval)
+                        .doBeforeRetry(signal -> log.warn(
+                                "Product change feed unavailable, resuming after sequence {}. Cause: {}",
+                                lastSequence, signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Takes the feed's current position when there is none, purging everything, or else waits
+     * for the changes after it and purges the products they name.
+     */
+    Mono<Void> poll() {
+        if (epoch == null) {
+            return changes(null, Duration.ZERO)
+                    .doOnNext(head -> {
+                        cache.purge(null);
+                        lastSequence = head.lastSequence();
+                        epoch = head.epoch();
+                    })
+                    .then();
+        }
+        return changes(lastSequence, pollWait)
+                .doOnNext(this::apply)
+                .then();
+    }
+
+    private void apply(ChangeFeed feed) {
+        if (feed.reset() || !epoch.equals(feed.epoch())) {
+            epoch = null;
+            return;
+        }
+        List<Change> changes = feed.changes();
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        Set<Long> productIds = changes.stream().map(Change::productId).collect(Collectors.toSet());
+        cache.purgeProducts(productIds);
+        lastSequence = changes.get(changes.size() - 1).sequence();
+    }
+
+    private Mono<ChangeFeed> changes(Long after, Duration wait) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/products/changes")
+                        .queryParamIfPresent("after", Optional.ofNullable(after))
+                        .queryParam("limit", BATCH_SIZE)
+                        .queryParam("waitMs", wait.toMillis())
+                        .build())
+                .retrieve()
+                .bodyToMono(ChangeFeed.class)
+                .timeout(wait.plus(retryInterval).plusSeconds(5));
+    }
+
+    /**
+     * The parts of a change feed read the purge needs.
+     */
+    record ChangeFeed(String epoch, long lastSequence, boolean reset, List<Change> changes) {
+    }
+
+    record Change(long sequence, Long productId) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.apigateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory store behind the {@code ResponseCache} route filter. Holds at most
+ * {@code max-entries} responses and drops the least recently used beyond that; expired entries are
+ * dropped when next looked up.
+ * <p>
+ * Every purge moves the generation on. A response is stored only if no purge happened since its
+ * request was sent, so a read racing a write cannot put back what the write just purged.
+ */
+@Component
+public class ResponseCache {
+
+    private final int maxEntries;
+    private final int maxEntryBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    public ResponseCache(@Value("${gateway.response-cache.max-entries:10000}") int maxEntries,
+                         @Value("${gateway.response-cache.max-entry-bytes:262144}") int maxEntryBytes) {
+        this.maxEntries = maxEntries;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * The live entry for {@code key}, counted as a hit, or null, counted as a miss.
+     */
+    public CachedResponse get(String key) {
+        long now = System.nanoTime();
+        CachedResponse entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key);
+                entry = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+            savedNanos.add(entry.originNanos());
+        }
+        return entry;
+    }
+
+    /**
+     * Stores {@code entry} unless something was purged after {@code sentAtGeneration}.
+     */
+    public void put(String key, CachedResponse entry, long sentAtGeneration) {
+        lock.lock();
+        try {
+            if (generation.get() != sentAtGeneration) {
+                return;
+            }
+            entries.put(key, entry);
+            stored.increment();
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evicted.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Drops the responses a change to {@code productId} can have made stale: that product's own,
+     * and every response that is not about a single product (lists, searches, batches). A null
+     * id drops everything.
+     */
+    public int purge(Long productId) {
+        return productId == null ? purgeMatching(null) : purgeProducts(List.of(productId));
+    }
+
+    /**
+     * Drops what a change to any of {@code productIds} can have made stale, in one pass.
+     */
+    public int purgeProducts(Collection<Long> productIds) {
+        return purgeMatching(entry -> entry.productId() == null || productIds.contains(entry.productId()));
+    }
+
+    private int purgeMatching(Predicate<CachedResponse> stale) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            int before = entries.size();
+            if (stale == null) {
+                entries.clear();
+            } else {
+                entries.values().removeIf(stale);
+            }
+            int removed = before - entries.size();
+            purged.add(removed);
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("notModified", notModified.sum());
+        stats.put("stored", stored.sum());
+        stats.put("purged", purged.sum());
+        stats.put("evicted", evicted.sum());
+        stats.put("latencySavedMs", savedNanos.sum() / 1_000_000);
+        return stats;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.apigateway.config;
+
+import com.ecommerce.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Routes {@code lb://} URIs with {@link com.ecommerce.loadbalancer.PeakEwmaLoadBalancer}
+ * for every service.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,319 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.apigateway.cache.CachedResponse;
+import com.ecommerce.apigateway.cache.ResponseCache;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Route filter {@code ResponseCache}: answers repeated GETs from the {@link ResponseCache} instead
+ * of the service, and purges what a write through the same route can have changed.
+ * <p>
+ * A 200 response is stored for its {@code Cache-Control} {@code s-maxage} or {@code max-age}, or
+ * for the route's {@code ttl} when it gives neither, and not at all when it says {@code no-store},
+ * {@code private} or {@code no-cache}, sets a cookie, is a stream or is larger than
+ * {@code gateway.response-cache.max-entry-bytes}. Entries are kept per path, query and
+ * {@code Accept}. Stored responses carry an {@code ETag} (the service's, or a hash of the body),
+ * and a request whose {@code If-None-Match} lists it, weakly compared, or is {@code *} gets
+ * {@code 304 Not Modified}. A request with
+ * {@code Cache-Control: no-cache} goes to the service and refreshes the entry; {@code no-store}
+ * bypasses the cache.
+ * <p>
+ * Any other method purges once it has been answered: a write to {@code /products/{id}} or
+ * {@code /products/reduce/{id}} drops that product and every
+ * list, search and batch response; any other write drops everything. Changes made elsewhere are
+ * purged from the Product Service change feed by {@link com.ecommerce.apigateway.cache.ProductChangePurger}.
+ * Paths under {@code exclude} are passed through untouched.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    static final String CACHE_HEADER = "X-Cache";
+
+    private static final Pattern PRODUCT_PATH = Pattern.compile("^/products/(\\d+)$");
+    private static final Pattern PRODUCT_WRITE_PATH = Pattern.compile("^/products/(?:reduce/)?(\\d+)$");
+    private static final Set<MediaType> STREAMING_TYPES = Set.of(
+            MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.DATE, HttpHeaders.AGE, HttpHeaders.SET_COOKIE, "Keep-Alive", CACHE_HEADER);
+
+    private final ResponseCache cache;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Ahead of the filter that writes the service's response, so that it writes through ours
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getPath().pathWithinApplication().value();
+            if (config.getExclude().stream().anyMatch(path::startsWith)) {
+                return chain.filter(exchange);
+            }
+            HttpMethod method = request.getMethod();
+            if (HttpMethod.GET.equals(method)) {
+                return get(exchange, chain, config, path);
+            }
+            if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+                return chain.filter(exchange);
+            }
+            Long productId = writtenProductId(path);
+            return chain.filter(exchange)
+                    .doOnTerminate(() -> cache.purge(productId))
+                    .doOnCancel(() -> cache.purge(productId));
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> get(ServerWebExchange exchange, GatewayFilterChain chain, Config config, String path) {
+        ServerHttpRequest request = exchange.getRequest();
+        String requestCacheControl = lowerCase(request.getHeaders().getCacheControl());
+        if (requestCacheControl.contains("no-store")) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request, path);
+        if (!requestCacheControl.contains("no-cache")) {
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                return replay(exchange, cached);
+            }
+        }
+
+        CachingResponse response = new CachingResponse(exchange.getResponse(), key, productId(path),
+                config.getTtl(), cache.generation());
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.nanoTime())));
+        headers.set(CACHE_HEADER, "HIT");
+
+        if (notModified(exchange.getRequest().getHeaders().get(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+            cache.recordNotModified();
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Whether {@code If-None-Match}, in any number of headers and comma-separated lists, names the
+     * entity tag or is {@code *}. GETs compare weakly, so a {@code W/} prefix on either side is
+     * ignored.
+     */
+    static boolean notModified(List<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaqueTag(etag);
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                String candidate = tag.trim();
+                if ("*".equals(candidate) || opaqueTag.equals(opaqueTag(candidate))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String key(ServerHttpRequest request, String path) {
+        String query = request.getURI().getRawQuery();
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return path + (query != null ? "?" + query : "") + " " + (accept != null ? accept : "*/*");
+    }
+
+    private static Long productId(String path) {
+        Matcher matcher = PRODUCT_PATH.matcher(path);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static Long writtenProductId(String path) {
+        Matcher matcher = PRODUCT_WRITE_PATH.matcher(path);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static String lowerCase(String header) {
+        return header != null ? header.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Passes the service's response on as it arrives, keeping a copy of the body to store once it
+     * is complete.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Long productId;
+        private final Duration defaultTtl;
+        private final long sentAtGeneration;
+        private final long sentAtNanos = System.nanoTime();
+
+        CachingResponse(ServerHttpResponse delegate, String key, Long productId, Duration defaultTtl,
+                        long sentAtGeneration) {
+            super(delegate);
+            this.key = key;
+            this.productId = productId;
+            this.defaultTtl = defaultTtl;
+            this.sentAtGeneration = sentAtGeneration;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            headers.set(CACHE_HEADER, "MISS");
+            Duration ttl = ttl(headers);
+            long contentLength = headers.getContentLength();
+            if (ttl.isZero() || getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()
+                    || contentLength > cache.getMaxEntryBytes()) {
+                return super.writeWith(body);
+            }
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            boolean[] tooLarge = {false};
+            Flux<? extends DataBuffer> teed = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (tooLarge[0] || copy.size() + length > cache.getMaxEntryBytes()) {
+                            tooLarge[0] = true;
+                            return;
+                        }
+                        ByteBuffer bytes = ByteBuffer.allocate(length);
+                        buffer.toByteBuffer(buffer.readPosition(), bytes, 0, length);
+                        copy.write(bytes.array(), 0, length);
+                    })
+                    .doOnComplete(() -> {
+                        if (!tooLarge[0]) {
+                            store(headers, copy.toByteArray(), ttl);
+                        }
+                    });
+            return super.writeWith(teed);
+        }
+
+        private void store(HttpHeaders headers, byte[] body, Duration ttl) {
+            long now = System.nanoTime();
+            HttpHeaders replayed = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    replayed.put(name, new ArrayList<>(values));
+                }
+            });
+            String etag = headers.getETag() != null ? headers.getETag()
+                    : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            cache.put(key, new CachedResponse(HttpStatus.OK, HttpHeaders.readOnlyHttpHeaders(replayed), body, etag,
+                    productId, now - sentAtNanos, now, now + ttl.toNanos()), sentAtGeneration);
+        }
+
+        /**
+         * How long the response may be kept, zero if it may not be.
+         */
+        private Duration ttl(HttpHeaders headers) {
+            MediaType contentType = headers.getContentType();
+            if (headers.containsKey(HttpHeaders.SET_COOKIE) || "*".equals(headers.getFirst(HttpHeaders.VARY))
+                    || (contentType != null && STREAMING_TYPES.stream().anyMatch(contentType::isCompatibleWith))) {
+                return Duration.ZERO;
+            }
+            String cacheControl = lowerCase(headers.getCacheControl());
+            if (cacheControl.contains("no-store") || cacheControl.contains("private")
+                    || cacheControl.contains("no-cache")) {
+                return Duration.ZERO;
+            }
+            Long maxAge = directive(cacheControl, "s-maxage");
+            if (maxAge == null) {
+                maxAge = directive(cacheControl, "max-age");
+            }
+            return maxAge != null ? Duration.ofSeconds(maxAge) : defaultTtl;
+        }
+
+        private Long directive(String cacheControl, String name) {
+            for (String directive : cacheControl.split(",")) {
+                String[] parts = directive.trim().split("=", 2);
+                if (parts.length == 2 && parts[0].equals(name)) {
+                    try {
+                        return Math.max(0, Long.parseLong(parts[1].trim().replace("\"", "")));
+                    } catch (NumberFormatException ex) {
+                        return 0L;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class Config {
+
+        /**
+         * How long a response is kept when it does not say itself.
+         */
+        private Duration ttl = Duration.ofSeconds(5);
+
+        /**
+         * Path prefixes never cached, such as long polls and streams.
+         */
+        private List<String> exclude = new ArrayList<>();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public List<String> getExclude() {
+            return exclude;
+        }
+
+        public void setExclude(List<String> exclude) {
+            this.exclude = exclude;
+        }
+    }
+}
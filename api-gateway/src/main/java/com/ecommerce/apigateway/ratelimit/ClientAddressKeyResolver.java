@@ -0,0 +1,22 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate limits each calling address separately. There is no authenticated principal to key on at
+ * the gateway; behind a proxy, every caller would share the proxy's address.
+ */
+@Component
+public class ClientAddressKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return Mono.justOrEmpty(exchange.getRequest().getRemoteAddress())
+                .map(InetSocketAddress::getHostString);
+    }
+}
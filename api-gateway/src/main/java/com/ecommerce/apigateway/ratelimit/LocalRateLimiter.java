@@ -0,0 +1,258 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * {@code RequestRateLimiter} backend that keeps its token buckets in this gateway's memory rather
+ * than in Redis: one {@link TokenBucket} per route and client key, each taken from with a single
+ * compare-and-set, so a request costs two hash lookups and no lock. Limits are per gateway
+ * instance.
+ * <p>
+ * Routes set {@code local-rate-limiter.replenish-rate}, {@code burst-capacity} and
+ * {@code requested-tokens} in the filter's args; anything left out comes from
+ * {@code gateway.rate-limit.*}. Allowed and refused responses carry the usual
+ * {@code X-RateLimit-*} headers, and refused ones a {@code Retry-After}.
+ * <p>
+ * Memory is bounded two ways. Buckets that have been full for {@code idle-timeout} are dropped by
+ * a background sweep, which cannot change a decision since a new bucket starts full. And a route
+ * holds at most {@code max-buckets-per-route}: once it does, a new client's bucket replaces the
+ * fullest of a few sampled ones, so newcomers never share a bucket with a noisy client.
+ */
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int EVICTION_SAMPLES = 16;
+
+    private final Config defaultConfig;
+    private final Duration idleTimeout;
+    private final Duration sweepInterval;
+    private final int maxBucketsPerRoute;
+    private final LongSupplier nanoClock;
+    private final Map<String, RouteBuckets> routes = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sweeper;
+
+    @Autowired
+    public LocalRateLimiter(ConfigurationService configurationService,
+                            @Value("${gateway.rate-limit.replenish-rate:100}") int replenishRate,
+                            @Value("${gateway.rate-limit.burst-capacity:200}") int burstCapacity,
+                            @Value("${gateway.rate-limit.idle-timeout:60s}") Duration idleTimeout,
+                            @Value("${gateway.rate-limit.sweep-interval:10s}") Duration sweepInterval,
+                            @Value("${gateway.rate-limit.max-buckets-per-route:100000}") int maxBucketsPerRoute) {
+        this(configurationService, replenishRate, burstCapacity, idleTimeout, sweepInterval, maxBucketsPerRoute,
+                System::nanoTime);
+    }
+
+    LocalRateLimiter(ConfigurationService configurationService, int replenishRate, int burstCapacity,
+                     Duration idleTimeout, Duration sweepInterval, int maxBucketsPerRoute, LongSupplier nanoClock) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        if (idleTimeout.isNegative() || sweepInterval.isNegative() || sweepInterval.isZero()) {
+            throw new IllegalArgumentException("idle-timeout must not be negative and sweep-interval must be positive");
+        }
+        if (maxBucketsPerRoute < 1) {
+            throw new IllegalArgumentException("max-buckets-per-route must be at least 1, was " + maxBucketsPerRoute);
+        }
+        this.defaultConfig = new Config();
+        this.defaultConfig.setReplenishRate(replenishRate);
+        this.defaultConfig.setBurstCapacity(burstCapacity);
+        this.idleTimeout = idleTimeout;
+        this.sweepInterval = sweepInterval;
+        this.maxBucketsPerRoute = maxBucketsPerRoute;
+        this.nanoClock = nanoClock;
+    }
+
+    @PostConstruct
+    void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Route configs start from the {@code gateway.rate-limit.*} defaults, so a route only has to
+     * name what it changes.
+     */
+    @Override
+    public Config newConfig() {
+        Config config = new Config();
+        config.setReplenishRate(defaultConfig.getReplenishRate());
+        config.setBurstCapacity(defaultConfig.getBurstCapacity());
+        config.setRequestedTokens(defaultConfig.getRequestedTokens());
+        return config;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = nanoClock.getAsLong();
+        long tokenNanos = NANOS_PER_SECOND / config.getReplenishRate();
+        long costNanos = tokenNanos * config.getRequestedTokens();
+        long capacityNanos = tokenNanos * config.getBurstCapacity();
+
+        TokenBucket bucket = bucket(routeId, id, now);
+        long leftNanos = bucket.tryTake(now, costNanos, capacityNanos);
+        if (leftNanos >= 0) {
+            return Mono.just(new Response(true, headers(config, leftNanos / tokenNanos)));
+        }
+        Map<String, String> headers = headers(config, 0);
+        long waitNanos = bucket.nanosUntilAvailable(now, costNanos, capacityNanos);
+        headers.put(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ceilDiv(waitNanos, NANOS_PER_SECOND))));
+        return Mono.just(new Response(false, headers));
+    }
+
+    private TokenBucket bucket(String routeId, String id, long now) {
+        RouteBuckets route = routes.get(routeId);
+        if (route == null) {
+            route = routes.computeIfAbsent(routeId, key -> new RouteBuckets());
+        }
+        TokenBucket bucket = route.buckets.get(id);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (route.buckets.size() >= maxBucketsPerRoute) {
+            evictFullest(route, now);
+        }
+        return route.buckets.computeIfAbsent(id, key -> new TokenBucket(now));
+    }
+
+    /**
+     * Makes room for a new client by dropping the fullest of a few sampled buckets. A bucket that is
+     * already full holds nothing a new one would not, so this only ever hands tokens back early when
+     * every sampled client is being limited, and then to the one closest to full anyway.
+     */
+    private void evictFullest(RouteBuckets route, long now) {
+        Map.Entry<String, TokenBucket> fullest = null;
+        int sampled = 0;
+        for (Map.Entry<String, TokenBucket> entry : route.buckets.entrySet()) {
+            if (fullest == null || entry.getValue().fullAtNanos() - fullest.getValue().fullAtNanos() < 0) {
+                fullest = entry;
+            }
+            if (++sampled == EVICTION_SAMPLES || fullest.getValue().isIdle(now, 0)) {
+                break;
+            }
+        }
+        if (fullest != null) {
+            route.buckets.remove(fullest.getKey(), fullest.getValue());
+        }
+    }
+
+    /**
+     * Drops every bucket that has been full for the idle timeout. A request that fetched one just
+     * before it went loses only its own take; the next starts from a full bucket, as it would have.
+     */
+    void sweep() {
+        long now = nanoClock.getAsLong();
+        long idleNanos = idleTimeout.toNanos();
+        routes.values().forEach(route -> route.buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos)));
+    }
+
+    int getBucketCount() {
+        return routes.values().stream().mapToInt(route -> route.buckets.size()).sum();
+    }
+
+    private static Map<String, String> headers(Config config, long remaining) {
+        Map<String, String> headers = new HashMap<>(8);
+        headers.put(REMAINING_HEADER, Long.toString(remaining));
+        headers.put(REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, Integer.toString(config.getRequestedTokens()));
+        return headers;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private static final class RouteBuckets {
+
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    }
+
+    public static class Config {
+
+        /**
+         * Tokens added per second, at most one per nanosecond.
+         */
+        private int replenishRate = 100;
+
+        /**
+         * Most tokens a bucket holds, and so the largest burst allowed after a quiet spell.
+         */
+        private int burstCapacity = 200;
+
+        /**
+         * Tokens one request takes.
+         */
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            if (replenishRate < 1 || replenishRate > NANOS_PER_SECOND) {
+                throw new IllegalArgumentException(
+                        "replenish-rate must be between 1 and " + NANOS_PER_SECOND + ", was " + replenishRate);
+            }
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            if (burstCapacity < 0) {
+                throw new IllegalArgumentException("burst-capacity must not be negative, was " + burstCapacity);
+            }
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(int requestedTokens) {
+            if (requestedTokens < 1) {
+                throw new IllegalArgumentException("requested-tokens must be at least 1, was " + requestedTokens);
+            }
+            this.requestedTokens = requestedTokens;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket held as one number: the {@link System#nanoTime()} at which it will be full again
+ * (the generic cell rate algorithm). Taking tokens moves that time on by what they cost to refill,
+ * and is refused when it would end up more than a full bucket's refill time ahead of now. A take is
+ * a single compare-and-set, retried only when another request for the same key won it.
+ * <p>
+ * Costs are in nanoseconds of refill: a token costs {@code 1s / replenish rate}, and a full bucket
+ * is {@code burst capacity} of those.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes {@code costNanos} worth of tokens if the bucket holds them, and returns the refill time
+     * still left in it; returns -1, taking nothing, if it does not.
+     */
+    long tryTake(long nowNanos, long costNanos, long capacityNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + costNanos;
+            long debt = next - nowNanos;
+            if (debt > capacityNanos) {
+                return -1;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return capacityNanos - debt;
+            }
+        }
+    }
+
+    /**
+     * How long until {@code costNanos} worth of tokens can be taken.
+     */
+    long nanosUntilAvailable(long nowNanos, long costNanos, long capacityNanos) {
+        long current = fullAt.get();
+        long next = (current - nowNanos > 0 ? current : nowNanos) + costNanos;
+        return Math.max(0, next - nowNanos - capacityNanos);
+    }
+
+    /**
+     * Whether the bucket has been full for at least {@code idleNanos}. A full bucket holds nothing a
+     * new one would not, so it can be dropped without changing any decision.
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - fullAt.get() >= idleNanos;
+    }
+
+    /**
+     * The {@link System#nanoTime()} at which the bucket is full again; in the past if it already is.
+     */
+    long fullAtNanos() {
+        return fullAt.get();
+    }
+}
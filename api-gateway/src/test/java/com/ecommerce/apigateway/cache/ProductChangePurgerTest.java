@@ -0,0 +1,93 @@
+package com.ecommerce.apigateway.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductChangePurgerTest {
+
+    private final ResponseCache cache = new ResponseCache(100, 1024);
+    private final Deque<String> answers = new ArrayDeque<>();
+    private final List<String> queries = new ArrayList<>();
+    private final ProductChangePurger purger = new ProductChangePurger(cache, stubFeed(), true,
+            Duration.ofSeconds(1), Duration.ofMillis(10));
+
+    @Test
+    @DisplayName("Changes read from the feed should purge those products and every list, but not other products")
+    void changesShouldPurgeChangedProducts() {
+        answers.add(feed("e1", 7, false, ""));
+        answers.add(feed("e1", 9, false, change(8, 1) + "," + change(9, 1)));
+
+        purger.poll().block();
+        store("/products/1", 1L);
+        store("/products/2", 2L);
+        store("/products?limit=10", null);
+        purger.poll().block();
+
+        assertThat(cache.get("/products/1")).isNull();
+        assertThat(cache.get("/products?limit=10")).isNull();
+        assertThat(cache.get("/products/2")).isNotNull();
+        assertThat(queries).containsExactly("limit=500&waitMs=0", "after=7&limit=500&waitMs=1000");
+
+        answers.add(feed("e1", 9, false, ""));
+        purger.poll().block();
+        assertThat(queries.get(2)).startsWith("after=9&");
+    }
+
+    @Test
+    @DisplayName("A new epoch should empty the cache and restart from the feed's current position")
+    void newEpochShouldPurgeEverything() {
+        answers.add(feed("e1", 7, false, ""));
+        answers.add(feed("e2", 3, false, ""));
+        answers.add(feed("e2", 3, false, ""));
+
+        purger.poll().block();
+        store("/products/2", 2L);
+        purger.poll().block();
+        purger.poll().block();
+
+        assertThat(cache.size()).isZero();
+        assertThat(queries.get(2)).isEqualTo("limit=500&waitMs=0");
+    }
+
+    private void store(String key, Long productId) {
+        long now = System.nanoTime();
+        cache.put(key, new CachedResponse(HttpStatus.OK, new HttpHeaders(), new byte[0], "\"tag\"", productId,
+                0, now, now + Duration.ofMinutes(1).toNanos()), cache.generation());
+    }
+
+    private WebClient stubFeed() {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    queries.add(request.url().getRawQuery());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(answers.remove())
+                            .build());
+                })
+                .build();
+    }
+
+    private static String feed(String epoch, long lastSequence, boolean reset, String changes) {
+        return "{\"epoch\":\"" + epoch + "\",\"lastSequence\":" + lastSequence + ",\"reset\":" + reset
+                + ",\"changes\":[" + changes + "]}";
+    }
+
+    private static String change(long sequence, long productId) {
+        return "{\"sequence\":" + sequence + ",\"type\":\"STOCK_CHANGED\",\"productId\":" + productId
+                + ",\"product\":{\"id\":" + productId + ",\"quantity\":3}}";
+    }
+}
@@ -0,0 +1,201 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.apigateway.cache.ResponseCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final ResponseCache cache = new ResponseCache(100, 1024);
+    private final GatewayFilter filter = new ResponseCacheGatewayFilterFactory(cache)
+            .apply(new ResponseCacheGatewayFilterFactory.Config());
+    private final StubProductService productService = new StubProductService();
+
+    @Test
+    @DisplayName("A repeated GET should be answered from the cache with an ETag")
+    void repeatedGetShouldBeAnsweredFromCache() {
+        MockServerWebExchange first = send(MockServerHttpRequest.get("/products/1"));
+        MockServerWebExchange second = send(MockServerHttpRequest.get("/products/1"));
+
+        assertThat(productService.calls.get()).isEqualTo(1);
+        assertThat(first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+                .isEqualTo("HIT");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(body("/products/1"));
+        assertThat(second.getResponse().getHeaders().getETag()).isNotBlank();
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    @DisplayName("A GET whose If-None-Match matches the cached ETag should get 304 without a body")
+    void matchingEtagShouldGetNotModified() {
+        send(MockServerHttpRequest.get("/products/1"));
+        String etag = send(MockServerHttpRequest.get("/products/1")).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange conditional = send(MockServerHttpRequest.get("/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertThat(conditional.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conditional.getResponse().getBodyAsString().block()).isNullOrEmpty();
+        assertThat(productService.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("If-None-Match should match weak tags, lists across headers and *")
+    void ifNoneMatchShouldCompareWeaklyAndAcceptLists() {
+        send(MockServerHttpRequest.get("/products/1"));
+        String etag = send(MockServerHttpRequest.get("/products/1")).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange weak = send(MockServerHttpRequest.get("/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag));
+        MockServerWebExchange list = send(MockServerHttpRequest.get("/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"older\"")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\" , " + etag));
+        MockServerWebExchange any = send(MockServerHttpRequest.get("/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "*"));
+        MockServerWebExchange other = send(MockServerHttpRequest.get("/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"older\""));
+
+        assertThat(weak.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(list.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(any.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(other.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ResponseCacheGatewayFilterFactory.notModified(List.of(etag), "W/" + etag)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Responses the service marks no-store should not be kept")
+    void noStoreResponseShouldNotBeCached() {
+        productService.cacheControl = "no-store";
+
+        send(MockServerHttpRequest.get("/products/1"));
+        send(MockServerHttpRequest.get("/products/1"));
+
+        assertThat(productService.calls.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Entries should be kept apart by Accept, as the service answers JSON or Smile")
+    void entriesShouldBeKeptApartByAccept() {
+        send(MockServerHttpRequest.get("/products/1").accept(MediaType.APPLICATION_JSON));
+        send(MockServerHttpRequest.get("/products/1").header(HttpHeaders.ACCEPT, "application/x-jackson-smile"));
+
+        assertThat(productService.calls.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Reducing a product's stock should purge that product and every list, but not other products")
+    void writeShouldPurgeMatchingEntries() {
+        send(MockServerHttpRequest.get("/products/1"));
+        send(MockServerHttpRequest.get("/products/2"));
+        send(MockServerHttpRequest.get("/products/filter?minPrice=10"));
+
+        send(MockServerHttpRequest.put("/products/reduce/1?quantity=2"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        send(MockServerHttpRequest.get("/products/2"));
+        send(MockServerHttpRequest.get("/products/1"));
+        assertThat(productService.paths).containsExactly(
+                "/products/1", "/products/2", "/products/filter", "/products/reduce/1", "/products/1");
+    }
+
+    @Test
+    @DisplayName("A response read before a purge should not be stored after it")
+    void responseOverlappingPurgeShouldNotBeStored() {
+        productService.beforeAnswering = () -> cache.purge(null);
+
+        send(MockServerHttpRequest.get("/products/1"));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Excluded paths should always go to the service")
+    void excludedPathsShouldNotBeCached() {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setExclude(List.of("/products/changes"));
+        GatewayFilter excluding = new ResponseCacheGatewayFilterFactory(cache).apply(config);
+
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products/changes"));
+            excluding.filter(exchange, productService).block();
+        }
+
+        assertThat(productService.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("The cache should hold at most its maximum, dropping the least recently used entry")
+    void leastRecentlyUsedEntryShouldBeDropped() {
+        ResponseCache small = new ResponseCache(2, 1024);
+        GatewayFilter bounded = new ResponseCacheGatewayFilterFactory(small)
+                .apply(new ResponseCacheGatewayFilterFactory.Config());
+
+        for (String path : List.of("/products/1", "/products/2", "/products/1", "/products/3", "/products/1")) {
+            bounded.filter(MockServerWebExchange.from(MockServerHttpRequest.get(path)), productService).block();
+        }
+
+        assertThat(small.size()).isEqualTo(2);
+        assertThat(productService.paths).containsExactly("/products/1", "/products/2", "/products/3");
+        assertThat(small.stats()).containsEntry("evicted", 1L);
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, productService).block();
+        return exchange;
+    }
+
+    private static String body(String path) {
+        return "{\"path\":\"" + path + "\"}";
+    }
+
+    /**
+     * Stands in for the rest of the route: answers 200 with a small JSON body naming the path.
+     */
+    private static final class StubProductService implements GatewayFilterChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final List<String> paths = new ArrayList<>();
+        private String cacheControl;
+        private Runnable beforeAnswering = () -> {
+        };
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            calls.incrementAndGet();
+            String path = exchange.getRequest().getPath().value();
+            paths.add(path);
+            beforeAnswering.run();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (cacheControl != null) {
+                response.getHeaders().setCacheControl(cacheControl);
+            }
+            byte[] bytes = body(path).getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what {@link LocalRateLimiter#isAllowed} adds to a request, the way the
+ * {@code RequestRateLimiter} filter calls it: for 100 and for 100k distinct clients (the cost
+ * should not grow with them), for refused requests, and from 8 threads at once on one client and on
+ * many. Like a JMH run, each case is warmed up first and the best of several measured rounds is
+ * reported.
+ */
+class LocalRateLimiterBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalRateLimiterBenchmarkTest.class);
+
+    private static final String ROUTE = "product-service";
+    private static final int WARM_UP_OPS = 200_000;
+    private static final int MEASURED_OPS = 200_000;
+    private static final int ROUNDS = 5;
+    private static final int THREADS = 8;
+
+    @Test
+    @DisplayName("Per-request cost should stay small and not grow with the number of clients")
+    void perRequestCostShouldNotGrowWithClients() {
+        long fewClients = nanosPerOp(limiter(1_000_000_000), clients(100));
+        long manyClients = nanosPerOp(limiter(1_000_000_000), clients(100_000));
+        long refused = nanosPerOp(limiter(1), clients(1));
+
+        log.info("ns per isAllowed - 100 clients: {}, 100k clients: {}, refused: {}",
+                fewClients, manyClients, refused);
+
+        // Generous bounds: the point is microseconds, not milliseconds, and no linear growth
+        assertThat(fewClients).isLessThan(20_000);
+        assertThat(manyClients).isLessThan(fewClients * 10 + 1_000);
+    }
+
+    @Test
+    @DisplayName("Throughput from several threads on one client and on many")
+    void concurrentThroughput() throws Exception {
+        log.info("isAllowed/s from {} threads - one client: {}, 10k clients: {}", THREADS,
+                opsPerSecond(limiter(1_000_000_000), clients(1)),
+                opsPerSecond(limiter(1_000_000_000), clients(10_000)));
+    }
+
+    private static LocalRateLimiter limiter(int rate) {
+        return new LocalRateLimiter(null, rate, rate, Duration.ofSeconds(60), Duration.ofSeconds(10),
+                1_000_000, System::nanoTime);
+    }
+
+    private static String[] clients(int count) {
+        String[] clients = new String[count];
+        for (int i = 0; i < count; i++) {
+            clients[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+        return clients;
+    }
+
+    /**
+     * Best average over {@link #ROUNDS} rounds of {@link #MEASURED_OPS}, after
+     * {@link #WARM_UP_OPS} unmeasured ones, cycling through {@code clients}.
+     */
+    private static long nanosPerOp(LocalRateLimiter limiter, String[] clients) {
+        List<RateLimiter.Response> sink = new ArrayList<>(1);
+        for (int i = 0; i < WARM_UP_OPS; i++) {
+            sink.add(limiter.isAllowed(ROUTE, clients[i % clients.length]).block());
+            sink.clear();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_OPS; i++) {
+                sink.add(limiter.isAllowed(ROUTE, clients[i % clients.length]).block());
+                sink.clear();
+            }
+            best = Math.min(best, (System.nanoTime() - start) / MEASURED_OPS);
+        }
+        return best;
+    }
+
+    private static long opsPerSecond(LocalRateLimiter limiter, String[] clients) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * 7919;
+                runs.add(callers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < MEASURED_OPS; i++) {
+                        limiter.isAllowed(ROUTE, clients[(offset + i) % clients.length]).block();
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+            return Math.round((double) THREADS * MEASURED_OPS / ((System.nanoTime() - begin) / 1e9));
+        } finally {
+            callers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalRateLimiterTest {
+
+    private static final String ROUTE = "product-service";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("A client should get its burst, then be refused with Retry-After until tokens come back")
+    void clientShouldBeRefusedOnceBurstIsSpent() {
+        LocalRateLimiter limiter = limiter(10, 5, 1_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(allowed(limiter, "10.0.0.1")).isTrue();
+        }
+        RateLimiter.Response refused = limiter.isAllowed(ROUTE, "10.0.0.1").block();
+
+        assertThat(refused.isAllowed()).isFalse();
+        assertThat(refused.getHeaders())
+                .containsEntry(LocalRateLimiter.REMAINING_HEADER, "0")
+                .containsEntry(HttpHeaders.RETRY_AFTER, "1");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(allowed(limiter, "10.0.0.1")).isTrue();
+        assertThat(allowed(limiter, "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Remaining tokens should be reported on allowed responses")
+    void allowedResponsesShouldReportRemainingTokens() {
+        LocalRateLimiter limiter = limiter(10, 5, 1_000);
+
+        RateLimiter.Response response = limiter.isAllowed(ROUTE, "10.0.0.1").block();
+
+        assertThat(response.getHeaders())
+                .containsEntry(LocalRateLimiter.REMAINING_HEADER, "4")
+                .containsEntry(LocalRateLimiter.REPLENISH_RATE_HEADER, "10")
+                .containsEntry(LocalRateLimiter.BURST_CAPACITY_HEADER, "5")
+                .containsEntry(LocalRateLimiter.REQUESTED_TOKENS_HEADER, "1");
+    }
+
+    @Test
+    @DisplayName("Clients and routes should each have their own bucket, with route settings from the filter args")
+    void clientsAndRoutesShouldHaveTheirOwnBuckets() {
+        LocalRateLimiter limiter = limiter(10, 1, 1_000);
+        LocalRateLimiter.Config orders = limiter.newConfig();
+        orders.setBurstCapacity(3);
+        limiter.getConfig().put("order-service", orders);
+
+        assertThat(allowed(limiter, "10.0.0.1")).isTrue();
+        assertThat(allowed(limiter, "10.0.0.1")).isFalse();
+        assertThat(allowed(limiter, "10.0.0.2")).isTrue();
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.isAllowed("order-service", "10.0.0.1").block().isAllowed()).isTrue();
+        }
+        assertThat(limiter.isAllowed("order-service", "10.0.0.1").block().isAllowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for one client should never take more than the bucket holds")
+    void concurrentRequestsShouldNotOverdrawBucket() throws Exception {
+        LocalRateLimiter limiter = limiter(10, 200, 1_000);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (allowed(limiter, "10.0.0.1")) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(total).isEqualTo(200);
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("The sweep should drop buckets that have been full for the idle timeout and keep the rest")
+    void sweepShouldDropOnlyIdleBuckets() {
+        LocalRateLimiter limiter = limiter(10, 10, 1_000);
+        for (int i = 0; i < 100; i++) {
+            limiter.isAllowed(ROUTE, "10.0.1." + i).block();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        for (int i = 0; i < 10; i++) {
+            allowed(limiter, "10.0.0.1");
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(35));
+        limiter.sweep();
+
+        assertThat(limiter.getBucketCount()).isEqualTo(1);
+        assertThat(allowed(limiter, "10.0.0.1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Once a route holds its most buckets, a new client should replace the fullest, not share a noisy client's")
+    void newClientsShouldEvictFullestBucketAtCapacity() {
+        LocalRateLimiter limiter = limiter(10, 2, 3);
+        allowed(limiter, "10.0.1.1");
+        allowed(limiter, "10.0.1.1");
+        allowed(limiter, "10.0.1.2");
+        allowed(limiter, "10.0.1.2");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        allowed(limiter, "10.0.1.3");
+
+        // A noisy newcomer spends its own burst only
+        assertThat(allowed(limiter, "10.0.2.1")).isTrue();
+        assertThat(allowed(limiter, "10.0.2.1")).isTrue();
+        assertThat(allowed(limiter, "10.0.2.1")).isFalse();
+        assertThat(limiter.getBucketCount()).isEqualTo(3);
+
+        // The bucket closest to full went; the drained clients kept theirs
+        assertThat(allowed(limiter, "10.0.1.1")).isFalse();
+        assertThat(allowed(limiter, "10.0.1.2")).isFalse();
+
+        // The next newcomer is not throttled by the noisy one
+        assertThat(allowed(limiter, "10.0.2.2")).isTrue();
+        assertThat(allowed(limiter, "10.0.2.2")).isTrue();
+        assertThat(limiter.getBucketCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Replenish rates a nanosecond clock cannot express should be rejected")
+    void replenishRateShouldBeValidated() {
+        LocalRateLimiter.Config config = new LocalRateLimiter.Config();
+
+        assertThatThrownBy(() -> config.setReplenishRate(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> config.setReplenishRate(1_000_000_001)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limiter(1_000_000_001, 10, 1_000)).isInstanceOf(IllegalArgumentException.class);
+        config.setReplenishRate(1_000_000_000);
+        assertThat(config.getReplenishRate()).isEqualTo(1_000_000_000);
+    }
+
+    private LocalRateLimiter limiter(int replenishRate, int burstCapacity, int maxBuckets) {
+        return new LocalRateLimiter(null, replenishRate, burstCapacity, Duration.ofSeconds(60),
+                Duration.ofSeconds(10), maxBuckets, clock::get);
+    }
+
+    private static boolean allowed(LocalRateLimiter limiter, String client) {
+        return limiter.isAllowed(ROUTE, client).block().isAllowed();
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.exception.ProductServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many calls to Product Service are in flight at once, and moves the cap with the
+ * latency Product Service shows (AIMD). A call that comes back within {@code max-latency} while
+ * at least half the limit is in use raises the limit by one per limit's worth of calls; a slower
+ * call cuts it by {@code backoff-ratio}, once per slowdown: calls that started before the last
+ * cut do not cut it again. Errors are left to the circuit breaker.
+ * <p>
+ * A call over the limit does not wait: it fails at once with
+ * {@link ProductServiceOverloadedException}, so a slow Product Service is not handed more work
+ * than it is getting through.
+ * <p>
+ * {@code product.client.concurrency.limit} and {@code product.client.concurrency.in.flight} are
+ * gauges, {@code product.client.concurrency.rejected} counts calls turned away; the actuator
+ * endpoint {@code productclientlimit} shows the same.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    static final String METRIC = "product.client.concurrency";
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long maxLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    private double limit;
+    private long lastBackoffNanos = System.nanoTime();
+    private volatile int currentLimit;
+
+    public AdaptiveConcurrencyLimiter(@Value("${product-client.concurrency-limit.enabled:true}") boolean enabled,
+                                      @Value("${product-client.concurrency-limit.initial-limit:20}") int initialLimit,
+                                      @Value("${product-client.concurrency-limit.min-limit:4}") int minLimit,
+                                      @Value("${product-client.concurrency-limit.max-limit:200}") int maxLimit,
+                                      @Value("${product-client.concurrency-limit.max-latency:500ms}") Duration maxLatency,
+                                      @Value("${product-client.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+        Gauge.builder(METRIC + ".limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Calls to Product Service allowed in flight at once")
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".in.flight", inFlight, AtomicInteger::get)
+                .description("Calls to Product Service in flight")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC + ".rejected")
+                .description("Calls to Product Service turned away at the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Makes the call if the limit allows it, or throws {@link ProductServiceOverloadedException}.
+     */
+    public <T> T call(Supplier<T> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        int inFlightNow = tryAcquire();
+        if (inFlightNow < 0) {
+            rejected.increment();
+            throw new ProductServiceOverloadedException(currentLimit);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return request.get();
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(start, System.nanoTime() - start, inFlightNow);
+        }
+    }
+
+    public void run(Runnable request) {
+        call(() -> {
+            request.run();
+            return null;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getRejected() {
+        return rejected.count();
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos);
+    }
+
+    /**
+     * Takes a slot, returning the number of calls in flight with it, or -1 at the limit.
+     */
+    private int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private synchronized void onSample(long startNanos, long latencyNanos, int inFlightAtStart) {
+        if (latencyNanos > maxLatencyNanos) {
+            if (startNanos - lastBackoffNanos < 0) {
+                return;
+            }
+            limit = Math.max(minLimit, limit * backoffRatio);
+            lastBackoffNanos = System.nanoTime();
+        } else if (inFlightAtStart * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        currentLimit = (int) limit;
+    }
+}
@@ -0,0 +1,157 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * The {@link ProductClient} the rest of Order Service is given. Concurrent lookups of the same
+ * product share one in-flight request to Product Service and its result (single flight). With
+ * {@code product-client.hedge.enabled}, a lookup slower than usual is hedged by a
+ * {@link ProductLookupHedger} on the {@code productLookupExecutor}. Otherwise lookups of different
+ * products made within {@code product-client.batch.window} are gathered into one multi-id request
+ * by a {@link ProductLookupBatcher}. Batching is off by default, as the window delays every lookup
+ * made while Product Service is lightly loaded. Hedged lookups are never
+ * batched, as the load balancer can only steer a hedge away from a request of its own. Every other
+ * call goes straight to the Feign client. All requests, lookups included, pass the
+ * {@link AdaptiveConcurrencyLimiter} on their way out.
+ * <p>
+ * {@code product.client.lookups} counts lookups by {@code outcome}: {@code fetched} for those
+ * that made the request, {@code coalesced} for those that joined one already in flight.
+ * {@code product.client.batch.size} records how many ids each multi-id request carried.
+ */
+@Component
+@Primary
+public class CoalescingProductClient implements ProductClient {
+
+    static final String LOOKUPS_METRIC = "product.client.lookups";
+
+    private final ProductClient delegate;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ConcurrentMap<Long, CompletableFuture<ProductResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter fetched;
+    private final Counter coalesced;
+    private final Function<Long, ProductResponse> productLookup;
+
+    public CoalescingProductClient(@Qualifier("feignProductClient") ProductClient delegate,
+                                   AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                   MeterRegistry meterRegistry,
+                                   @Qualifier("productLookupExecutor") Executor lookupExecutor,
+                                   @Value("${product-client.batch.window:0ms}") Duration batchWindow,
+                                   @Value("${product-client.batch.max-size:100}") int maxBatchSize,
+                                   @Value("${product-client.hedge.enabled:false}") boolean hedgeEnabled,
+                                   @Value("${product-client.hedge.percentile:0.95}") double hedgePercentile,
+                                   @Value("${product-client.hedge.min-delay:5ms}") Duration hedgeMinDelay,
+                                   @Value("${product-client.hedge.budget:0.1}") double hedgeBudget) {
+        this.delegate = delegate;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.fetched = Counter.builder(LOOKUPS_METRIC)
+                .tag("outcome", "fetched")
+                .description("Product lookups that made a request to Product Service")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder(LOOKUPS_METRIC)
+                .tag("outcome", "coalesced")
+                .description("Product lookups that shared a request already in flight")
+                .register(meterRegistry);
+        Gauge.builder(LOOKUPS_METRIC + ".in.flight", inFlight, Map::size)
+                .description("Product lookups currently in flight")
+                .register(meterRegistry);
+        Function<Long, ProductResponse> request = id -> concurrencyLimiter.call(() -> delegate.getProductById(id));
+        if (hedgeEnabled) {
+            this.productLookup = new ProductLookupHedger(
+                    (id, hedgeId) -> hedgeId == null ? request.apply(id) : getProductById(id, hedgeId),
+                    lookupExecutor, hedgePercentile, hedgeMinDelay, hedgeBudget, meterRegistry)::load;
+        } else if (batchWindow.isZero()) {
+            this.productLookup = request;
+        } else {
+            this.productLookup = new ProductLookupBatcher(this::getProductsByIds, batchWindow, maxBatchSize,
+                    DistributionSummary.builder("product.client.batch.size")
+                            .description("Product ids per multi-id lookup request")
+                            .register(meterRegistry))::load;
+        }
+    }
+
+    @Override
+    public ProductResponse getProductById(Long id) {
+        CompletableFuture<ProductResponse> lookup = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> leader = inFlight.putIfAbsent(id, lookup);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+
+        fetched.increment();
+        try {
+            ProductResponse product = productLookup.apply(id);
+            lookup.complete(product);
+            return product;
+        } catch (RuntimeException | Error ex) {
+            lookup.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, lookup);
+        }
+    }
+
+    /**
+     * One attempt of a hedged lookup, made as it is: attempts of a lookup are already coalesced.
+     */
+    @Override
+    public ProductResponse getProductById(Long id, String hedgeId) {
+        return concurrencyLimiter.call(() -> delegate.getProductById(id, hedgeId));
+    }
+
+    @Override
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        return concurrencyLimiter.call(() -> delegate.getProductsByIds(ids));
+    }
+
+    @Override
+    public ProductResponse reduceProductQuantity(Long id, int quantity) {
+        return concurrencyLimiter.call(() -> delegate.reduceProductQuantity(id, quantity));
+    }
+
+    @Override
+    public ReservationResponse reserveProduct(ReservationRequest request) {
+        return concurrencyLimiter.call(() -> delegate.reserveProduct(request));
+    }
+
+    @Override
+    public ReservationResponse confirmReservation(String reservationId) {
+        return concurrencyLimiter.call(() -> delegate.confirmReservation(reservationId));
+    }
+
+    @Override
+    public void releaseReservation(String reservationId) {
+        concurrencyLimiter.run(() -> delegate.releaseReservation(reservationId));
+    }
+
+    private static ProductResponse await(CompletableFuture<ProductResponse> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -1,27 +1,59 @@
 package com.ecommerce.orderservice.client;
 
+import com.ecommerce.loadbalancer.PeakEwmaLoadBalancer;
 import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 /**
  * Feign client for communicating with PRODUCT-SERVICE.
  * Service name is resolved by Eureka - no hardcoded host/port needed.
+ * Other beans get {@link CoalescingProductClient}, which wraps this one.
  */
 @FeignClient(
         name = "PRODUCT-SERVICE",
-        fallback = ProductClientFallback.class
+        fallbackFactory = ProductClientFallbackFactory.class,
+        primary = false,
+        qualifiers = "feignProductClient"
 )
 public interface ProductClient {
 
     @GetMapping("/products/{id}")
     ProductResponse getProductById(@PathVariable("id") Long id);
 
+    /**
+     * One attempt of a hedged lookup. Every attempt of the lookup carries the same hedge id, so
+     * the load balancer can send a hedge elsewhere than the request it hedges.
+     */
+    @GetMapping("/products/{id}")
+    ProductResponse getProductById(@PathVariable("id") Long id,
+                                   @RequestHeader(PeakEwmaLoadBalancer.HEDGE_ID_HEADER) String hedgeId);
+
+    @GetMapping("/products/batch")
+    List<ProductResponse> getProductsByIds(@RequestParam("ids") List<Long> ids);
+
     @PutMapping("/products/reduce/{id}")
     ProductResponse reduceProductQuantity(@PathVariable("id") Long id,
                                           @RequestParam("quantity") int quantity);
+
+    @PostMapping("/products/reservations")
+    ReservationResponse reserveProduct(@RequestBody ReservationRequest request);
+
+    @PostMapping("/products/reservations/{reservationId}/confirm")
+    ReservationResponse confirmReservation(@PathVariable("reservationId") String reservationId);
+
+    @DeleteMapping("/products/reservations/{reservationId}")
+    void releaseReservation(@PathVariable("reservationId") String reservationId);
 }
 
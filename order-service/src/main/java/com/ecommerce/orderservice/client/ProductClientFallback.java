@@ -1,27 +1,83 @@
 package com.ecommerce.orderservice.client;
 
 import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import com.ecommerce.orderservice.exception.ProductServiceException;
+import com.ecommerce.orderservice.exception.ReservationExpiredException;
+import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+
+import java.util.List;
 
 /**
  * Fallback implementation for ProductClient.
- * Invoked when Product Service is unavailable (circuit breaker open / timeout).
+ * Invoked when Product Service is unavailable (circuit breaker open / timeout), or answered with
+ * an error; created per failure by {@link ProductClientFallbackFactory}.
  */
-@Component
 @Slf4j
 public class ProductClientFallback implements ProductClient {
 
+    private final Throwable cause;
+
+    public ProductClientFallback() {
+        this(null);
+    }
+
+    public ProductClientFallback(Throwable cause) {
+        this.cause = cause;
+    }
+
     @Override
     public ProductResponse getProductById(Long id) {
         log.warn("Fallback: Product Service unavailable. Cannot fetch product id: {}", id);
         return null;
     }
 
+    @Override
+    public ProductResponse getProductById(Long id, String hedgeId) {
+        return getProductById(id);
+    }
+
+    /**
+     * Fails rather than answering with no products, which would read as none of them existing.
+     */
+    @Override
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        log.warn("Fallback: Product Service unavailable. Cannot fetch {} products", ids.size());
+        throw new ProductServiceException("Product Service unavailable. Cannot fetch products " + ids);
+    }
+
     @Override
     public ProductResponse reduceProductQuantity(Long id, int quantity) {
         log.warn("Fallback: Product Service unavailable. Cannot reduce quantity for product id: {}", id);
         return null;
     }
-}
 
+    @Override
+    public ReservationResponse reserveProduct(ReservationRequest request) {
+        log.warn("Fallback: Product Service unavailable. Cannot reserve stock for product id: {}", request.getProductId());
+        return null;
+    }
+
+    /**
+     * A 404 is Product Service saying the reservation is gone, not being unavailable.
+     */
+    @Override
+    public ReservationResponse confirmReservation(String reservationId) {
+        if (cause instanceof FeignException.NotFound) {
+            throw new ReservationExpiredException(reservationId);
+        }
+        log.warn("Fallback: Product Service unavailable. Cannot confirm reservation: {}", reservationId);
+        return null;
+    }
+
+    @Override
+    public void releaseReservation(String reservationId) {
+        if (cause instanceof FeignException.NotFound) {
+            log.info("Reservation {} was already closed", reservationId);
+            return;
+        }
+        log.warn("Fallback: Product Service unavailable. Reservation {} will expire on its own", reservationId);
+    }
+}
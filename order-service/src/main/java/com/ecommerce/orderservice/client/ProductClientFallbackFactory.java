@@ -0,0 +1,17 @@
+package com.ecommerce.orderservice.client;
+
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands each failed call a {@link ProductClientFallback} that knows why it failed, so an answer
+ * from Product Service, such as an unknown reservation, is not mistaken for an outage.
+ */
+@Component
+public class ProductClientFallbackFactory implements FallbackFactory<ProductClient> {
+
+    @Override
+    public ProductClient create(Throwable cause) {
+        return new ProductClientFallback(cause);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.orderservice.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/productclientlimit}: where the {@link AdaptiveConcurrencyLimiter} stands.
+ */
+@Component
+@Endpoint(id = "productclientlimit")
+@RequiredArgsConstructor
+public class ProductClientLimitEndpoint {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @ReadOperation
+    public Map<String, Object> limit() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("enabled", limiter.isEnabled());
+        state.put("limit", limiter.getLimit());
+        state.put("inFlight", limiter.getInFlight());
+        state.put("rejected", (long) limiter.getRejected());
+        state.put("maxLatency", limiter.getMaxLatency().toString());
+        return state;
+    }
+}
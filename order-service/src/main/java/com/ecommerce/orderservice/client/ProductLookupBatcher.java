@@ -0,0 +1,111 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.ProductResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Gathers product lookups made within a short window into one multi-id request.
+ * <p>
+ * The first lookup of a batch waits up to {@code window}, or until the batch holds
+ * {@code maxBatchSize} ids, then makes the request on its own thread and hands every waiting
+ * caller its product. No extra threads are involved. Ids missing from the response resolve to
+ * null, as for a product Product Service does not have; a failed request, including one the Feign
+ * fallback answers, fails every lookup in the batch.
+ */
+public class ProductLookupBatcher {
+
+    private final Function<List<Long>, List<ProductResponse>> loader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchFull = lock.newCondition();
+
+    private Map<Long, CompletableFuture<ProductResponse>> pending = new LinkedHashMap<>();
+
+    public ProductLookupBatcher(Function<List<Long>, List<ProductResponse>> loader,
+                                Duration window,
+                                int maxBatchSize,
+                                DistributionSummary batchSizes) {
+        this.loader = loader;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = batchSizes;
+    }
+
+    public ProductResponse load(Long id) {
+        CompletableFuture<ProductResponse> result;
+        Map<Long, CompletableFuture<ProductResponse>> batch = null;
+
+        lock.lock();
+        try {
+            Map<Long, CompletableFuture<ProductResponse>> current = pending;
+            boolean first = current.isEmpty();
+            result = current.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (current.size() >= maxBatchSize) {
+                // Full: later lookups start the next batch, and this one goes out now
+                pending = new LinkedHashMap<>();
+                batchFull.signalAll();
+            }
+            if (first) {
+                long remaining = windowNanos;
+                while (pending == current && remaining > 0) {
+                    try {
+                        remaining = batchFull.awaitNanos(remaining);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                if (pending == current) {
+                    pending = new LinkedHashMap<>();
+                }
+                batch = current;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return await(result);
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<ProductResponse>> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<ProductResponse> products = loader.apply(new ArrayList<>(batch.keySet()));
+            Map<Long, ProductResponse> byId = new HashMap<>();
+            if (products != null) {
+                products.forEach(product -> byId.put(product.getId(), product));
+            }
+            batch.forEach((id, result) -> result.complete(byId.get(id)));
+        } catch (RuntimeException | Error ex) {
+            batch.values().forEach(result -> result.completeExceptionally(ex));
+        }
+    }
+
+    private static ProductResponse await(CompletableFuture<ProductResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.loadbalancer.PeakEwmaLoadBalancer;
+import com.ecommerce.orderservice.dto.ProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+
+/**
+ * Hedges product lookups: when a lookup has not answered within the {@code percentile} latency of
+ * recent lookups, a second request is sent and whichever brings back the product first wins. Both
+ * requests are made with the same hedge id, for the client to send as
+ * {@link PeakEwmaLoadBalancer#HEDGE_ID_HEADER}, so the load balancer sends the hedge to another
+ * instance than the slow request whenever there is one. The id is handed to the lookup rather than
+ * kept with the thread, as the request itself may be made on another one.
+ * <p>
+ * Attempts run on a bounded executor. A lookup that finds it saturated is made on the caller's
+ * thread without a hedge, and a hedge that cannot be started is not sent.
+ * <p>
+ * Every lookup earns {@code budget} of a hedge and every hedge spends a whole one, so hedges add
+ * at most that fraction of extra requests; a lookup that finds the budget empty just waits.
+ * No hedges are sent until {@code SAMPLES} latencies have been seen.
+ * <p>
+ * {@code product.client.hedges} counts hedges by {@code outcome}: {@code sent}, {@code won} when
+ * the hedge answered first, and {@code over-budget} when one was due but the budget was empty.
+ */
+public class ProductLookupHedger {
+
+    static final String HEDGES_METRIC = "product.client.hedges";
+
+    private static final int SAMPLES = 256;
+    private static final int RECOMPUTE_EVERY = 32;
+    private static final long HEDGE_COST = 1000;
+    private static final long MAX_SAVED = 10 * HEDGE_COST;
+
+    private final BiFunction<Long, String, ProductResponse> lookup;
+    private final Executor executor;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long earnedPerLookup;
+    private final AtomicLongArray latencies = new AtomicLongArray(SAMPLES);
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong budget = new AtomicLong();
+    private final AtomicLong hedgeIds = new AtomicLong();
+    private final Counter sent;
+    private final Counter won;
+    private final Counter overBudget;
+
+    private volatile long delayNanos = Long.MAX_VALUE;
+
+    /**
+     * @param lookup makes the request for a product id, with the hedge id of the attempt or null
+     *               for a lookup that is not hedged
+     */
+    public ProductLookupHedger(BiFunction<Long, String, ProductResponse> lookup,
+                               Executor executor,
+                               double percentile,
+                               Duration minDelay,
+                               double budget,
+                               MeterRegistry meterRegistry) {
+        this.lookup = lookup;
+        this.executor = executor;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.earnedPerLookup = Math.round(budget * HEDGE_COST);
+        this.sent = hedges("sent", "Hedged product lookups sent", meterRegistry);
+        this.won = hedges("won", "Hedged product lookups that answered first", meterRegistry);
+        this.overBudget = hedges("over-budget", "Product lookups not hedged because the budget was spent", meterRegistry);
+        TimeGauge.builder(HEDGES_METRIC + ".delay", this, TimeUnit.NANOSECONDS,
+                        hedger -> hedger.delayNanos == Long.MAX_VALUE ? 0 : hedger.delayNanos)
+                .description("How long a product lookup runs before it is hedged")
+                .register(meterRegistry);
+    }
+
+    public ProductResponse load(Long id) {
+        budget.accumulateAndGet(earnedPerLookup, (saved, earned) -> Math.min(MAX_SAVED, saved + earned));
+        long delay = delayNanos;
+        if (delay == Long.MAX_VALUE) {
+            return timed(id, null);
+        }
+
+        String hedgeId = Long.toString(hedgeIds.incrementAndGet());
+        CompletableFuture<ProductResponse> primary;
+        try {
+            primary = attempt(id, hedgeId);
+        } catch (RejectedExecutionException ex) {
+            // Every lookup thread is busy: make the request here, unhedged
+            return timed(id, null);
+        }
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // Slower than the percentile: hedge below
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        }
+
+        if (!withdraw()) {
+            overBudget.increment();
+            return await(primary);
+        }
+        CompletableFuture<ProductResponse> hedge;
+        try {
+            hedge = attempt(id, hedgeId);
+        } catch (RejectedExecutionException ex) {
+            budget.addAndGet(HEDGE_COST);
+            return await(primary);
+        }
+        sent.increment();
+        CompletableFuture<ProductResponse> first = await(firstAnswer(primary, hedge));
+        ProductResponse product = await(first);
+        if (first == hedge && product != null) {
+            won.increment();
+        }
+        return product;
+    }
+
+    private CompletableFuture<ProductResponse> attempt(Long id, String hedgeId) {
+        return CompletableFuture.supplyAsync(() -> timed(id, hedgeId), executor);
+    }
+
+    private ProductResponse timed(Long id, String hedgeId) {
+        long start = System.nanoTime();
+        try {
+            return lookup.apply(id, hedgeId);
+        } finally {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Keeps the last {@code SAMPLES} latencies and re-derives the hedge delay from them every
+     * {@code RECOMPUTE_EVERY} lookups.
+     */
+    private void record(long nanos) {
+        long count = recorded.incrementAndGet();
+        latencies.set((int) ((count - 1) % SAMPLES), nanos);
+        if (count >= SAMPLES && count % RECOMPUTE_EVERY == 0) {
+            long[] window = new long[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                window[i] = latencies.get(i);
+            }
+            Arrays.sort(window);
+            int rank = Math.min(SAMPLES - 1, Math.max(0, (int) Math.ceil(percentile * SAMPLES) - 1));
+            delayNanos = Math.max(minDelayNanos, window[rank]);
+        }
+    }
+
+    private boolean withdraw() {
+        long saved;
+        do {
+            saved = budget.get();
+            if (saved < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(saved, saved - HEDGE_COST));
+        return true;
+    }
+
+    /**
+     * Completes with the first attempt to bring back a product, or with the last one to finish
+     * if neither does.
+     */
+    private static CompletableFuture<CompletableFuture<ProductResponse>> firstAnswer(
+            CompletableFuture<ProductResponse> primary, CompletableFuture<ProductResponse> hedge) {
+        CompletableFuture<CompletableFuture<ProductResponse>> first = new CompletableFuture<>();
+        AtomicInteger unanswered = new AtomicInteger(2);
+        for (CompletableFuture<ProductResponse> attempt : List.of(primary, hedge)) {
+            attempt.whenComplete((product, ex) -> {
+                if ((ex == null && product != null) || unanswered.decrementAndGet() == 0) {
+                    first.complete(attempt);
+                }
+            });
+        }
+        return first;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw rethrow(ex.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new CompletionException(cause);
+    }
+
+    private static Counter hedges(String outcome, String description, MeterRegistry meterRegistry) {
+        return Counter.builder(HEDGES_METRIC)
+                .tag("outcome", outcome)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
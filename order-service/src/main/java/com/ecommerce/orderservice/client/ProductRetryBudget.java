@@ -0,0 +1,114 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.exception.ProductServiceOverloadedException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by every call the {@code productService} retry wraps: each successful call
+ * earns {@code ratio} of a retry and each retry spends a whole one, so retries stay at most that
+ * fraction of recent successes however many attempts the retry itself allows. The bucket holds
+ * at most {@code max-retries} and starts full. A failure that finds it empty is not retried.
+ * <p>
+ * The retry's own metrics are the count of successes, which is why the placement's fallback sits
+ * on the retry rather than inside it: a fallback answer must not count as one. {@link #tryRetry} is
+ * its retry-on-exception predicate. Resilience4j asks that predicate on the last attempt too, so the retry spent there
+ * is handed back when the retry gives up.
+ * <p>
+ * {@code product.client.retries} counts retries by {@code outcome}: {@code granted} and
+ * {@code denied}; {@code product.client.retries.budget} is how many retries are saved up.
+ */
+@Component
+public class ProductRetryBudget {
+
+    static final String RETRIES_METRIC = "product.client.retries";
+
+    private static final long RETRY_COST = 1000;
+
+    private final long earnedPerSuccess;
+    private final long maxSaved;
+    private final AtomicLong budget;
+    private final AtomicLong successesSeen = new AtomicLong();
+    private final Counter granted;
+    private final Counter denied;
+
+    private volatile LongSupplier successes = () -> 0;
+
+    public ProductRetryBudget(@Value("${product-client.retry-budget.ratio:0.1}") double ratio,
+                              @Value("${product-client.retry-budget.max-retries:10}") int maxRetries,
+                              MeterRegistry meterRegistry) {
+        this.earnedPerSuccess = Math.round(ratio * RETRY_COST);
+        this.maxSaved = maxRetries * RETRY_COST;
+        this.budget = new AtomicLong(maxSaved);
+        this.granted = Counter.builder(RETRIES_METRIC)
+                .tag("outcome", "granted")
+                .description("Retries of Product Service calls the budget allowed")
+                .register(meterRegistry);
+        this.denied = Counter.builder(RETRIES_METRIC)
+                .tag("outcome", "denied")
+                .description("Failed Product Service calls not retried because the budget was spent")
+                .register(meterRegistry);
+        Gauge.builder(RETRIES_METRIC + ".budget", this, ProductRetryBudget::saved)
+                .description("Retries of Product Service calls saved up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Makes {@code retry}'s successful calls earn the budget and its retries count against it.
+     */
+    public void track(Retry retry) {
+        Retry.Metrics metrics = retry.getMetrics();
+        successesSeen.set(0);
+        successes = () -> metrics.getNumberOfSuccessfulCallsWithoutRetryAttempt()
+                + metrics.getNumberOfSuccessfulCallsWithRetryAttempt();
+        retry.getEventPublisher()
+                .onRetry(event -> granted.increment())
+                .onError(event -> refund());
+    }
+
+    /**
+     * Takes one retry from the budget, or returns false if it is spent.
+     */
+    public boolean tryRetry(Throwable failure) {
+        if (failure instanceof ProductServiceOverloadedException || failure instanceof CallNotPermittedException) {
+            // Turned away before reaching Product Service: not retried, and nothing spent
+            return false;
+        }
+        earn();
+        long saved;
+        do {
+            saved = budget.get();
+            if (saved < RETRY_COST) {
+                denied.increment();
+                return false;
+            }
+        } while (!budget.compareAndSet(saved, saved - RETRY_COST));
+        return true;
+    }
+
+    double saved() {
+        earn();
+        return (double) budget.get() / RETRY_COST;
+    }
+
+    private void earn() {
+        long total = successes.getAsLong();
+        long seen = successesSeen.getAndAccumulate(total, Math::max);
+        if (total > seen) {
+            long earned = (total - seen) * earnedPerSuccess;
+            budget.accumulateAndGet(earned, (current, add) -> Math.min(maxSaved, current + add));
+        }
+    }
+
+    private void refund() {
+        budget.accumulateAndGet(RETRY_COST, (current, add) -> Math.min(maxSaved, current + add));
+    }
+}
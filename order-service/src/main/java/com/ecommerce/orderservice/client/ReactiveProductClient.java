@@ -0,0 +1,119 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.dto.CursorPageResponse;
+import com.ecommerce.orderservice.dto.ProductChangeFeedResponse;
+import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import com.ecommerce.orderservice.dto.StockBatchRequest;
+import com.ecommerce.orderservice.dto.StockBatchResponse;
+import com.ecommerce.orderservice.exception.ReservationExpiredException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Non-blocking counterpart of {@link ProductClient} for the asynchronous placement path, the
+ * order pipeline and the product replica.
+ * No thread waits while a call is in flight; errors surface as failed {@link Mono}s
+ * rather than through a fallback.
+ */
+@Component
+public class ReactiveProductClient {
+
+    private final WebClient webClient;
+
+    public ReactiveProductClient(WebClient.Builder webClientBuilder,
+                                 @Value("${product-client.base-url:http://PRODUCT-SERVICE}") String baseUrl) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    }
+
+    /**
+     * Completes empty if Product Service does not know the product.
+     */
+    public Mono<ProductResponse> getProductById(Long id) {
+        return webClient.get()
+                .uri("/products/{id}", id)
+                .exchangeToMono(response -> response.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)
+                        ? response.releaseBody().then(Mono.<ProductResponse>empty())
+                        : response.statusCode().is2xxSuccessful()
+                        ? response.bodyToMono(ProductResponse.class)
+                        : response.createError());
+    }
+
+    public Mono<ReservationResponse> reserveProduct(ReservationRequest request) {
+        return webClient.post()
+                .uri("/products/reservations")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(ReservationResponse.class);
+    }
+
+    /**
+     * Fails with {@link ReservationExpiredException} if Product Service no longer holds the reservation.
+     */
+    public Mono<ReservationResponse> confirmReservation(String reservationId) {
+        return webClient.post()
+                .uri("/products/reservations/{reservationId}/confirm", reservationId)
+                .retrieve()
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND),
+                        response -> Mono.error(new ReservationExpiredException(reservationId)))
+                .bodyToMono(ReservationResponse.class);
+    }
+
+    public Mono<Void> releaseReservation(String reservationId) {
+        return webClient.delete()
+                .uri("/products/reservations/{reservationId}", reservationId)
+                .retrieve()
+                .bodyToMono(Void.class);
+    }
+
+    /**
+     * Takes stock for several orders in one all-or-nothing call. A rejected batch (400) still
+     * carries a {@link StockBatchResponse} naming the failing lines, so it is returned, not raised.
+     */
+    public Mono<StockBatchResponse> reduceProductQuantities(StockBatchRequest request) {
+        return webClient.put()
+                .uri("/products/reduce")
+                .bodyValue(request)
+                .exchangeToMono(response -> response.statusCode().is2xxSuccessful()
+                        || response.statusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)
+                        ? response.bodyToMono(StockBatchResponse.class)
+                        : response.createError());
+    }
+
+    /**
+     * One page of the catalog, for loading the product replica.
+     */
+    public Mono<CursorPageResponse<ProductResponse>> getProductsPage(Long after, int limit) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/products")
+                        .queryParamIfPresent("after", Optional.ofNullable(after))
+                        .queryParam("limit", limit)
+                        .build())
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<CursorPageResponse<ProductResponse>>() {
+                });
+    }
+
+    /**
+     * Long-polls the product change feed for changes after {@code after}; without it, asks only
+     * for the position to start from.
+     */
+    public Mono<ProductChangeFeedResponse> getProductChanges(Long after, int limit, Duration wait) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/products/changes")
+                        .queryParamIfPresent("after", Optional.ofNullable(after))
+                        .queryParam("limit", limit)
+                        .queryParam("waitMs", wait.toMillis())
+                        .build())
+                .retrieve()
+                .bodyToMono(ProductChangeFeedResponse.class);
+    }
+}
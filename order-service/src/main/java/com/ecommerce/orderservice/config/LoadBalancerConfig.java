@@ -0,0 +1,14 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Balances calls to PRODUCT-SERVICE, from the Feign client and the load-balanced WebClient alike,
+ * with {@link com.ecommerce.loadbalancer.PeakEwmaLoadBalancer} instead of round-robin.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
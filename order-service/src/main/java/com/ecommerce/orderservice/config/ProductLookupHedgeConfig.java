@@ -0,0 +1,29 @@
+package com.ecommerce.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * What hedged product lookups run on: a bounded pool of {@code product-client.hedge.max-threads}
+ * that hands work straight to a thread, letting idle ones go after a minute and stopping with the
+ * application context.
+ */
+@Configuration
+public class ProductLookupHedgeConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor productLookupExecutor(
+            @Value("${product-client.hedge.max-threads:64}") int maxThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix("product-lookup-");
+        return executor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.orderservice.client.ProductRetryBudget;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.github.resilience4j.retry.Retry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts the {@code productService} retry (the one {@code @Retry} on order placement uses) on the
+ * shared {@link ProductRetryBudget}: a failure is retried only if the budget still has a retry,
+ * on top of the attempts and backoff configured under {@code resilience4j.retry}.
+ */
+@Configuration
+public class RetryBudgetConfig {
+
+    static final String PRODUCT_SERVICE = "productService";
+
+    @Bean
+    public RetryConfigCustomizer productServiceRetryBudget(ProductRetryBudget retryBudget) {
+        return RetryConfigCustomizer.of(PRODUCT_SERVICE, builder -> builder.retryOnException(
+                // The customizer hands over a raw builder, so the predicate sees an Object
+                failure -> retryBudget.tryRetry((Throwable) failure)));
+    }
+
+    @Bean
+    public RegistryEventConsumer<Retry> productServiceRetryBudgetTracker(ProductRetryBudget retryBudget) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<Retry> event) {
+                if (PRODUCT_SERVICE.equals(event.getAddedEntry().getName())) {
+                    retryBudget.track(event.getAddedEntry());
+                }
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<Retry> event) {
+                // The budget keeps what it has saved
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<Retry> event) {
+                if (PRODUCT_SERVICE.equals(event.getNewEntry().getName())) {
+                    retryBudget.track(event.getNewEntry());
+                }
+            }
+        };
+    }
+}
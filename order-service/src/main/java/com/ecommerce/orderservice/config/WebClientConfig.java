@@ -0,0 +1,33 @@
+package com.ecommerce.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking HTTP client for PRODUCT-SERVICE, resolved through Eureka like the Feign client.
+ * <p>
+ * The connection pool is sized for thousands of in-flight calls: calls beyond
+ * {@code max-connections} wait for a free connection instead of failing fast.
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(
+            @Value("${product-client.max-connections:500}") int maxConnections,
+            @Value("${product-client.max-pending:10000}") int maxPending) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("product-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .build();
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)));
+    }
+}
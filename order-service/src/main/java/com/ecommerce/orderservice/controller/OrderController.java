@@ -1,16 +1,25 @@
 package com.ecommerce.orderservice.controller;
 
+import com.ecommerce.dto.CursorPageResponse;
 import com.ecommerce.orderservice.dto.OrderRequest;
 import com.ecommerce.orderservice.dto.OrderResponse;
 import com.ecommerce.orderservice.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/orders")
@@ -19,6 +28,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<OrderResponse> placeOrder(@Valid @RequestBody OrderRequest request) {
@@ -27,6 +37,30 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Asynchronous placement: the request thread is released while Product Service is called,
+     * and the Resilience4j time limiter bounds the whole placement.
+     */
+    @PostMapping("/async")
+    public CompletableFuture<ResponseEntity<OrderResponse>> placeOrderAsync(@Valid @RequestBody OrderRequest request) {
+        log.info("POST /orders/async - Placing order for productId: {}", request.getProductId());
+        return orderService.placeOrderAsync(request)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    /**
+     * Accepted-then-processed placement: the order is stored as PENDING and answered with 202
+     * straight away. Poll {@code GET /orders/{id}} (the Location header) for the outcome.
+     */
+    @PostMapping("/accept")
+    public ResponseEntity<OrderResponse> acceptOrder(@Valid @RequestBody OrderRequest request) {
+        log.info("POST /orders/accept - Accepting order for productId: {}", request.getProductId());
+        OrderResponse response = orderService.acceptOrder(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/orders/" + response.getOrderId()))
+                .body(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
         log.info("GET /orders/{} - Fetching order by id", id);
@@ -40,5 +74,38 @@ public class OrderController {
         List<OrderResponse> orders = orderService.getAllOrders();
         return ResponseEntity.ok(orders);
     }
-}
 
+    /**
+     * Keyset pagination: {@code GET /orders?limit=100&after=<nextCursor of previous page>}.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getOrdersPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam int limit) {
+        log.info("GET /orders?after={}&limit={} - Fetching order page", after, limit);
+        CursorPageResponse<OrderResponse> page = orderService.getOrdersPage(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Streams the whole order history as newline-delimited JSON, one order per line.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        log.info("GET /orders/stream - Streaming all orders");
+        StreamingResponseBody body = outputStream ->
+                orderService.streamAllOrders(order -> writeLine(outputStream, order));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing one entry of the Product Service change feed. {@code product} is the product
+ * as it stood right after the change; it is null for {@code DELETED}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeEvent {
+
+    public static final String DELETED = "DELETED";
+
+    private long sequence;
+    private String type;
+    private Long productId;
+    private ProductResponse product;
+}
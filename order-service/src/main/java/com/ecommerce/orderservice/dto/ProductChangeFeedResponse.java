@@ -0,0 +1,25 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing a read of the Product Service change feed. {@code reset}, or an
+ * {@code epoch} other than the one the reader started under, means the reader has to reload
+ * the catalog and continue from {@code lastSequence}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeFeedResponse {
+
+    private String epoch;
+    private long lastSequence;
+    private boolean reset;
+    private List<ProductChangeEvent> changes;
+}
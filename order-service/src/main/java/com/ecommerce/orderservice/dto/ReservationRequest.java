@@ -0,0 +1,20 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO sent to the Product Service to put stock on hold for an order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationRequest {
+
+    private Long productId;
+    private Integer quantity;
+    private Long ttlSeconds;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing a stock reservation as returned from the Product Service via Feign client.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationResponse {
+
+    private String reservationId;
+    private Long productId;
+    private Integer quantity;
+    private String status;
+    private LocalDateTime expiresAt;
+    private Double unitPrice;
+}
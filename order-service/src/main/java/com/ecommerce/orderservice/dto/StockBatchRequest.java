@@ -0,0 +1,20 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO sent to the Product Service to take stock for several orders in one all-or-nothing call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchRequest {
+
+    private List<StockLineRequest> lines;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing the result of an all-or-nothing batch decrement on the Product Service:
+ * {@code REDUCED} when every line was applied, {@code REJECTED} when none was.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchResponse {
+
+    public static final String REDUCED = "REDUCED";
+    public static final String REJECTED = "REJECTED";
+
+    private String status;
+    private List<StockLineResult> lines;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a batch stock decrement: take {@code quantity} units of a product. Product Service
+ * applies a line at most once per {@code idempotencyKey}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLineRequest {
+
+    private Long productId;
+    private Integer quantity;
+    private String idempotencyKey;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one line of a Product Service batch decrement, in the same order as the request lines.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLineResult {
+
+    public static final String OK = "OK";
+
+    private Long productId;
+    private Integer quantity;
+    private Integer available;
+    private Double unitPrice;
+    private String status;
+}
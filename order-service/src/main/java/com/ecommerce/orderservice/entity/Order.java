@@ -24,7 +24,15 @@ public class Order {
     @Column(nullable = false)
     private Integer quantity;
 
-    @Column(name = "total_amount", nullable = false)
+    /**
+     * Unknown until an accepted order has been priced by the pipeline.
+     */
+    @Column(name = "total_amount")
     private Double totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private OrderStatus status = OrderStatus.SUCCESS;
 }
 
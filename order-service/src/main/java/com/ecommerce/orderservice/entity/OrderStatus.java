@@ -0,0 +1,14 @@
+package com.ecommerce.orderservice.entity;
+
+/**
+ * Progress of an order. Orders placed synchronously are stored as {@code PENDING} and turn
+ * {@code SUCCESS} once their reservation is confirmed, or {@code FAILED}; accepted orders also
+ * start as {@code PENDING}, turn {@code PROCESSING} once a pipeline worker picks them up, and end
+ * as {@code SUCCESS} or {@code FAILED}.
+ */
+public enum OrderStatus {
+    PENDING,
+    PROCESSING,
+    SUCCESS,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.orderservice.exception;
+
+public class OrderPipelineFullException extends RuntimeException {
+
+    public OrderPipelineFullException() {
+        super("Order intake is at capacity. Please try again shortly.");
+    }
+}
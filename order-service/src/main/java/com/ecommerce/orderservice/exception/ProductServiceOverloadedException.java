@@ -0,0 +1,8 @@
+package com.ecommerce.orderservice.exception;
+
+public class ProductServiceOverloadedException extends ProductServiceException {
+
+    public ProductServiceOverloadedException(int limit) {
+        super("Product Service is at its concurrency limit of " + limit + ". Please try again shortly.");
+    }
+}
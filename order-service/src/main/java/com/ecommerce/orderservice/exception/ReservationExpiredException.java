@@ -0,0 +1,13 @@
+package com.ecommerce.orderservice.exception;
+
+/**
+ * Product Service no longer holds the reservation an order was about to confirm: it expired, or
+ * was closed elsewhere. Its stock is already back in the pool, so the order cannot be completed
+ * as placed and retrying the confirmation cannot help.
+ */
+public class ReservationExpiredException extends RuntimeException {
+
+    public ReservationExpiredException(String reservationId) {
+        super("Stock reservation " + reservationId + " expired before the order was confirmed. Please place the order again.");
+    }
+}
@@ -0,0 +1,322 @@
+package com.ecommerce.orderservice.pipeline;
+
+import com.ecommerce.orderservice.client.ReactiveProductClient;
+import com.ecommerce.orderservice.dto.StockBatchRequest;
+import com.ecommerce.orderservice.dto.StockBatchResponse;
+import com.ecommerce.orderservice.dto.StockLineRequest;
+import com.ecommerce.orderservice.dto.StockLineResult;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderOutboxEvent;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes stock for accepted orders in the background, through a transactional outbox.
+ * <p>
+ * An accepted order is written together with its outbox event. Relay workers drain the outbox
+ * in batches, each worker its own partition of order ids, and send every batch to Product Service
+ * as one stock decrement. Outcomes are recorded and the events deleted in one more short
+ * transaction, so no database connection is held while Product Service is called.
+ * <p>
+ * Every line carries its order as idempotency key, so an event relayed again after a crash, a
+ * lost answer or a failed outcome transaction never takes stock twice. Events without an answer
+ * stay in the outbox; one relayed {@code order.pipeline.max-attempts} times is left there, its
+ * order {@code PROCESSING}, for an operator to look at.
+ * <p>
+ * At most {@code order.pipeline.capacity} orders are admitted but not yet finished; intake is
+ * refused beyond that, which is the pipeline's backpressure.
+ */
+@Component
+@Slf4j
+public class OrderPipeline {
+
+    private final OrderRepository orderRepository;
+    private final OrderOutboxRepository outboxRepository;
+    private final ReactiveProductClient reactiveProductClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration stockTimeout;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final Semaphore[] wakeUps;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public OrderPipeline(OrderRepository orderRepository,
+                         OrderOutboxRepository outboxRepository,
+                         ReactiveProductClient reactiveProductClient,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${order.pipeline.capacity:10000}") int capacity,
+                         @Value("${order.pipeline.workers:2}") int workerCount,
+                         @Value("${order.pipeline.batch-size:100}") int batchSize,
+                         @Value("${order.pipeline.stock-timeout:5s}") Duration stockTimeout,
+                         @Value("${order.pipeline.poll-interval:1s}") Duration pollInterval,
+                         @Value("${order.pipeline.max-attempts:10}") int maxAttempts) {
+        this.orderRepository = orderRepository;
+        this.outboxRepository = outboxRepository;
+        this.reactiveProductClient = reactiveProductClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacity = capacity;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.stockTimeout = stockTimeout;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.wakeUps = new Semaphore[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            wakeUps[i] = new Semaphore(0);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        // Events left over from a previous run are relayed first and count against the capacity
+        backlog.set((int) Math.min(outboxRepository.countByAttemptsLessThan(maxAttempts), Integer.MAX_VALUE));
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            int partition = i;
+            Thread worker = new Thread(() -> runWorker(partition), "order-outbox-relay-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Order pipeline started ({} relay workers, batch size: {}, backlog: {})",
+                workerCount, batchSize, backlog.get());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Claims a slot for a new order; false when the pipeline is full.
+     */
+    public boolean tryAdmit() {
+        if (backlog.incrementAndGet() > capacity) {
+            backlog.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a slot claimed for an order that was never stored.
+     */
+    public void cancelAdmission() {
+        backlog.decrementAndGet();
+    }
+
+    /**
+     * Writes the order's outbox event in the caller's transaction and wakes its relay worker once
+     * that commits. If the transaction rolls back, the order's slot is given back.
+     */
+    public void submit(Order order) {
+        outboxRepository.save(OrderOutboxEvent.builder()
+                .orderId(order.getId())
+                .productId(order.getProductId())
+                .quantity(order.getQuantity())
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        Semaphore wakeUp = wakeUps[(int) Math.floorMod(order.getId(), (long) workerCount)];
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeUp.release();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    wakeUp.release();
+                } else {
+                    backlog.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private void runWorker(int partition) {
+        while (running) {
+            try {
+                List<OrderOutboxEvent> batch = outboxRepository.findPartition(
+                        workerCount, partition, maxAttempts, Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    wakeUps[partition].tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUps[partition].drainPermits();
+                } else if (relay(batch) > 0) {
+                    // Product Service did not answer for some; give it a moment before asking again
+                    LockSupport.parkNanos(pollInterval.toNanos());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Failed to relay order batch, it stays in the outbox", ex);
+                LockSupport.parkNanos(pollInterval.toNanos());
+            }
+        }
+    }
+
+    /**
+     * Marks the orders PROCESSING and counts the attempt, takes their stock, then records the
+     * outcome and deletes the settled events in one transaction. Events without an answer stay in
+     * the outbox, and so does the whole batch if that transaction fails; sending them again is
+     * safe because Product Service recognises their idempotency keys.
+     *
+     * @return how many events were left in the outbox to be relayed again
+     */
+    int relay(List<OrderOutboxEvent> events) {
+        List<Long> orderIds = events.stream().map(OrderOutboxEvent::getOrderId).toList();
+        List<Long> eventIds = events.stream().map(OrderOutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.updateStatus(orderIds, OrderStatus.PROCESSING);
+            outboxRepository.incrementAttempts(eventIds);
+        });
+
+        Map<Long, StockLineResult> answered = takeStock(events);
+        List<OrderOutboxEvent> settled = events.stream()
+                .filter(event -> answered.containsKey(event.getOrderId()))
+                .toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Order order : orderRepository.findAllById(orderIds)) {
+                    StockLineResult line = answered.get(order.getId());
+                    if (line == null) {
+                        continue;
+                    }
+                    if (StockLineResult.OK.equals(line.getStatus())) {
+                        order.setTotalAmount(line.getUnitPrice() * order.getQuantity());
+                        order.setStatus(OrderStatus.SUCCESS);
+                    } else {
+                        order.setStatus(OrderStatus.FAILED);
+                    }
+                }
+                outboxRepository.deleteAllInBatch(settled);
+            });
+        } catch (RuntimeException ex) {
+            giveUpOnExhausted(events);
+            throw ex;
+        }
+
+        backlog.addAndGet(-settled.size());
+        List<OrderOutboxEvent> unsettled = events.stream()
+                .filter(event -> !answered.containsKey(event.getOrderId()))
+                .toList();
+        giveUpOnExhausted(unsettled);
+        log.info("Relayed batch of {} orders, {} settled", events.size(), settled.size());
+        return unsettled.size();
+    }
+
+    /**
+     * Sends the events as one all-or-nothing decrement. A rejected batch names the lines that
+     * could not be served: those orders fail and the rest are sent again. When a batch gets no
+     * answer its orders are left out of the result, since Product Service may still have applied
+     * it; relaying them again later finds out which.
+     *
+     * @return the answered lines by order id, {@code OK} for those whose stock was taken
+     */
+    private Map<Long, StockLineResult> takeStock(List<OrderOutboxEvent> events) {
+        Map<Long, StockLineResult> answered = new HashMap<>();
+        List<OrderOutboxEvent> remaining = events;
+        while (!remaining.isEmpty()) {
+            StockBatchResponse response;
+            try {
+                response = reactiveProductClient.reduceProductQuantities(toBatchRequest(remaining))
+                        .block(stockTimeout);
+            } catch (RuntimeException ex) {
+                log.error("Stock batch for {} orders failed, they stay in the outbox. Cause: {}",
+                        remaining.size(), ex.getMessage());
+                response = null;
+            }
+
+            if (response == null || response.getLines() == null
+                    || response.getLines().size() != remaining.size()
+                    || !(StockBatchResponse.REDUCED.equals(response.getStatus())
+                    || StockBatchResponse.REJECTED.equals(response.getStatus()))) {
+                return answered;
+            }
+
+            boolean reduced = StockBatchResponse.REDUCED.equals(response.getStatus());
+            List<OrderOutboxEvent> servable = new ArrayList<>(remaining.size());
+            for (int i = 0; i < remaining.size(); i++) {
+                OrderOutboxEvent event = remaining.get(i);
+                StockLineResult line = response.getLines().get(i);
+                if (!StockLineResult.OK.equals(line.getStatus())) {
+                    log.info("Order {} failed: {}", event.getOrderId(), line.getStatus());
+                    answered.put(event.getOrderId(), line);
+                } else if (reduced) {
+                    answered.put(event.getOrderId(), line);
+                } else {
+                    servable.add(event);
+                }
+            }
+
+            if (servable.size() == remaining.size()) {
+                // Rejected without naming a failing line; sending it again would loop
+                return answered;
+            }
+            remaining = servable;
+        }
+        return answered;
+    }
+
+    /**
+     * Stops counting events that have used their last attempt; they stay in the outbox but are
+     * no longer picked up.
+     */
+    private void giveUpOnExhausted(List<OrderOutboxEvent> events) {
+        for (OrderOutboxEvent event : events) {
+            if (event.getAttempts() + 1 >= maxAttempts) {
+                backlog.decrementAndGet();
+                log.error("Giving up on order {} after {} attempts, its outbox event {} is kept for inspection",
+                        event.getOrderId(), maxAttempts, event.getId());
+            }
+        }
+    }
+
+    private static StockBatchRequest toBatchRequest(List<OrderOutboxEvent> events) {
+        return StockBatchRequest.builder()
+                .lines(events.stream()
+                        .map(event -> StockLineRequest.builder()
+                                .productId(event.getProductId())
+                                .quantity(event.getQuantity())
+                                .idempotencyKey("order-" + event.getOrderId())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
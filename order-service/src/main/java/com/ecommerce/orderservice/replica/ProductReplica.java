@@ -0,0 +1,185 @@
+package com.ecommerce.orderservice.replica;
+
+import com.ecommerce.dto.CursorPageResponse;
+import com.ecommerce.orderservice.client.ReactiveProductClient;
+import com.ecommerce.orderservice.dto.ProductChangeEvent;
+import com.ecommerce.orderservice.dto.ProductChangeFeedResponse;
+import com.ecommerce.orderservice.dto.ProductResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory copy of the product catalog, kept current from the Product Service change feed.
+ * <p>
+ * On start, and whenever the feed asks for it, the replica notes the feed position, loads the
+ * catalog page by page and then applies every change after that position; each change carries
+ * the product as it stood afterwards, so changes the loaded pages already reflect are harmless.
+ * One thread long-polls the feed from the last sequence applied, so after a dropped connection or
+ * an error it resumes where it stopped. Until the first load completes the replica is not
+ * {@link #isSynced() synced} and callers should not draw conclusions from a missing product.
+ * <p>
+ * Prices and existence are what Order Service reads from it; stock is only as current as the last
+ * change received, and stock is always taken remotely.
+ */
+@Component
+@Slf4j
+public class ProductReplica {
+
+    private final ReactiveProductClient reactiveProductClient;
+    private final boolean enabled;
+    private final int pageSize;
+    private final Duration pollWait;
+    private final Duration retryInterval;
+    private final Map<Long, ProductResponse> products = new ConcurrentHashMap<>();
+
+    private volatile boolean synced;
+    private volatile String epoch;
+    private volatile long lastSequence;
+    private volatile boolean running;
+    private volatile Thread follower;
+
+    public ProductReplica(ReactiveProductClient reactiveProductClient,
+                          @Value("${product-replica.enabled:true}") boolean enabled,
+                          @Value("${product-replica.page-size:500}") int pageSize,
+                          @Value("${product-replica.poll-wait:25s}") Duration pollWait,
+                          @Value("${product-replica.retry-interval:1s}") Duration retryInterval) {
+        this.reactiveProductClient = reactiveProductClient;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.pollWait = pollWait;
+        this.retryInterval = retryInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        follower = new Thread(this::follow, "product-replica");
+        follower.setDaemon(true);
+        follower.start();
+        log.info("Product replica started (page size: {}, poll wait: {})", pageSize, pollWait);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (follower == null) {
+            return;
+        }
+        running = false;
+        follower.interrupt();
+        follower.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * True once the catalog has been loaded; stays true while the feed is unreachable, as the
+     * replica only falls behind then.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * The product as last seen on the feed, or null if the replica does not know it.
+     */
+    public ProductResponse find(Long id) {
+        return products.get(id);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    boolean needsReload() {
+        return epoch == null;
+    }
+
+    private void follow() {
+        while (running) {
+            try {
+                if (needsReload()) {
+                    reload();
+                } else {
+                    poll();
+                }
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Product change feed unavailable, resuming after sequence {}. Cause: {}",
+                        lastSequence, ex.getMessage());
+                LockSupport.parkNanos(retryInterval.toNanos());
+            }
+        }
+    }
+
+    /**
+     * Notes the feed position, then loads the whole catalog. Changes made meanwhile are picked
+     * up by the next {@link #poll()}.
+     */
+    void reload() {
+        ProductChangeFeedResponse head = reactiveProductClient.getProductChanges(null, 0, Duration.ZERO)
+                .block(pollWait);
+        if (head == null) {
+            throw new IllegalStateException("Empty answer from the product change feed");
+        }
+
+        synced = false;
+        products.clear();
+        Long after = null;
+        do {
+            CursorPageResponse<ProductResponse> page = reactiveProductClient.getProductsPage(after, pageSize)
+                    .block(pollWait);
+            if (page == null) {
+                throw new IllegalStateException("Empty catalog page after product id " + after);
+            }
+            page.getItems().forEach(product -> products.put(product.getId(), product));
+            after = page.getNextCursor();
+        } while (after != null);
+
+        epoch = head.getEpoch();
+        lastSequence = head.getLastSequence();
+        synced = true;
+        log.info("Product replica loaded {} products at sequence {}", products.size(), lastSequence);
+    }
+
+    /**
+     * Waits for the changes after the last one applied and applies them in order.
+     */
+    void poll() {
+        ProductChangeFeedResponse response = reactiveProductClient.getProductChanges(lastSequence, pageSize, pollWait)
+                .block(pollWait.plus(retryInterval).plusSeconds(5));
+        if (response == null) {
+            return;
+        }
+        if (response.isReset() || !response.getEpoch().equals(epoch)) {
+            log.info("Product change feed asked for a reload (epoch: {}, reset: {})",
+                    response.getEpoch(), response.isReset());
+            epoch = null;
+            return;
+        }
+
+        for (ProductChangeEvent change : response.getChanges()) {
+            if (ProductChangeEvent.DELETED.equals(change.getType())) {
+                products.remove(change.getProductId());
+            } else {
+                products.put(change.getProductId(), change.getProduct());
+            }
+            lastSequence = change.getSequence();
+        }
+    }
+}
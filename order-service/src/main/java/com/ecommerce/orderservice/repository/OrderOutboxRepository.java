@@ -0,0 +1,34 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.entity.OrderOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    /**
+     * Oldest events of one partition, where orders are split into {@code partitions} by id,
+     * so each relay worker drains its own share without claiming rows. Events relayed
+     * {@code maxAttempts} times already are left out.
+     */
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE MOD(e.orderId, :partitions) = :partition "
+            + "AND e.attempts < :maxAttempts ORDER BY e.id")
+    List<OrderOutboxEvent> findPartition(@Param("partitions") int partitions,
+                                         @Param("partition") int partition,
+                                         @Param("maxAttempts") int maxAttempts,
+                                         Limit limit);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,49 @@
 package com.ecommerce.orderservice.repository;
 
+import com.ecommerce.orderservice.dto.OrderResponse;
 import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-}
 
+    /**
+     * Reads every order straight into its response shape, without hydrating managed entities.
+     */
+    @Query("SELECT new com.ecommerce.orderservice.dto.OrderResponse("
+            + "o.id, o.productId, o.quantity, o.totalAmount, CAST(o.status AS String)) FROM Order o ORDER BY o.id")
+    List<OrderResponse> findAllOrderResponses();
+
+    /**
+     * Keyset page: the next {@code limit} orders after the given id, in id order.
+     */
+    @Query("SELECT new com.ecommerce.orderservice.dto.OrderResponse("
+            + "o.id, o.productId, o.quantity, o.totalAmount, CAST(o.status AS String)) FROM Order o "
+            + "WHERE o.id > :after ORDER BY o.id")
+    List<OrderResponse> findOrderResponsesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Streams every order in id order; must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecommerce.orderservice.dto.OrderResponse("
+            + "o.id, o.productId, o.quantity, o.totalAmount, CAST(o.status AS String)) FROM Order o ORDER BY o.id")
+    Stream<OrderResponse> streamAllOrderResponses();
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+}
@@ -1,16 +1,27 @@
 package com.ecommerce.orderservice.service;
 
+import com.ecommerce.dto.CursorPageResponse;
 import com.ecommerce.orderservice.dto.OrderRequest;
 import com.ecommerce.orderservice.dto.OrderResponse;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
     OrderResponse placeOrder(OrderRequest request);
 
+    CompletableFuture<OrderResponse> placeOrderAsync(OrderRequest request);
+
+    OrderResponse acceptOrder(OrderRequest request);
+
     OrderResponse getOrderById(Long id);
 
     List<OrderResponse> getAllOrders();
+
+    CursorPageResponse<OrderResponse> getOrdersPage(Long after, int limit);
+
+    void streamAllOrders(Consumer<OrderResponse> consumer);
 }
 
@@ -1,12 +1,21 @@
 package com.ecommerce.orderservice.service.impl;
 
+import com.ecommerce.dto.CursorPageResponse;
 import com.ecommerce.orderservice.client.ProductClient;
+import com.ecommerce.orderservice.client.ReactiveProductClient;
 import com.ecommerce.orderservice.dto.OrderRequest;
 import com.ecommerce.orderservice.dto.OrderResponse;
-import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
 import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
 import com.ecommerce.orderservice.exception.OrderNotFoundException;
+import com.ecommerce.orderservice.exception.OrderPipelineFullException;
 import com.ecommerce.orderservice.exception.ProductServiceException;
+import com.ecommerce.orderservice.exception.ProductServiceOverloadedException;
+import com.ecommerce.orderservice.exception.ReservationExpiredException;
+import com.ecommerce.orderservice.pipeline.OrderPipeline;
+import com.ecommerce.orderservice.replica.ProductReplica;
 import com.ecommerce.orderservice.repository.OrderRepository;
 import com.ecommerce.orderservice.service.OrderService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -14,11 +23,19 @@ import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,45 +44,154 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
 
     private static final String PRODUCT_SERVICE = "productService";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String UNPRICED_RESERVATION =
+            "Product Service reserved the stock without a price. Please try again later.";
 
     private final OrderRepository orderRepository;
     private final ProductClient productClient;
+    private final ReactiveProductClient reactiveProductClient;
+    private final OrderPipeline orderPipeline;
+    private final ProductReplica productReplica;
 
+    /**
+     * Runs outside a transaction so no database connection is held while Product Service is
+     * called or a retry backs off; the order insert commits in its own short transaction.
+     * <p>
+     * The fallback sits on the retry, the outermost aspect, so the retry sees every failure and
+     * the circuit breaker's refusals, and a fallback answer is never counted as a success.
+     */
     @Override
-    @CircuitBreaker(name = PRODUCT_SERVICE, fallbackMethod = "placeOrderFallback")
-    @Retry(name = PRODUCT_SERVICE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CircuitBreaker(name = PRODUCT_SERVICE)
+    @Retry(name = PRODUCT_SERVICE, fallbackMethod = "placeOrderFallback")
     public OrderResponse placeOrder(OrderRequest request) {
         log.info("Placing order for productId: {}, quantity: {}", request.getProductId(), request.getQuantity());
+        requireKnownProduct(request.getProductId());
 
-        // Step 1: Fetch product details from Product Service
-        ProductResponse product = productClient.getProductById(request.getProductId());
-        if (product == null) {
+        // Step 1: Reserve stock and get the authoritative unit price in the same call;
+        // unconfirmed reservations return to the pool when they expire
+        ReservationResponse reservation = productClient.reserveProduct(ReservationRequest.builder()
+                .productId(request.getProductId())
+                .quantity(request.getQuantity())
+                .build());
+        if (reservation == null) {
             throw new ProductServiceException(
-                    "Product Service is unavailable. Please try again later.");
+                    "Failed to reserve product stock. Please try again later.");
         }
-
-        // Step 2: Reduce product quantity via Product Service
-        ProductResponse updatedProduct = productClient.reduceProductQuantity(
-                request.getProductId(), request.getQuantity());
-        if (updatedProduct == null) {
-            throw new ProductServiceException(
-                    "Failed to reduce product stock. Please try again later.");
+        if (reservation.getUnitPrice() == null) {
+            productClient.releaseReservation(reservation.getReservationId());
+            throw new ProductServiceException(UNPRICED_RESERVATION);
         }
 
-        // Step 3: Calculate total amount
-        double totalAmount = product.getPrice() * request.getQuantity();
+        // Step 2: Calculate total amount
+        double totalAmount = reservation.getUnitPrice() * request.getQuantity();
 
-        // Step 4: Save the order
+        // Step 3: Save the order as PENDING, handing the stock back if that fails
         Order order = Order.builder()
                 .productId(request.getProductId())
                 .quantity(request.getQuantity())
                 .totalAmount(totalAmount)
+                .status(OrderStatus.PENDING)
                 .build();
 
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.saveAndFlush(order);
+        } catch (RuntimeException ex) {
+            productClient.releaseReservation(reservation.getReservationId());
+            throw ex;
+        }
+
+        // Step 4: Confirm the reservation so the stock is taken for good. The order is committed
+        // by now, so if that fails it is marked FAILED and the stock handed back before the
+        // error reaches the retry, which then places a fresh order instead of a duplicate. A
+        // reservation Product Service no longer holds has nothing to release and is not retried.
+        // An order left behind by a crash in between stays PENDING, never SUCCESS
+        ReservationResponse confirmed;
+        try {
+            confirmed = productClient.confirmReservation(reservation.getReservationId());
+        } catch (ReservationExpiredException ex) {
+            markFailed(savedOrder, reservation.getReservationId());
+            throw ex;
+        } catch (RuntimeException ex) {
+            abandonOrder(savedOrder, reservation.getReservationId());
+            throw ex;
+        }
+        if (confirmed == null) {
+            abandonOrder(savedOrder, reservation.getReservationId());
+            throw new ProductServiceException(
+                    "Failed to confirm product stock reservation. Please try again later.");
+        }
+
+        // Step 5: Only a confirmed order is a success
+        markSucceeded(savedOrder);
         log.info("Order placed successfully with id: {}", savedOrder.getId());
 
-        return mapToOrderResponse(savedOrder, "SUCCESS");
+        return mapToOrderResponse(savedOrder, savedOrder.getStatus().name());
+    }
+
+    /**
+     * Same steps as {@link #placeOrder}, unknown products refused up front included, but no thread
+     * waits on Product Service: the remote calls go through the non-blocking client and only the
+     * order inserts run on a worker thread.
+     * The time limiter fails the future after {@code timelimiter.productService.timeout-duration},
+     * which also cancels whatever part of the placement is still running. Once the order is saved,
+     * a failed confirmation or a cancellation releases the reservation and marks the order FAILED;
+     * a reservation taken before that expires on its own.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CircuitBreaker(name = PRODUCT_SERVICE, fallbackMethod = "placeOrderAsyncFallback")
+    @TimeLimiter(name = PRODUCT_SERVICE)
+    public CompletableFuture<OrderResponse> placeOrderAsync(OrderRequest request) {
+        log.info("Placing order asynchronously for productId: {}, quantity: {}",
+                request.getProductId(), request.getQuantity());
+
+        Mono<OrderResponse> placement = requireKnownProductAsync(request.getProductId())
+                .then(Mono.defer(() -> reactiveProductClient.reserveProduct(ReservationRequest.builder()
+                        .productId(request.getProductId())
+                        .quantity(request.getQuantity())
+                        .build())))
+                .switchIfEmpty(Mono.error(() -> new ProductServiceException(
+                        "Failed to reserve product stock. Please try again later.")))
+                .flatMap(reservation -> saveOrder(request, reservation)
+                        .flatMap(savedOrder -> confirmOrder(savedOrder, reservation.getReservationId())))
+                .doOnNext(savedOrder -> log.info("Order placed successfully with id: {}", savedOrder.getId()))
+                .map(savedOrder -> mapToOrderResponse(savedOrder, savedOrder.getStatus().name()));
+
+        return toFuture(placement);
+    }
+
+    /**
+     * Stores the order as PENDING together with its outbox event and leaves the stock work to the
+     * {@link OrderPipeline}, so the caller does not wait on Product Service. Refused while the
+     * pipeline is full, and up front for products that do not exist.
+     */
+    @Override
+    public OrderResponse acceptOrder(OrderRequest request) {
+        log.info("Accepting order for productId: {}, quantity: {}", request.getProductId(), request.getQuantity());
+        requireKnownProduct(request.getProductId());
+
+        if (!orderPipeline.tryAdmit()) {
+            throw new OrderPipelineFullException();
+        }
+
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.save(Order.builder()
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .status(OrderStatus.PENDING)
+                    .build());
+            orderPipeline.submit(savedOrder);
+        } catch (RuntimeException ex) {
+            orderPipeline.cancelAdmission();
+            throw ex;
+        }
+        log.info("Order accepted with id: {}", savedOrder.getId());
+
+        return mapToOrderResponse(savedOrder, savedOrder.getStatus().name());
     }
 
     @Override
@@ -76,7 +202,7 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
 
-        return mapToOrderResponse(order, "SUCCESS");
+        return mapToOrderResponse(order, order.getStatus().name());
     }
 
     @Override
@@ -84,16 +210,51 @@ public class OrderServiceImpl implements OrderService {
     public List<OrderResponse> getAllOrders() {
         log.info("Fetching all orders");
 
-        return orderRepository.findAll()
-                .stream()
-                .map(order -> mapToOrderResponse(order, "SUCCESS"))
-                .collect(Collectors.toList());
+        return orderRepository.findAllOrderResponses();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrdersPage(Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.info("Fetching {} orders after id: {}", pageSize, after);
+
+        List<OrderResponse> items = orderRepository
+                .findOrderResponsesAfter(after != null ? after : 0L, Limit.of(pageSize));
+
+        Long nextCursor = items.size() == pageSize ? items.get(items.size() - 1).getOrderId() : null;
+        return CursorPageResponse.<OrderResponse>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Hands orders to the consumer one at a time straight from the result set; no entities
+     * are managed, so the heap stays flat however many orders there are.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<OrderResponse> consumer) {
+        log.info("Streaming all orders");
+
+        try (Stream<OrderResponse> orders = orderRepository.streamAllOrderResponses()) {
+            orders.forEach(consumer);
+        }
     }
 
     /**
-     * Fallback method invoked when Product Service circuit breaker opens.
+     * Fallback method invoked when Product Service circuit breaker opens or the retries are used
+     * up. A call turned away by the concurrency limit is passed on, to be answered with 503, and
+     * a reservation that expired before confirmation with 409.
      */
     public OrderResponse placeOrderFallback(OrderRequest request, Throwable throwable) {
+        if (throwable instanceof ProductServiceOverloadedException overloaded) {
+            throw overloaded;
+        }
+        if (throwable instanceof ReservationExpiredException expired) {
+            throw expired;
+        }
         log.error("Circuit breaker triggered for placeOrder. Cause: {}", throwable.getMessage());
 
         return OrderResponse.builder()
@@ -104,6 +265,152 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
+    public CompletableFuture<OrderResponse> placeOrderAsyncFallback(OrderRequest request, Throwable throwable) {
+        if (throwable instanceof ProductServiceOverloadedException
+                || throwable instanceof ReservationExpiredException) {
+            return CompletableFuture.failedFuture(throwable);
+        }
+        return CompletableFuture.completedFuture(placeOrderFallback(request, throwable));
+    }
+
+    /**
+     * Refuses orders for products that do not exist, answered from the local product replica.
+     * A product the replica does not know yet may just be newer than the replica, so it is looked
+     * up remotely before the order is refused. Until the replica is synced the reservation decides.
+     */
+    private void requireKnownProduct(Long productId) {
+        if (!productReplica.isSynced() || productReplica.find(productId) != null) {
+            return;
+        }
+        if (productClient.getProductById(productId) == null) {
+            throw new ProductServiceException("Product not found with id: " + productId);
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #requireKnownProduct}.
+     */
+    private Mono<Void> requireKnownProductAsync(Long productId) {
+        if (!productReplica.isSynced() || productReplica.find(productId) != null) {
+            return Mono.empty();
+        }
+        return reactiveProductClient.getProductById(productId)
+                .switchIfEmpty(Mono.error(() -> new ProductServiceException("Product not found with id: " + productId)))
+                .then();
+    }
+
+    /**
+     * Undoes a saved order whose reservation could not be confirmed: the reservation is released
+     * and the order marked FAILED. A release that fails is left to the reservation's expiry, and a
+     * reservation that was confirmed after all is no longer there to release.
+     */
+    private void abandonOrder(Order savedOrder, String reservationId) {
+        try {
+            productClient.releaseReservation(reservationId);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to release reservation {}, leaving it to expire", reservationId, ex);
+        }
+        markFailed(savedOrder, reservationId);
+    }
+
+    /**
+     * Records a confirmed order as SUCCESS. If that cannot be saved the order is left PENDING
+     * rather than failing the placement, as a retry would take the stock a second time.
+     */
+    private void markSucceeded(Order savedOrder) {
+        savedOrder.setStatus(OrderStatus.SUCCESS);
+        try {
+            orderRepository.save(savedOrder);
+        } catch (RuntimeException ex) {
+            savedOrder.setStatus(OrderStatus.PENDING);
+            log.error("Order {} was confirmed but could not be marked SUCCESS, leaving it PENDING",
+                    savedOrder.getId(), ex);
+        }
+    }
+
+    private void markFailed(Order savedOrder, String reservationId) {
+        savedOrder.setStatus(OrderStatus.FAILED);
+        orderRepository.save(savedOrder);
+        log.info("Order {} marked FAILED, reservation {} not confirmed", savedOrder.getId(), reservationId);
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #abandonOrder}.
+     */
+    private Mono<Void> abandonOrderAsync(Order savedOrder, String reservationId) {
+        return reactiveProductClient.releaseReservation(reservationId)
+                .onErrorResume(ex -> {
+                    log.warn("Failed to release reservation {}, leaving it to expire", reservationId, ex);
+                    return Mono.empty();
+                })
+                .then(Mono.fromRunnable(() -> markFailed(savedOrder, reservationId))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    /**
+     * Inserts the order off the event loop, handing the stock back if that fails or the reservation
+     * came without a price. The insert
+     * commits on its own, so one that finishes after the placement was cancelled is abandoned.
+     */
+    private Mono<Order> saveOrder(OrderRequest request, ReservationResponse reservation) {
+        if (reservation.getUnitPrice() == null) {
+            return reactiveProductClient.releaseReservation(reservation.getReservationId())
+                    .onErrorResume(releaseEx -> Mono.empty())
+                    .then(Mono.error(() -> new ProductServiceException(UNPRICED_RESERVATION)));
+        }
+
+        Order order = Order.builder()
+                .productId(request.getProductId())
+                .quantity(request.getQuantity())
+                .totalAmount(reservation.getUnitPrice() * request.getQuantity())
+                .status(OrderStatus.PENDING)
+                .build();
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        return Mono.fromCallable(() -> {
+                    Order savedOrder = orderRepository.saveAndFlush(order);
+                    if (cancelled.get()) {
+                        abandonOrderAsync(savedOrder, reservation.getReservationId()).subscribe();
+                    }
+                    return savedOrder;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnCancel(() -> cancelled.set(true))
+                .onErrorResume(ex -> reactiveProductClient.releaseReservation(reservation.getReservationId())
+                        .onErrorResume(releaseEx -> Mono.empty())
+                        .then(Mono.error(ex)));
+    }
+
+    /**
+     * Confirms the reservation of a saved order, then marks it SUCCESS off the event loop. If the
+     * confirmation fails, or the placement is cancelled while it runs, the order is abandoned
+     * before the error goes on.
+     */
+    private Mono<Order> confirmOrder(Order savedOrder, String reservationId) {
+        return reactiveProductClient.confirmReservation(reservationId)
+                .switchIfEmpty(Mono.error(() -> new ProductServiceException(
+                        "Failed to confirm product stock reservation. Please try again later.")))
+                .onErrorResume(ex -> abandonOrderAsync(savedOrder, reservationId).then(Mono.error(ex)))
+                .doOnCancel(() -> abandonOrderAsync(savedOrder, reservationId).subscribe())
+                .then(Mono.fromCallable(() -> {
+                            markSucceeded(savedOrder);
+                            return savedOrder;
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Bridges to a future whose completion, including a timeout imposed from outside,
+     * cancels the part of the pipeline that is still running.
+     */
+    private static <T> CompletableFuture<T> toFuture(Mono<T> mono) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Disposable subscription = mono.subscribe(future::complete, future::completeExceptionally);
+        future.whenComplete((result, ex) -> subscription.dispose());
+        return future;
+    }
+
     private OrderResponse mapToOrderResponse(Order order, String status) {
         return OrderResponse.builder()
                 .orderId(order.getId())
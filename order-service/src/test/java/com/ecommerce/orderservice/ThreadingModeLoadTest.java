@@ -0,0 +1,150 @@
+package com.ecommerce.orderservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts order-service once on Tomcat's platform thread pool and once on virtual threads, against
+ * a Product Service stub that answers every call after a fixed delay. For each mode it raises the
+ * number of simultaneous {@code POST /orders} until p99 latency degrades, and reports the highest
+ * concurrency it sustained.
+ * <p>
+ * Unverified: the build targets Java 17, where this never runs, and even on Java 21 the Feign
+ * calls of a placement run on the circuit breaker's platform thread pool, not the request's
+ * virtual thread. It is kept to measure the mode once both of those change.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@Slf4j
+class ThreadingModeLoadTest {
+
+    private static final Duration STUB_LATENCY = Duration.ofMillis(100);
+    private static final int[] CONCURRENCY_LEVELS = {50, 100, 200, 400, 800};
+    private static final double DEGRADED_FACTOR = 1.5;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int DB_POOL_SIZE = 850;
+    private static final String RESERVATION_JSON =
+            "{\"reservationId\":\"r-1\",\"productId\":1,\"quantity\":1,\"status\":\"RESERVED\",\"unitPrice\":10.0}";
+
+    private static DisposableServer productService;
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @BeforeAll
+    static void startProductServiceStub() {
+        productService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/products/reservations", (req, res) -> reply(res))
+                        .post("/products/reservations/{id}/confirm", (req, res) -> reply(res)))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void stopProductServiceStub() {
+        productService.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Virtual threads should sustain more concurrent in-flight orders than the platform pool")
+    void virtualThreadsShouldSustainMoreConcurrentOrders() throws Exception {
+        int platformSustained = sustainedConcurrency(false);
+        int virtualSustained = sustainedConcurrency(true);
+
+        log.info("Sustained concurrent orders - platform threads ({} max): {}; virtual threads: {}",
+                TOMCAT_MAX_THREADS, platformSustained, virtualSustained);
+
+        assertThat(virtualSustained).isGreaterThan(platformSustained);
+    }
+
+    private int sustainedConcurrency(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + DB_POOL_SIZE,
+                        "spring.datasource.hikari.minimum-idle=" + DB_POOL_SIZE,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.ecommerce.orderservice=WARN",
+                        "eureka.client.enabled=false",
+                        "spring.cloud.discovery.client.simple.instances.PRODUCT-SERVICE[0].uri=http://localhost:"
+                                + productService.port())
+                .run()) {
+            URI orders = URI.create("http://localhost:"
+                    + context.getEnvironment().getProperty("local.server.port") + "/orders");
+
+            fire(orders, CONCURRENCY_LEVELS[0]);
+            long baseline = percentile(fire(orders, CONCURRENCY_LEVELS[0]), 50);
+
+            int sustained = 0;
+            for (int concurrency : CONCURRENCY_LEVELS) {
+                long p99 = percentile(fire(orders, concurrency), 99);
+                log.info("{} threads, {} concurrent orders: p99 {} ms (baseline p50 {} ms)",
+                        virtualThreads ? "virtual" : "platform", concurrency, p99, baseline);
+                if (p99 > baseline * DEGRADED_FACTOR) {
+                    break;
+                }
+                sustained = concurrency;
+            }
+            return sustained;
+        }
+    }
+
+    /**
+     * Sends {@code concurrency} orders at once and returns each one's latency in milliseconds.
+     */
+    private static List<Long> fire(URI orders, int concurrency) {
+        List<CompletableFuture<Long>> calls = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(orders)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"productId\":1,\"quantity\":1}"))
+                    .build();
+            long start = System.nanoTime();
+            calls.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        assertThat(response.body()).contains("SUCCESS");
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }));
+        }
+        return calls.stream().map(CompletableFuture::join).sorted().toList();
+    }
+
+    private static long percentile(List<Long> sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.size()) - 1;
+        return sortedLatencies.get(Math.max(0, index));
+    }
+
+    private static Mono<Void> reply(HttpServerResponse response) {
+        return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .sendString(Mono.delay(STUB_LATENCY).thenReturn(RESERVATION_JSON))
+                .then();
+    }
+}
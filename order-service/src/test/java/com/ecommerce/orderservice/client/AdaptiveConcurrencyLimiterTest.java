@@ -0,0 +1,188 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.exception.ProductServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int CALLERS = 128;
+    private static final int SERVER_CAPACITY = 8;
+    private static final long SERVICE_MILLIS = 5;
+    private static final Duration DEADLINE = Duration.ofMillis(50);
+    private static final Duration RUN_FOR = Duration.ofSeconds(2);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A call over the limit should fail at once without reaching Product Service")
+    void callOverLimitShouldBeRejected() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, Duration.ofSeconds(1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        List<Future<String>> held = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            held.add(callers.submit(() -> limiter.call(() -> {
+                started.countDown();
+                await(release);
+                return "done";
+            })));
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> limiter.call(() -> "too many"))
+                .isInstanceOf(ProductServiceOverloadedException.class);
+
+        release.countDown();
+        for (Future<String> call : held) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        }
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(meterRegistry.get(AdaptiveConcurrencyLimiter.METRIC + ".rejected").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Slow calls that started together should cut the limit once")
+    void slowCallsShouldCutLimitOnce() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofMillis(20));
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(callers.submit(() -> limiter.call(() -> {
+                sleep(100);
+                return "slow";
+            })));
+        }
+        for (Future<String> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("The limit should grow only while at least half of it is in use")
+    void limitShouldGrowOnlyWhenHalfUsed() {
+        AdaptiveConcurrencyLimiter idle = limiter(10, Duration.ofSeconds(1));
+        AdaptiveConcurrencyLimiter busy = limiter(1, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 20; i++) {
+            idle.call(() -> "fast");
+            busy.call(() -> "fast");
+        }
+
+        assertThat(idle.getLimit()).isEqualTo(10);
+        assertThat(busy.getLimit()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Under overload the limiter should keep goodput up where an unlimited client gets almost none")
+    void limiterShouldKeepGoodputUnderOverload() throws Exception {
+        long unlimited = goodCalls(new AdaptiveConcurrencyLimiter(false, 20, 1, 500, Duration.ofMillis(25), 0.9,
+                new SimpleMeterRegistry()));
+        AdaptiveConcurrencyLimiter limiter = limiter(20, Duration.ofMillis(25));
+        long limited = goodCalls(limiter);
+
+        log.info("{} callers for {} s against {} slots at {} ms, {} ms deadline - answered in time: "
+                        + "unlimited {}, limited {} (limit ended at {}, {} calls turned away)",
+                CALLERS, RUN_FOR.toSeconds(), SERVER_CAPACITY, SERVICE_MILLIS, DEADLINE.toMillis(),
+                unlimited, limited, limiter.getLimit(), (long) limiter.getRejected());
+
+        assertThat(limited).isGreaterThan(unlimited * 3);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, Duration maxLatency) {
+        return new AdaptiveConcurrencyLimiter(true, initialLimit, 1, 500, maxLatency, 0.9, meterRegistry);
+    }
+
+    /**
+     * Keeps {@link #CALLERS} callers calling for {@link #RUN_FOR} and counts the answers that came
+     * back within {@link #DEADLINE}; a caller turned away tries again 2 ms later.
+     */
+    private long goodCalls(AdaptiveConcurrencyLimiter limiter) throws Exception {
+        QueueingProductService productService = new QueueingProductService();
+        AtomicLong good = new AtomicLong();
+        long stopAt = System.nanoTime() + RUN_FOR.toNanos();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            running.add(callers.submit(() -> {
+                while (System.nanoTime() < stopAt) {
+                    long start = System.nanoTime();
+                    try {
+                        limiter.run(productService::serve);
+                    } catch (ProductServiceOverloadedException ex) {
+                        sleep(2);
+                        continue;
+                    }
+                    if (System.nanoTime() - start <= DEADLINE.toNanos()) {
+                        good.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> caller : running) {
+            caller.get(30, TimeUnit.SECONDS);
+        }
+        return good.get();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Works on {@link #SERVER_CAPACITY} requests at a time for {@link #SERVICE_MILLIS} each and
+     * queues the rest in arrival order, so latency grows with the requests it is sent, as a
+     * Product Service with a fixed worker pool does.
+     */
+    private static final class QueueingProductService {
+
+        private final Semaphore workers = new Semaphore(SERVER_CAPACITY, true);
+
+        private void serve() {
+            workers.acquireUninterruptibly();
+            try {
+                sleep(SERVICE_MILLIS);
+            } finally {
+                workers.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingProductClientTest {
+
+    private static final int CALLERS = 200;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    private GatedProductClient productService;
+    private CoalescingProductClient productClient;
+
+    @BeforeEach
+    void setUp() {
+        productService = new GatedProductClient();
+        productClient = new CoalescingProductClient(productService,
+                new AdaptiveConcurrencyLimiter(false, 20, 4, 200, Duration.ofMillis(500), 0.9, meterRegistry),
+                meterRegistry, Runnable::run, Duration.ZERO, 1,
+                false, 0.95, Duration.ZERO, 0.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups of one product should share a single request")
+    void concurrentLookupsShouldShareSingleRequest() throws Exception {
+        // Product Service answers only once every other caller has joined the request in flight
+        productService.answerWhen = () -> lookups("coalesced") >= CALLERS - 1;
+
+        List<Future<ProductResponse>> calls = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(callers.submit(() -> productClient.getProductById(1L)));
+        }
+        for (Future<ProductResponse> call : calls) {
+            assertThat(call.get(10, TimeUnit.SECONDS).getName()).isEqualTo("Laptop");
+        }
+
+        assertThat(productService.requests.get()).isEqualTo(1);
+        assertThat(lookups("fetched")).isEqualTo(1);
+        assertThat(lookups("coalesced")).isEqualTo(CALLERS - 1);
+        assertThat(meterRegistry.get(CoalescingProductClient.LOOKUPS_METRIC + ".in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Lookups of different products should not be coalesced")
+    void lookupsOfDifferentProductsShouldNotBeCoalesced() throws Exception {
+        productService.answerWhen = () -> productService.requests.get() >= 2;
+
+        Future<ProductResponse> laptop = callers.submit(() -> productClient.getProductById(1L));
+        Future<ProductResponse> mouse = callers.submit(() -> productClient.getProductById(2L));
+
+        assertThat(laptop.get(10, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+        assertThat(mouse.get(10, TimeUnit.SECONDS).getId()).isEqualTo(2L);
+        assertThat(lookups("fetched")).isEqualTo(2);
+        assertThat(lookups("coalesced")).isZero();
+    }
+
+    @Test
+    @DisplayName("A failed request should fail every caller that joined it, and the next lookup should retry")
+    void failedRequestShouldFailJoinedCallers() throws Exception {
+        productService.answerWhen = () -> lookups("coalesced") >= 1;
+        productService.failure = new IllegalStateException("product service down");
+
+        Future<ProductResponse> first = callers.submit(() -> productClient.getProductById(1L));
+        Future<ProductResponse> second = callers.submit(() -> productClient.getProductById(1L));
+
+        for (Future<ProductResponse> call : List.of(first, second)) {
+            assertThatThrownBy(() -> call.get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+
+        productService.failure = null;
+        productService.answerWhen = () -> true;
+        assertThat(productClient.getProductById(1L).getName()).isEqualTo("Laptop");
+        assertThat(productService.requests.get()).isEqualTo(2);
+    }
+
+    private double lookups(String outcome) {
+        return meterRegistry.get(CoalescingProductClient.LOOKUPS_METRIC).tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * Holds each lookup until {@code answerWhen} is true, as a slow Product Service would.
+     */
+    private static final class GatedProductClient implements ProductClient {
+
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile BooleanSupplier answerWhen = () -> true;
+        private volatile RuntimeException failure;
+
+        @Override
+        public ProductResponse getProductById(Long id) {
+            requests.incrementAndGet();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!answerWhen.getAsBoolean() && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return new ProductResponse(id, id == 1L ? "Laptop" : "Mouse", 50000.0, 10);
+        }
+
+        @Override
+        public ProductResponse getProductById(Long id, String hedgeId) {
+            return getProductById(id);
+        }
+
+        @Override
+        public List<ProductResponse> getProductsByIds(List<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProductResponse reduceProductQuantity(Long id, int quantity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ReservationResponse reserveProduct(ReservationRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ReservationResponse confirmReservation(String reservationId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void releaseReservation(String reservationId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
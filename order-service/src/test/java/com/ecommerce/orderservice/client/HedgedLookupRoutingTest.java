@@ -0,0 +1,108 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.loadbalancer.PeakEwmaLoadBalancer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hedges a lookup through the real Feign client, circuit breaker included, against two Product
+ * Service stubs, and checks what reached them: both attempts carry the same hedge id, and the
+ * hedge went to the instance the stalled request did not.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "product-replica.enabled=false",
+        "product-client.hedge.enabled=true",
+        "product-client.concurrency-limit.enabled=false",
+        "resilience4j.circuitbreaker.instances.productService.minimum-number-of-calls=1000",
+        "logging.level.com.ecommerce.orderservice=WARN"
+})
+class HedgedLookupRoutingTest {
+
+    private static final int WARM_UP = 300;
+    private static final Duration STALL = Duration.ofMillis(800);
+
+    private static final Queue<Received> received = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean stallNext = new AtomicBoolean();
+    private static DisposableServer first;
+    private static DisposableServer second;
+
+    @Autowired
+    private ProductClient productClient;
+
+    @BeforeAll
+    static void startProductServiceStubs() {
+        first = productServiceStub();
+        second = productServiceStub();
+    }
+
+    @AfterAll
+    static void stopProductServiceStubs() {
+        first.disposeNow();
+        second.disposeNow();
+    }
+
+    @DynamicPropertySource
+    static void productServiceInstances(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.PRODUCT-SERVICE[0].uri",
+                () -> "http://localhost:" + first.port());
+        registry.add("spring.cloud.discovery.client.simple.instances.PRODUCT-SERVICE[1].uri",
+                () -> "http://localhost:" + second.port());
+    }
+
+    @Test
+    @DisplayName("A hedge should reach Product Service with its primary's hedge id, on the other instance")
+    void hedgeShouldCarryHedgeIdToOtherInstance() {
+        for (long id = 1; id <= WARM_UP; id++) {
+            productClient.getProductById(id);
+        }
+        received.clear();
+
+        stallNext.set(true);
+        assertThat(productClient.getProductById(1_000L).getId()).isEqualTo(1_000L);
+
+        List<Received> attempts = List.copyOf(received);
+        assertThat(attempts).hasSize(2);
+        assertThat(attempts.get(0).hedgeId()).isNotNull().isEqualTo(attempts.get(1).hedgeId());
+        assertThat(attempts.get(0).port()).isNotEqualTo(attempts.get(1).port());
+    }
+
+    private static DisposableServer productServiceStub() {
+        return HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/products/{id}", (req, res) -> {
+                    received.add(new Received(req.hostPort(), req.requestHeaders().get(PeakEwmaLoadBalancer.HEDGE_ID_HEADER)));
+                    String product = "{\"id\":" + req.param("id") + ",\"name\":\"Laptop\",\"price\":10.0,\"quantity\":5}";
+                    Mono<String> body = stallNext.compareAndSet(true, false)
+                            ? Mono.delay(STALL).thenReturn(product)
+                            : Mono.just(product);
+                    return res.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(body)
+                            .then();
+                }))
+                .bindNow();
+    }
+
+    private record Received(int port, String hedgeId) {
+    }
+}
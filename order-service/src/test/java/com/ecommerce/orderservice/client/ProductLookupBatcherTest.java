@@ -0,0 +1,120 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.exception.ProductServiceException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductLookupBatcherTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DistributionSummary batchSizes = meterRegistry.summary("product.client.batch.size");
+    private final ExecutorService callers = Executors.newFixedThreadPool(16);
+    private final Queue<List<Long>> requests = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Lookups made within the window should go out as one multi-id request")
+    void lookupsWithinWindowShouldShareOneRequest() throws Exception {
+        ProductLookupBatcher batcher = new ProductLookupBatcher(this::products, Duration.ofMillis(500), 100, batchSizes);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<ProductResponse>> calls = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            long productId = id;
+            calls.add(callers.submit(() -> {
+                start.await();
+                return batcher.load(productId);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < calls.size(); i++) {
+            assertThat(calls.get(i).get(5, TimeUnit.SECONDS).getId()).isEqualTo(i + 1L);
+        }
+        assertThat(requests).hasSize(1);
+        assertThat(requests.peek()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(batchSizes.count()).isEqualTo(1);
+        assertThat(batchSizes.totalAmount()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("A full batch should go out without waiting for the window")
+    void fullBatchShouldGoOutBeforeWindowEnds() throws Exception {
+        ProductLookupBatcher batcher = new ProductLookupBatcher(this::products, Duration.ofSeconds(30), 4, batchSizes);
+
+        long start = System.nanoTime();
+        List<Future<ProductResponse>> calls = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            long productId = id;
+            calls.add(callers.submit(() -> batcher.load(productId)));
+        }
+        for (Future<ProductResponse> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isNotNull();
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Ids missing from the response should resolve to null")
+    void missingIdsShouldResolveToNull() {
+        ProductLookupBatcher batcher = new ProductLookupBatcher(
+                ids -> List.of(), Duration.ofMillis(1), 100, batchSizes);
+
+        assertThat(batcher.load(42L)).isNull();
+    }
+
+    @Test
+    @DisplayName("A failed request should fail every lookup in the batch")
+    void failedRequestShouldFailEveryLookup() throws Exception {
+        ProductLookupBatcher batcher = new ProductLookupBatcher(ids -> {
+            throw new IllegalStateException("product service down");
+        }, Duration.ofMillis(200), 100, batchSizes);
+
+        Future<ProductResponse> first = callers.submit(() -> batcher.load(1L));
+        Future<ProductResponse> second = callers.submit(() -> batcher.load(2L));
+
+        for (Future<ProductResponse> call : List.of(first, second)) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("A batch the Feign fallback answers should fail its lookups, not report the products missing")
+    void fallbackShouldFailLookupsRatherThanMissThem() {
+        ProductLookupBatcher batcher = new ProductLookupBatcher(
+                new ProductClientFallback()::getProductsByIds, Duration.ofMillis(1), 100, batchSizes);
+
+        assertThatThrownBy(() -> batcher.load(42L)).isInstanceOf(ProductServiceException.class);
+    }
+
+    private List<ProductResponse> products(List<Long> ids) {
+        requests.add(ids);
+        return ids.stream().map(id -> new ProductResponse(id, "Product " + id, 10.0, 5)).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs 4k lookups of random products from 64 caller threads against a Product Service stub that
+ * serves at most 8 requests at a time and spends a fixed time on each, once one request per
+ * lookup and once through the micro-batcher, and compares requests made and lookups per second.
+ */
+@Slf4j
+class ProductLookupBatchingThroughputTest {
+
+    private static final int LOOKUPS = 4_000;
+    private static final int CALLERS = 64;
+    private static final int PRODUCTS = 1_000;
+    private static final int SERVER_CAPACITY = 8;
+    private static final Duration STUB_LATENCY = Duration.ofMillis(5);
+
+    @Test
+    @DisplayName("Batched lookups should make far fewer requests and sustain more throughput")
+    void batchedLookupsShouldMakeFewerRequestsAndSustainMoreThroughput() throws Exception {
+        CapacityLimitedProductClient unbatchedService = new CapacityLimitedProductClient();
+        double unbatched = lookupsPerSecond(
+                new CoalescingProductClient(unbatchedService, unlimited(), new SimpleMeterRegistry(), Runnable::run,
+                        Duration.ZERO, 1, false, 0.95, Duration.ZERO, 0.0));
+
+        CapacityLimitedProductClient batchedService = new CapacityLimitedProductClient();
+        double batched = lookupsPerSecond(
+                new CoalescingProductClient(batchedService, unlimited(), new SimpleMeterRegistry(), Runnable::run,
+                        Duration.ofMillis(2), 100, false, 0.95, Duration.ZERO, 0.0));
+
+        log.info("{} lookups from {} callers at {} ms per request, {} requests at a time - "
+                        + "one per lookup: {} requests, {} lookups/s; batched: {} requests, {} lookups/s",
+                LOOKUPS, CALLERS, STUB_LATENCY.toMillis(), SERVER_CAPACITY,
+                unbatchedService.requests.get(), Math.round(unbatched),
+                batchedService.requests.get(), Math.round(batched));
+
+        assertThat(batchedService.requests.get()).isLessThan(unbatchedService.requests.get() / 5);
+        assertThat(batched).isGreaterThan(unbatched * 2);
+    }
+
+    private static AdaptiveConcurrencyLimiter unlimited() {
+        return new AdaptiveConcurrencyLimiter(false, 20, 4, 200, Duration.ofMillis(500), 0.9, new SimpleMeterRegistry());
+    }
+
+    private static double lookupsPerSecond(ProductClient client) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            long start = System.nanoTime();
+            List<Future<ProductResponse>> calls = new ArrayList<>(LOOKUPS);
+            for (int i = 0; i < LOOKUPS; i++) {
+                calls.add(callers.submit(() ->
+                        client.getProductById(ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1))));
+            }
+            for (Future<ProductResponse> call : calls) {
+                assertThat(call.get(60, TimeUnit.SECONDS)).isNotNull();
+            }
+            return LOOKUPS / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    /**
+     * Serves at most {@link #SERVER_CAPACITY} requests at once and spends {@link #STUB_LATENCY} on
+     * each, whether it carries one id or many, as a Product Service with a small pool would.
+     */
+    private static final class CapacityLimitedProductClient implements ProductClient {
+
+        private final Semaphore capacity = new Semaphore(SERVER_CAPACITY);
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public ProductResponse getProductById(Long id) {
+            return serve(List.of(id)).get(0);
+        }
+
+        @Override
+        public ProductResponse getProductById(Long id, String hedgeId) {
+            return getProductById(id);
+        }
+
+        @Override
+        public List<ProductResponse> getProductsByIds(List<Long> ids) {
+            return serve(ids);
+        }
+
+        private List<ProductResponse> serve(List<Long> ids) {
+            requests.incrementAndGet();
+            capacity.acquireUninterruptibly();
+            try {
+                Thread.sleep(STUB_LATENCY.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                capacity.release();
+            }
+            return ids.stream().map(id -> new ProductResponse(id, "Product " + id, 10.0, 5)).toList();
+        }
+
+        @Override
+        public ProductResponse reduceProductQuantity(Long id, int quantity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ReservationResponse reserveProduct(ReservationRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ReservationResponse confirmReservation(String reservationId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void releaseReservation(String reservationId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the hedger against a stub whose requests take 1 ms, except those the test marks slow,
+ * as a Product Service instance stuck in a GC pause would.
+ */
+@Slf4j
+class ProductLookupHedgerTest {
+
+    private static final int WARM_UP = 256;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A lookup slower than the percentile should be hedged, and the hedge should win")
+    void slowLookupShouldBeHedgedAndHedgeShouldWin() {
+        StubProductService productService = new StubProductService(request -> request == WARM_UP + 1, 2_000);
+        ProductLookupHedger hedger = hedger(productService, 1.0);
+        warmUp(hedger);
+
+        long start = System.nanoTime();
+        ProductResponse product = hedger.load(42L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(product.getId()).isEqualTo(42L);
+        assertThat(elapsedMillis).isLessThan(1_000);
+        assertThat(hedges("sent")).isEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A lookup should wait for its own answer when the hedge budget is spent")
+    void lookupShouldNotBeHedgedWithoutBudget() {
+        StubProductService productService = new StubProductService(request -> request == WARM_UP + 1, 200);
+        ProductLookupHedger hedger = hedger(productService, 0.0);
+        warmUp(hedger);
+
+        assertThat(hedger.load(42L).getId()).isEqualTo(42L);
+
+        assertThat(productService.requests.get()).isEqualTo(WARM_UP + 1);
+        assertThat(hedges("sent")).isZero();
+        assertThat(hedges("over-budget")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A hedge should carry the hedge id of the request it hedges, and the next lookup a new one")
+    void hedgeShouldCarryItsPrimarysHedgeId() {
+        StubProductService productService = new StubProductService(request -> request == WARM_UP + 1, 200);
+        ProductLookupHedger hedger = hedger(productService, 1.0);
+        warmUp(hedger);
+
+        hedger.load(42L);
+        hedger.load(43L);
+
+        assertThat(productService.hedgeIds).doesNotContainKeys(1, WARM_UP);
+        assertThat(productService.hedgeIds.get(WARM_UP + 1)).isNotNull()
+                .isEqualTo(productService.hedgeIds.get(WARM_UP + 2))
+                .isNotEqualTo(productService.hedgeIds.get(WARM_UP + 3));
+    }
+
+    @Test
+    @DisplayName("A lookup should be made on the caller's thread, unhedged, when no lookup thread is free")
+    void saturatedExecutorShouldFallBackToCallerThread() {
+        StubProductService productService = new StubProductService(request -> request == WARM_UP + 1, 50);
+        ProductLookupHedger hedger = new ProductLookupHedger(productService::lookup, command -> {
+            throw new RejectedExecutionException("saturated");
+        }, 0.95, Duration.ZERO, 1.0, meterRegistry);
+        warmUp(hedger);
+
+        assertThat(hedger.load(42L).getId()).isEqualTo(42L);
+
+        assertThat(productService.requests.get()).isEqualTo(WARM_UP + 1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    @DisplayName("No lookup should be hedged before enough latencies have been seen")
+    void lookupsShouldNotBeHedgedBeforeWarmUp() {
+        StubProductService productService = new StubProductService(request -> request == 1, 200);
+        ProductLookupHedger hedger = hedger(productService, 1.0);
+
+        assertThat(hedger.load(1L).getId()).isEqualTo(1L);
+
+        assertThat(productService.requests.get()).isEqualTo(1);
+        assertThat(hedges("sent")).isZero();
+    }
+
+    @Test
+    @DisplayName("Hedging should cut p99 lookup latency when one request in fifty stalls")
+    void hedgingShouldCutTailLatency() {
+        int lookups = 1_500;
+        long unhedged = p99Millis(hedger(new StubProductService(request -> request % 50 == 0, 50), 0.0), lookups);
+        long hedged = p99Millis(hedger(new StubProductService(request -> request % 50 == 0, 50), 0.2), lookups);
+
+        log.info("p99 of {} lookups with one request in fifty taking 50 ms - not hedged: {} ms, hedged: {} ms "
+                        + "({} hedges sent, {} won)",
+                lookups, unhedged, hedged, hedges("sent"), hedges("won"));
+
+        assertThat(hedged).isLessThan(unhedged / 4);
+        assertThat(hedges("sent")).isLessThanOrEqualTo(0.2 * (WARM_UP + lookups));
+    }
+
+    private ProductLookupHedger hedger(StubProductService productService, double budget) {
+        return new ProductLookupHedger(productService::lookup, executor, 0.95, Duration.ZERO, budget, meterRegistry);
+    }
+
+    private static void warmUp(ProductLookupHedger hedger) {
+        for (int i = 0; i < WARM_UP; i++) {
+            hedger.load((long) i);
+        }
+    }
+
+    private static long p99Millis(ProductLookupHedger hedger, int lookups) {
+        warmUp(hedger);
+        long[] latencies = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            hedger.load((long) i);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(0.99 * lookups) - 1]);
+    }
+
+    private double hedges(String outcome) {
+        return meterRegistry.get(ProductLookupHedger.HEDGES_METRIC).tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * Answers every request after 1 ms, or after {@code slowMillis} for the requests (numbered
+     * from 1) that {@code slow} picks.
+     */
+    private static final class StubProductService {
+
+        private final IntPredicate slow;
+        private final long slowMillis;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Map<Integer, String> hedgeIds = new ConcurrentHashMap<>();
+
+        private StubProductService(IntPredicate slow, long slowMillis) {
+            this.slow = slow;
+            this.slowMillis = slowMillis;
+        }
+
+        private ProductResponse lookup(Long id, String hedgeId) {
+            int request = requests.incrementAndGet();
+            if (hedgeId != null) {
+                hedgeIds.put(request, hedgeId);
+            }
+            try {
+                Thread.sleep(slow.test(request) ? slowMillis : 1);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new ProductResponse(id, "Product " + id, 10.0, 5);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.exception.ProductServiceException;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs orders through a {@code productService}-style retry (3 attempts) against a Product Service
+ * stub that fails a given share of calls, with and without the budget, and compares how many
+ * calls each order turned into.
+ */
+@Slf4j
+class ProductRetryBudgetTest {
+
+    private static final int ORDERS = 500;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final double RATIO = 0.1;
+    private static final int MAX_RETRIES = 10;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("During an outage retries should stop once the saved-up budget is spent")
+    void outageShouldNotMultiplyCalls() {
+        double unbudgeted = amplification(1.0, null);
+        double budgeted = amplification(1.0, new ProductRetryBudget(RATIO, MAX_RETRIES, meterRegistry));
+
+        log.info("{} orders, every call failing - calls per order without budget: {}, with budget: {}",
+                ORDERS, unbudgeted, budgeted);
+
+        assertThat(unbudgeted).isEqualTo(MAX_ATTEMPTS);
+        assertThat(budgeted).isLessThan(1 + (MAX_RETRIES + 1.0) / ORDERS);
+        assertThat(retries("granted")).isEqualTo(MAX_RETRIES);
+    }
+
+    @Test
+    @DisplayName("With half the calls failing retries should stay within the ratio of successes")
+    void partialFailureShouldStayWithinRatio() {
+        double unbudgeted = amplification(0.5, null);
+        double budgeted = amplification(0.5, new ProductRetryBudget(RATIO, MAX_RETRIES, meterRegistry));
+
+        log.info("{} orders, half the calls failing - calls per order without budget: {}, with budget: {} "
+                        + "({} retries granted, {} denied)",
+                ORDERS, unbudgeted, budgeted, retries("granted"), retries("denied"));
+
+        assertThat(unbudgeted).isGreaterThan(1.5);
+        assertThat(budgeted).isLessThan(1 + RATIO + (MAX_RETRIES + 1.0) / ORDERS);
+        assertThat(retries("denied")).isPositive();
+    }
+
+    @Test
+    @DisplayName("A retry spent on the last attempt should be handed back")
+    void retrySpentOnLastAttemptShouldBeHandedBack() {
+        ProductRetryBudget budget = new ProductRetryBudget(RATIO, 2, meterRegistry);
+        Supplier<String> failing = Retry.decorateSupplier(retry(budget, 2), () -> {
+            throw new ProductServiceException("Product Service unavailable");
+        });
+
+        try {
+            failing.get();
+        } catch (ProductServiceException expected) {
+            // Both attempts failed
+        }
+
+        assertThat(retries("granted")).isEqualTo(1);
+        assertThat(budget.saved()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Successful calls should earn retries back, up to the maximum")
+    void successesShouldEarnRetries() {
+        ProductRetryBudget budget = new ProductRetryBudget(RATIO, 1, meterRegistry);
+        Retry retry = retry(budget, MAX_ATTEMPTS);
+        Supplier<String> failing = Retry.decorateSupplier(retry, () -> {
+            throw new ProductServiceException("Product Service unavailable");
+        });
+        Supplier<String> succeeding = Retry.decorateSupplier(retry, () -> "ok");
+
+        callIgnoringFailure(failing);
+        assertThat(budget.saved()).isZero();
+
+        for (int i = 0; i < 30; i++) {
+            succeeding.get();
+        }
+        assertThat(budget.saved()).isEqualTo(1.0);
+    }
+
+    /**
+     * Calls made to the stub per order, with every call failing with the given probability.
+     */
+    private static double amplification(double failureRate, ProductRetryBudget budget) {
+        Random random = new Random(42);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> order = Retry.decorateSupplier(retry(budget, MAX_ATTEMPTS), () -> {
+            calls.incrementAndGet();
+            if (random.nextDouble() < failureRate) {
+                throw new ProductServiceException("Product Service unavailable");
+            }
+            return "placed";
+        });
+        for (int i = 0; i < ORDERS; i++) {
+            callIgnoringFailure(order);
+        }
+        return (double) calls.get() / ORDERS;
+    }
+
+    private static Retry retry(ProductRetryBudget budget, int maxAttempts) {
+        RetryConfig.Builder<Object> config = RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .waitDuration(Duration.ofMillis(1));
+        if (budget == null) {
+            return Retry.of("productService", config.build());
+        }
+        Retry retry = Retry.of("productService", config.retryOnException(budget::tryRetry).build());
+        budget.track(retry);
+        return retry;
+    }
+
+    private static void callIgnoringFailure(Supplier<String> call) {
+        try {
+            call.get();
+        } catch (ProductServiceException ex) {
+            // Counted through the stub
+        }
+    }
+
+    private double retries(String outcome) {
+        return meterRegistry.get(ProductRetryBudget.RETRIES_METRIC).tag("outcome", outcome).counter().count();
+    }
+}
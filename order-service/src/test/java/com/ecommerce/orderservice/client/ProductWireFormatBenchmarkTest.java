@@ -0,0 +1,126 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.ProductResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares JSON with Smile for the bodies Product Service sends Order Service most: one product,
+ * and a {@code /products/batch} answer of 100. Mappers are built the way the HTTP message
+ * converters build theirs. Like a JMH run, each case is warmed up first and the best of several
+ * measured rounds is reported.
+ */
+@Slf4j
+class ProductWireFormatBenchmarkTest {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int WARM_UP_OPS = 10_000;
+    private static final int MEASURED_OPS = 10_000;
+    private static final int ROUNDS = 5;
+    private static final TypeReference<List<ProductResponse>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+
+    @Test
+    @DisplayName("Smile should carry a batch of products in far fewer bytes")
+    void smileShouldBeSmallerAndRoundTrip() throws IOException {
+        List<ProductResponse> batch = products(BATCH_SIZE);
+        ProductResponse single = batch.get(0);
+
+        byte[] jsonBatch = json.writeValueAsBytes(batch);
+        byte[] smileBatch = smile.writeValueAsBytes(batch);
+        byte[] jsonSingle = json.writeValueAsBytes(single);
+        byte[] smileSingle = smile.writeValueAsBytes(single);
+
+        assertThat(smile.readValue(smileBatch, PRODUCT_LIST)).isEqualTo(batch);
+        assertThat(smile.readValue(smileSingle, ProductResponse.class)).isEqualTo(single);
+
+        log.info("Payload bytes - one product: JSON {}, Smile {}; {} products: JSON {}, Smile {}",
+                jsonSingle.length, smileSingle.length, BATCH_SIZE, jsonBatch.length, smileBatch.length);
+
+        // Property names are sent once per body and referred back to after that
+        assertThat(smileBatch.length).isLessThan(jsonBatch.length * 4 / 5);
+    }
+
+    @Test
+    @DisplayName("Encode and decode cost of JSON and Smile")
+    void encodeAndDecodeCost() throws IOException {
+        List<ProductResponse> batch = products(BATCH_SIZE);
+        ProductResponse single = batch.get(0);
+        byte[] jsonBatch = json.writeValueAsBytes(batch);
+        byte[] smileBatch = smile.writeValueAsBytes(batch);
+        byte[] jsonSingle = json.writeValueAsBytes(single);
+        byte[] smileSingle = smile.writeValueAsBytes(single);
+
+        log.info("ns/op, one product - encode: JSON {}, Smile {}; decode: JSON {}, Smile {}",
+                nanosPerOp(() -> json.writeValueAsBytes(single)),
+                nanosPerOp(() -> smile.writeValueAsBytes(single)),
+                nanosPerOp(() -> json.readValue(jsonSingle, ProductResponse.class)),
+                nanosPerOp(() -> smile.readValue(smileSingle, ProductResponse.class)));
+        log.info("ns/op, {} products - encode: JSON {}, Smile {}; decode: JSON {}, Smile {}", BATCH_SIZE,
+                nanosPerOp(() -> json.writeValueAsBytes(batch)),
+                nanosPerOp(() -> smile.writeValueAsBytes(batch)),
+                nanosPerOp(() -> json.readValue(jsonBatch, PRODUCT_LIST)),
+                nanosPerOp(() -> smile.readValue(smileBatch, PRODUCT_LIST)));
+    }
+
+    /**
+     * Best average over {@link #ROUNDS} rounds of {@link #MEASURED_OPS}, after
+     * {@link #WARM_UP_OPS} unmeasured ones. Results are kept so the work is not optimized away.
+     */
+    private static long nanosPerOp(Operation operation) {
+        List<Object> sink = new ArrayList<>(1);
+        for (int i = 0; i < WARM_UP_OPS; i++) {
+            sink.add(operation.run());
+            sink.clear();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_OPS; i++) {
+                sink.add(operation.run());
+                sink.clear();
+            }
+            best = Math.min(best, (System.nanoTime() - start) / MEASURED_OPS);
+        }
+        return best;
+    }
+
+    private static List<ProductResponse> products(int count) {
+        Random random = new Random(42);
+        List<ProductResponse> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            products.add(new ProductResponse((long) i, "Product " + i,
+                    random.nextInt(100_000) / 100.0, random.nextInt(500)));
+        }
+        return products;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+
+        Object call() throws IOException;
+
+        default Object run() {
+            try {
+                return call();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
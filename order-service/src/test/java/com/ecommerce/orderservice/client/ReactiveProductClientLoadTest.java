@@ -0,0 +1,113 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.config.WebClientConfig;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends 5k reservations to a local Product Service stub that answers after a fixed delay, once
+ * the way placeOrder does today (a request thread blocked per call, capped at Tomcat's default
+ * 200 threads) and once through the non-blocking client, and compares peak threads and throughput.
+ */
+@Slf4j
+class ReactiveProductClientLoadTest {
+
+    private static final int CALLS = 5_000;
+    private static final int REQUEST_THREADS = 200;
+    private static final Duration STUB_LATENCY = Duration.ofMillis(100);
+    private static final String RESERVATION_JSON =
+            "{\"reservationId\":\"r-1\",\"productId\":1,\"quantity\":1,\"status\":\"RESERVED\",\"unitPrice\":10.0}";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final ReservationRequest request = ReservationRequest.builder().productId(1L).quantity(1).build();
+
+    private DisposableServer productService;
+    private ReactiveProductClient client;
+
+    @BeforeEach
+    void setUp() {
+        productService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/products/reservations", (req, res) ->
+                        res.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.delay(STUB_LATENCY).thenReturn(RESERVATION_JSON))))
+                .bindNow();
+        client = new ReactiveProductClient(
+                new WebClientConfig().loadBalancedWebClientBuilder(500, CALLS),
+                "http://localhost:" + productService.port());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Non-blocking client should sustain 5k concurrent slow calls with fewer threads and more throughput")
+    void nonBlockingClientShouldUseFewerThreadsAndSustainMoreThroughput() throws Exception {
+        // Warm up connections and codecs
+        Flux.range(0, 500).flatMap(i -> client.reserveProduct(request), 500).blockLast(Duration.ofSeconds(30));
+
+        threads.resetPeakThreadCount();
+        int threadsBefore = threads.getThreadCount();
+        long start = System.nanoTime();
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        List<Future<ReservationResponse>> blocking = new ArrayList<>(CALLS);
+        for (int i = 0; i < CALLS; i++) {
+            blocking.add(requestThreads.submit(() -> client.reserveProduct(request).block()));
+        }
+        for (Future<ReservationResponse> call : blocking) {
+            assertThat(call.get(60, TimeUnit.SECONDS).getUnitPrice()).isEqualTo(10.0);
+        }
+        long blockingNanos = System.nanoTime() - start;
+        int blockingThreads = threads.getPeakThreadCount() - threadsBefore;
+        requestThreads.shutdown();
+        requestThreads.awaitTermination(10, TimeUnit.SECONDS);
+
+        threads.resetPeakThreadCount();
+        threadsBefore = threads.getThreadCount();
+        start = System.nanoTime();
+        Long completed = Flux.range(0, CALLS)
+                .flatMap(i -> client.reserveProduct(request), CALLS)
+                .count()
+                .block(Duration.ofSeconds(60));
+        long nonBlockingNanos = System.nanoTime() - start;
+        int nonBlockingThreads = threads.getPeakThreadCount() - threadsBefore;
+
+        log.info("{} calls at {} ms each - blocking: {} extra threads, {} calls/s; non-blocking: {} extra threads, {} calls/s",
+                CALLS, STUB_LATENCY.toMillis(),
+                blockingThreads, callsPerSecond(blockingNanos),
+                nonBlockingThreads, callsPerSecond(nonBlockingNanos));
+
+        assertThat(completed).isEqualTo(CALLS);
+        assertThat(nonBlockingThreads).isLessThan(blockingThreads);
+        assertThat(nonBlockingNanos).isLessThan(blockingNanos);
+    }
+
+    private static long callsPerSecond(long nanos) {
+        return CALLS * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+}
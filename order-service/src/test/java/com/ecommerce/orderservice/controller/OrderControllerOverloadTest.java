@@ -0,0 +1,58 @@
+package com.ecommerce.orderservice.controller;
+
+import com.ecommerce.orderservice.client.CoalescingProductClient;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.exception.ProductServiceOverloadedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Places an order while the concurrency limit turns calls to Product Service away, through the
+ * real controller, Resilience4j aspects and exception handler.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "product-replica.enabled=false"
+})
+@AutoConfigureMockMvc
+class OrderControllerOverloadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CoalescingProductClient productClient;
+
+    @Test
+    @DisplayName("An order turned away by the concurrency limit should get 503 with Retry-After, not be retried")
+    void overloadedPlacementShouldAnswer503() throws Exception {
+        when(productClient.reserveProduct(any(ReservationRequest.class)))
+                .thenThrow(new ProductServiceOverloadedException(20));
+
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":1,\"quantity\":1}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(503));
+
+        verify(productClient, times(1)).reserveProduct(any(ReservationRequest.class));
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.orderservice.pipeline;
+
+import com.ecommerce.orderservice.client.ReactiveProductClient;
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.dto.StockBatchRequest;
+import com.ecommerce.orderservice.dto.StockBatchResponse;
+import com.ecommerce.orderservice.dto.StockLineResult;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Accepts orders against a Product Service stub that takes a fixed delay per batch call, and
+ * checks that intake does not wait on it while the outbox relay works the backlog off in batches.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:pipelinetest;DB_CLOSE_DELAY=-1",
+        "logging.level.com.ecommerce.orderservice=WARN"
+})
+@Slf4j
+class AcceptedOrderPipelineTest {
+
+    private static final int ORDERS = 2_000;
+    private static final Duration STUB_LATENCY = Duration.ofMillis(100);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @MockBean
+    private ReactiveProductClient reactiveProductClient;
+
+    private final Queue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        when(reactiveProductClient.reduceProductQuantities(any(StockBatchRequest.class))).thenAnswer(invocation -> {
+            StockBatchRequest request = invocation.getArgument(0);
+            batchSizes.add(request.getLines().size());
+            List<StockLineResult> lines = request.getLines().stream()
+                    .map(line -> StockLineResult.builder()
+                            .productId(line.getProductId())
+                            .quantity(line.getQuantity())
+                            .unitPrice(10.0)
+                            .status(StockLineResult.OK)
+                            .build())
+                    .toList();
+            return Mono.delay(STUB_LATENCY)
+                    .thenReturn(StockBatchResponse.builder().status(StockBatchResponse.REDUCED).lines(lines).build());
+        });
+    }
+
+    @Test
+    @DisplayName("Should accept orders without waiting on Product Service and process them in batches")
+    void shouldAcceptOrdersWithoutWaitingAndProcessInBatches() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            OrderResponse accepted = orderService.acceptOrder(
+                    OrderRequest.builder().productId((long) (i % 50) + 1).quantity(1).build());
+            assertThat(accepted.getStatus()).isEqualTo("PENDING");
+        }
+        long intakeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (countWithStatus("SUCCESS") < ORDERS && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        log.info("{} orders at {} ms per batch call - accepted in {} ms, processed in {} ms with {} batch calls",
+                ORDERS, STUB_LATENCY.toMillis(), intakeMillis, totalMillis, batchSizes.size());
+
+        assertThat(countWithStatus("SUCCESS")).isEqualTo(ORDERS);
+        assertThat(orderRepository.findAllOrderResponses())
+                .extracting(OrderResponse::getTotalAmount)
+                .containsOnly(10.0);
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(batchSizes).hasSizeLessThan(ORDERS / 10);
+        assertThat(intakeMillis / (double) ORDERS).isLessThan(STUB_LATENCY.toMillis());
+    }
+
+    private long countWithStatus(String status) {
+        return orderRepository.findAllOrderResponses().stream()
+                .filter(order -> status.equals(order.getStatus()))
+                .count();
+    }
+}
@@ -0,0 +1,219 @@
+package com.ecommerce.orderservice.pipeline;
+
+import com.ecommerce.orderservice.client.ReactiveProductClient;
+import com.ecommerce.orderservice.dto.StockBatchRequest;
+import com.ecommerce.orderservice.dto.StockBatchResponse;
+import com.ecommerce.orderservice.dto.StockLineResult;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderOutboxEvent;
+import com.ecommerce.orderservice.entity.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPipelineTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private ReactiveProductClient reactiveProductClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderPipeline orderPipeline;
+    private Order laptop;
+    private Order mouse;
+    private Order monitor;
+
+    @BeforeEach
+    void setUp() {
+        orderPipeline = new OrderPipeline(orderRepository, outboxRepository, reactiveProductClient,
+                transactionManager, 2, 1, 100, Duration.ofSeconds(1), Duration.ofSeconds(1), 3);
+
+        laptop = pending(1L, 1L, 2);
+        mouse = pending(2L, 2L, 1);
+        monitor = pending(3L, 3L, 4);
+    }
+
+    @Test
+    @DisplayName("Should take stock for the whole batch in one call, price every order and clear the outbox")
+    void shouldTakeStockForWholeBatchInOneCall() {
+        List<OrderOutboxEvent> events = events(laptop, mouse, monitor);
+        when(orderRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(laptop, mouse, monitor));
+        when(reactiveProductClient.reduceProductQuantities(any(StockBatchRequest.class)))
+                .thenReturn(Mono.just(batch(StockBatchResponse.REDUCED,
+                        line(1L, 2, StockLineResult.OK, 50000.0),
+                        line(2L, 1, StockLineResult.OK, 500.0),
+                        line(3L, 4, StockLineResult.OK, 9000.0))));
+
+        orderPipeline.relay(events);
+
+        assertThat(List.of(laptop, mouse, monitor)).extracting(Order::getStatus).containsOnly(OrderStatus.SUCCESS);
+        assertThat(List.of(laptop, mouse, monitor)).extracting(Order::getTotalAmount)
+                .containsExactly(100000.0, 500.0, 36000.0);
+        verify(orderRepository, times(1)).updateStatus(List.of(1L, 2L, 3L), OrderStatus.PROCESSING);
+        verify(outboxRepository, times(1)).incrementAttempts(List.of(101L, 102L, 103L));
+        ArgumentCaptor<StockBatchRequest> request = ArgumentCaptor.forClass(StockBatchRequest.class);
+        verify(reactiveProductClient, times(1)).reduceProductQuantities(request.capture());
+        assertThat(request.getValue().getLines()).extracting("idempotencyKey")
+                .containsExactly("order-1", "order-2", "order-3");
+        verify(outboxRepository, times(1)).deleteAllInBatch(events);
+    }
+
+    @Test
+    @DisplayName("Should fail the rejected lines and send the rest again")
+    void shouldFailRejectedLinesAndResendTheRest() {
+        when(orderRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(laptop, mouse, monitor));
+        when(reactiveProductClient.reduceProductQuantities(any(StockBatchRequest.class)))
+                .thenReturn(Mono.just(batch(StockBatchResponse.REJECTED,
+                        line(1L, 2, StockLineResult.OK, 50000.0),
+                        line(2L, 1, "INSUFFICIENT_STOCK", 500.0),
+                        line(3L, 4, StockLineResult.OK, 9000.0))))
+                .thenReturn(Mono.just(batch(StockBatchResponse.REDUCED,
+                        line(1L, 2, StockLineResult.OK, 50000.0),
+                        line(3L, 4, StockLineResult.OK, 9000.0))));
+
+        orderPipeline.relay(events(laptop, mouse, monitor));
+
+        ArgumentCaptor<StockBatchRequest> requests = ArgumentCaptor.forClass(StockBatchRequest.class);
+        verify(reactiveProductClient, times(2)).reduceProductQuantities(requests.capture());
+        assertThat(requests.getAllValues().get(1).getLines()).extracting("productId").containsExactly(1L, 3L);
+        assertThat(laptop.getStatus()).isEqualTo(OrderStatus.SUCCESS);
+        assertThat(mouse.getStatus()).isEqualTo(OrderStatus.FAILED);
+        assertThat(mouse.getTotalAmount()).isNull();
+        assertThat(monitor.getStatus()).isEqualTo(OrderStatus.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("Should keep the events in the outbox when Product Service does not answer")
+    void shouldKeepEventsWhenProductServiceDoesNotAnswer() {
+        when(orderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(laptop, mouse));
+        when(reactiveProductClient.reduceProductQuantities(any(StockBatchRequest.class)))
+                .thenReturn(Mono.never());
+
+        int left = orderPipeline.relay(events(laptop, mouse));
+
+        assertThat(left).isEqualTo(2);
+        assertThat(List.of(laptop, mouse)).extracting(Order::getStatus).containsOnly(OrderStatus.PENDING);
+        verify(outboxRepository, times(1)).deleteAllInBatch(List.of());
+    }
+
+    @Test
+    @DisplayName("Should send a replayed batch with the same idempotency keys after the outcome could not be recorded")
+    void shouldReplayWithSameKeysWhenOutcomeCannotBeRecorded() {
+        List<OrderOutboxEvent> events = events(laptop, mouse);
+        when(orderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(laptop, mouse));
+        when(reactiveProductClient.reduceProductQuantities(any(StockBatchRequest.class)))
+                .thenReturn(Mono.just(batch(StockBatchResponse.REDUCED,
+                        line(1L, 2, StockLineResult.OK, 50000.0),
+                        line(2L, 1, StockLineResult.OK, 500.0))));
+        doThrow(new DataAccessResourceFailureException("db down")).doNothing()
+                .when(outboxRepository).deleteAllInBatch(events);
+
+        assertThatThrownBy(() -> orderPipeline.relay(events))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        orderPipeline.relay(events);
+
+        ArgumentCaptor<StockBatchRequest> requests = ArgumentCaptor.forClass(StockBatchRequest.class);
+        verify(reactiveProductClient, times(2)).reduceProductQuantities(requests.capture());
+        assertThat(requests.getAllValues().get(0)).isEqualTo(requests.getAllValues().get(1));
+        assertThat(List.of(laptop, mouse)).extracting(Order::getStatus).containsOnly(OrderStatus.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("Should stop counting an event against the capacity once its last attempt is used")
+    void shouldGiveUpOnEventAfterMaxAttempts() {
+        assertThat(orderPipeline.tryAdmit()).isTrue();
+        assertThat(orderPipeline.tryAdmit()).isTrue();
+        OrderOutboxEvent event = events(laptop).get(0);
+        event.setAttempts(2);
+        when(reactiveProductClient.reduceProductQuantities(any(StockBatchRequest.class)))
+                .thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+        assertThat(orderPipeline.relay(List.of(event))).isEqualTo(1);
+
+        assertThat(orderPipeline.tryAdmit()).isTrue();
+        assertThat(orderPipeline.tryAdmit()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should admit no more orders than its capacity")
+    void shouldAdmitNoMoreOrdersThanCapacity() {
+        assertThat(orderPipeline.tryAdmit()).isTrue();
+        assertThat(orderPipeline.tryAdmit()).isTrue();
+        assertThat(orderPipeline.tryAdmit()).isFalse();
+
+        orderPipeline.cancelAdmission();
+
+        assertThat(orderPipeline.tryAdmit()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should write the outbox event in the caller's transaction")
+    void shouldWriteOutboxEventForSubmittedOrder() {
+        orderPipeline.submit(laptop);
+
+        ArgumentCaptor<OrderOutboxEvent> event = ArgumentCaptor.forClass(OrderOutboxEvent.class);
+        verify(outboxRepository, times(1)).save(event.capture());
+        assertThat(event.getValue().getOrderId()).isEqualTo(1L);
+        assertThat(event.getValue().getQuantity()).isEqualTo(2);
+    }
+
+    private static Order pending(Long id, Long productId, int quantity) {
+        return Order.builder()
+                .id(id)
+                .productId(productId)
+                .quantity(quantity)
+                .status(OrderStatus.PENDING)
+                .build();
+    }
+
+    private static List<OrderOutboxEvent> events(Order... orders) {
+        return List.of(orders).stream()
+                .map(order -> OrderOutboxEvent.builder()
+                        .id(order.getId() + 100)
+                        .orderId(order.getId())
+                        .productId(order.getProductId())
+                        .quantity(order.getQuantity())
+                        .createdAt(LocalDateTime.now())
+                        .build())
+                .toList();
+    }
+
+    private static StockBatchResponse batch(String status, StockLineResult... lines) {
+        return StockBatchResponse.builder().status(status).lines(List.of(lines)).build();
+    }
+
+    private static StockLineResult line(Long productId, int quantity, String status, double unitPrice) {
+        return StockLineResult.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .unitPrice(unitPrice)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.orderservice.replica;
+
+import com.ecommerce.dto.CursorPageResponse;
+import com.ecommerce.orderservice.client.ReactiveProductClient;
+import com.ecommerce.orderservice.dto.ProductChangeEvent;
+import com.ecommerce.orderservice.dto.ProductChangeFeedResponse;
+import com.ecommerce.orderservice.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductReplicaTest {
+
+    private static final String EPOCH = "epoch-1";
+
+    @Mock
+    private ReactiveProductClient reactiveProductClient;
+
+    private ProductReplica replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new ProductReplica(reactiveProductClient, false, 2, Duration.ofSeconds(1), Duration.ofMillis(10));
+    }
+
+    @Test
+    @DisplayName("Should load the catalog page by page and start from the feed position noted first")
+    void shouldLoadCatalogAndStartFromNotedPosition() {
+        loadCatalogAt(5L);
+
+        assertThat(replica.isSynced()).isTrue();
+        assertThat(replica.size()).isEqualTo(3);
+        assertThat(replica.find(3L).getName()).isEqualTo("Monitor");
+        assertThat(replica.lastSequence()).isEqualTo(5L);
+        assertThat(replica.needsReload()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should apply creates, updates, stock changes and deletes in sequence order")
+    void shouldApplyChangesInSequenceOrder() {
+        loadCatalogAt(5L);
+        when(reactiveProductClient.getProductChanges(eq(5L), anyInt(), any(Duration.class)))
+                .thenReturn(Mono.just(changes(
+                        change(6L, "CREATED", product(4L, "Keyboard", 1500.0, 8)),
+                        change(7L, "UPDATED", product(1L, "Laptop Pro", 65000.0, 10)),
+                        change(8L, "STOCK_CHANGED", product(2L, "Mouse", 500.0, 0)),
+                        change(9L, ProductChangeEvent.DELETED, 3L))));
+
+        replica.poll();
+
+        assertThat(replica.find(4L).getName()).isEqualTo("Keyboard");
+        assertThat(replica.find(1L).getPrice()).isEqualTo(65000.0);
+        assertThat(replica.find(2L).getQuantity()).isZero();
+        assertThat(replica.find(3L)).isNull();
+        assertThat(replica.lastSequence()).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("Should resume from the last sequence applied after the feed fails")
+    void shouldResumeFromLastSequenceAfterFailure() {
+        loadCatalogAt(5L);
+        when(reactiveProductClient.getProductChanges(eq(5L), anyInt(), any(Duration.class)))
+                .thenReturn(Mono.error(new IllegalStateException("connection reset")))
+                .thenReturn(Mono.just(changes(change(6L, "CREATED", product(4L, "Keyboard", 1500.0, 8)))));
+
+        assertThatThrownBy(() -> replica.poll()).isInstanceOf(IllegalStateException.class);
+        assertThat(replica.lastSequence()).isEqualTo(5L);
+        assertThat(replica.isSynced()).isTrue();
+
+        replica.poll();
+
+        verify(reactiveProductClient, times(2)).getProductChanges(eq(5L), anyInt(), any(Duration.class));
+        assertThat(replica.find(4L)).isNotNull();
+        assertThat(replica.lastSequence()).isEqualTo(6L);
+    }
+
+    @Test
+    @DisplayName("Should reload when the feed has moved on to a new epoch")
+    void shouldReloadOnNewEpoch() {
+        loadCatalogAt(5L);
+        when(reactiveProductClient.getProductChanges(eq(5L), anyInt(), any(Duration.class)))
+                .thenReturn(Mono.just(ProductChangeFeedResponse.builder()
+                        .epoch("epoch-2")
+                        .lastSequence(1L)
+                        .changes(List.of(change(1L, "CREATED", product(9L, "Lamp", 900.0, 1))))
+                        .build()));
+
+        replica.poll();
+
+        assertThat(replica.needsReload()).isTrue();
+        assertThat(replica.find(9L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reload when the feed no longer holds the changes after its position")
+    void shouldReloadWhenFeedResets() {
+        loadCatalogAt(5L);
+        when(reactiveProductClient.getProductChanges(eq(5L), anyInt(), any(Duration.class)))
+                .thenReturn(Mono.just(ProductChangeFeedResponse.builder()
+                        .epoch(EPOCH)
+                        .lastSequence(200_000L)
+                        .reset(true)
+                        .changes(List.of())
+                        .build()));
+
+        replica.poll();
+
+        assertThat(replica.needsReload()).isTrue();
+    }
+
+    private void loadCatalogAt(long sequence) {
+        when(reactiveProductClient.getProductChanges(isNull(), anyInt(), any(Duration.class)))
+                .thenReturn(Mono.just(ProductChangeFeedResponse.builder()
+                        .epoch(EPOCH)
+                        .lastSequence(sequence)
+                        .changes(List.of())
+                        .build()));
+        when(reactiveProductClient.getProductsPage(null, 2)).thenReturn(Mono.just(new CursorPageResponse<>(
+                List.of(product(1L, "Laptop", 50000.0, 10), product(2L, "Mouse", 500.0, 5)), 2L)));
+        when(reactiveProductClient.getProductsPage(2L, 2)).thenReturn(Mono.just(new CursorPageResponse<>(
+                List.of(product(3L, "Monitor", 9000.0, 3)), null)));
+
+        replica.reload();
+    }
+
+    private static ProductChangeFeedResponse changes(ProductChangeEvent... changes) {
+        return ProductChangeFeedResponse.builder()
+                .epoch(EPOCH)
+                .lastSequence(changes[changes.length - 1].getSequence())
+                .changes(List.of(changes))
+                .build();
+    }
+
+    private static ProductChangeEvent change(long sequence, String type, ProductResponse product) {
+        return new ProductChangeEvent(sequence, type, product.getId(), product);
+    }
+
+    private static ProductChangeEvent change(long sequence, String type, Long productId) {
+        return new ProductChangeEvent(sequence, type, productId, null);
+    }
+
+    private static ProductResponse product(Long id, String name, double price, int quantity) {
+        return new ProductResponse(id, name, price, quantity);
+    }
+}
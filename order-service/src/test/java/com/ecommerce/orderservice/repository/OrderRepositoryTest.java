@@ -0,0 +1,54 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 5; i++) {
+            orderRepository.save(Order.builder()
+                    .productId((long) i)
+                    .quantity(i)
+                    .totalAmount(100.0 * i)
+                    .build());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read keyset pages straight into response shapes")
+    void shouldReadKeysetPagesIntoResponses() {
+        List<OrderResponse> firstPage = orderRepository.findOrderResponsesAfter(0L, Limit.of(3));
+        List<OrderResponse> secondPage = orderRepository.findOrderResponsesAfter(
+                firstPage.get(2).getOrderId(), Limit.of(3));
+
+        assertThat(firstPage).extracting(OrderResponse::getQuantity).containsExactly(1, 2, 3);
+        assertThat(secondPage).extracting(OrderResponse::getQuantity).containsExactly(4, 5);
+        assertThat(firstPage).allMatch(order -> "SUCCESS".equals(order.getStatus()));
+    }
+
+    @Test
+    @DisplayName("Should stream all orders in id order")
+    void shouldStreamAllOrdersInIdOrder() {
+        try (Stream<OrderResponse> orders = orderRepository.streamAllOrderResponses()) {
+            assertThat(orders.map(OrderResponse::getTotalAmount))
+                    .containsExactly(100.0, 200.0, 300.0, 400.0, 500.0);
+        }
+    }
+}
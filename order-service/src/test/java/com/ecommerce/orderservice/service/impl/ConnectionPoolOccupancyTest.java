@@ -0,0 +1,156 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.service.OrderService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Places concurrent orders against a Product Service stub that answers every call after a fixed
+ * delay, and samples how many pooled connections are checked out meanwhile. The "before" run wraps
+ * each placement in a transaction, the way the class-level {@code @Transactional} used to, so the
+ * connection is held across both remote calls; the "after" run is placement as it is now.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=40",
+        "product-client.concurrency-limit.enabled=false",
+        "logging.level.com.ecommerce.orderservice=WARN"
+})
+@Slf4j
+class ConnectionPoolOccupancyTest {
+
+    private static final int CONCURRENT_ORDERS = 20;
+    private static final Duration STUB_LATENCY = Duration.ofMillis(200);
+    private static final String RESERVATION_JSON =
+            "{\"reservationId\":\"r-1\",\"productId\":1,\"quantity\":1,\"status\":\"RESERVED\",\"unitPrice\":10.0}";
+
+    private static DisposableServer productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void startProductServiceStub() {
+        productService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/products/reservations", (req, res) -> reply(res))
+                        .post("/products/reservations/{id}/confirm", (req, res) -> reply(res)))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void stopProductServiceStub() {
+        productService.disposeNow();
+    }
+
+    @DynamicPropertySource
+    static void productServiceInstance(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.PRODUCT-SERVICE[0].uri",
+                () -> "http://localhost:" + productService.port());
+    }
+
+    @Test
+    @DisplayName("Placement should not hold a pooled connection while Product Service is called")
+    void placementShouldNotHoldConnectionAcrossRemoteCalls() throws Exception {
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        TransactionTemplate enclosingTransaction = new TransactionTemplate(transactionManager);
+
+        // Warm up the Feign client and the pool
+        orderService.placeOrder(request());
+
+        int before = peakActiveConnections(pool,
+                () -> enclosingTransaction.execute(status -> orderService.placeOrder(request())));
+        int after = peakActiveConnections(pool, () -> orderService.placeOrder(request()));
+
+        log.info("Peak checked-out connections for {} concurrent orders at {} ms per call - "
+                        + "held across calls: {}, short transactions: {}",
+                CONCURRENT_ORDERS, STUB_LATENCY.toMillis(), before, after);
+
+        assertThat(before).isGreaterThanOrEqualTo(CONCURRENT_ORDERS / 2);
+        assertThat(after).isLessThan(before / 2);
+    }
+
+    /**
+     * Runs the placements concurrently and returns the most connections seen checked out at once.
+     */
+    private int peakActiveConnections(HikariPoolMXBean pool, Supplier<OrderResponse> placement) throws Exception {
+        AtomicInteger peak = new AtomicInteger();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peak.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            }
+        });
+        sampler.start();
+
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENT_ORDERS);
+        try {
+            List<Future<OrderResponse>> calls = new ArrayList<>(CONCURRENT_ORDERS);
+            for (int i = 0; i < CONCURRENT_ORDERS; i++) {
+                calls.add(callers.submit(placement::get));
+            }
+            for (Future<OrderResponse> call : calls) {
+                assertThat(call.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo("SUCCESS");
+            }
+        } finally {
+            callers.shutdown();
+            sampling.set(false);
+            sampler.join();
+        }
+        return peak.get();
+    }
+
+    private static OrderRequest request() {
+        return OrderRequest.builder().productId(1L).quantity(1).build();
+    }
+
+    private static Mono<Void> reply(HttpServerResponse response) {
+        return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .sendString(Mono.delay(STUB_LATENCY).thenReturn(RESERVATION_JSON))
+                .then();
+    }
+}
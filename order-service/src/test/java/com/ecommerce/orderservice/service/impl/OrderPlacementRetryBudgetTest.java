@@ -0,0 +1,89 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.client.CoalescingProductClient;
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import com.ecommerce.orderservice.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs placements through the real {@code @Retry} and {@code @CircuitBreaker} aspects against a
+ * Product Service that is down, then up again, and checks what the retry budget lets through.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "product-replica.enabled=false",
+        "resilience4j.retry.instances.productService.wait-duration=10ms",
+        "resilience4j.circuitbreaker.instances.productService.sliding-window-size=100",
+        "resilience4j.circuitbreaker.instances.productService.minimum-number-of-calls=100",
+        "product-client.retry-budget.ratio=0.5",
+        "product-client.retry-budget.max-retries=2"
+})
+class OrderPlacementRetryBudgetTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private CoalescingProductClient productClient;
+
+    @Test
+    @DisplayName("Placements should be retried only while the budget lasts, and fallback answers should earn nothing")
+    void retriesShouldBeGatedByBudget() {
+        OrderRequest request = OrderRequest.builder().productId(1L).quantity(1).build();
+        when(productClient.reserveProduct(any(ReservationRequest.class)))
+                .thenThrow(new IllegalStateException("Connection refused"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(orderService.placeOrder(request).getStatus()).startsWith("FAILED");
+        }
+
+        // The first placement spends both saved retries, the others find the budget empty
+        verify(productClient, times(5)).reserveProduct(any(ReservationRequest.class));
+        assertThat(retries("granted")).isEqualTo(2);
+        assertThat(retries("denied")).isEqualTo(3);
+        assertThat(savedRetries()).isZero();
+
+        ReservationResponse reservation = ReservationResponse.builder()
+                .reservationId("r-1").productId(1L).quantity(1).status("RESERVED").unitPrice(10.0).build();
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservation);
+        when(productClient.confirmReservation("r-1")).thenReturn(reservation);
+        for (int i = 0; i < 2; i++) {
+            assertThat(orderService.placeOrder(request).getStatus()).isEqualTo("SUCCESS");
+        }
+
+        // Two successes at half a retry each
+        assertThat(savedRetries()).isEqualTo(1.0);
+
+        clearInvocations(productClient);
+        when(productClient.reserveProduct(any(ReservationRequest.class)))
+                .thenThrow(new IllegalStateException("Connection refused"));
+        assertThat(orderService.placeOrder(request).getStatus()).startsWith("FAILED");
+        verify(productClient, times(2)).reserveProduct(any(ReservationRequest.class));
+    }
+
+    private double retries(String outcome) {
+        return meterRegistry.get("product.client.retries").tag("outcome", outcome).counter().count();
+    }
+
+    private double savedRetries() {
+        return meterRegistry.get("product.client.retries.budget").gauge().value();
+    }
+}
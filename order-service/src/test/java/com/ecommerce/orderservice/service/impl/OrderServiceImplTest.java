@@ -1,29 +1,47 @@
 package com.ecommerce.orderservice.service.impl;
 
+import com.ecommerce.dto.CursorPageResponse;
 import com.ecommerce.orderservice.client.ProductClient;
+import com.ecommerce.orderservice.client.ReactiveProductClient;
 import com.ecommerce.orderservice.dto.OrderRequest;
 import com.ecommerce.orderservice.dto.OrderResponse;
 import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
 import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.entity.OrderStatus;
 import com.ecommerce.orderservice.exception.OrderNotFoundException;
+import com.ecommerce.orderservice.exception.OrderPipelineFullException;
 import com.ecommerce.orderservice.exception.ProductServiceException;
+import com.ecommerce.orderservice.exception.ProductServiceOverloadedException;
+import com.ecommerce.orderservice.exception.ReservationExpiredException;
+import com.ecommerce.orderservice.pipeline.OrderPipeline;
+import com.ecommerce.orderservice.replica.ProductReplica;
 import com.ecommerce.orderservice.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,12 +53,21 @@ class OrderServiceImplTest {
     @Mock
     private ProductClient productClient;
 
+    @Mock
+    private ReactiveProductClient reactiveProductClient;
+
+    @Mock
+    private OrderPipeline orderPipeline;
+
+    @Mock
+    private ProductReplica productReplica;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
     private Order order;
     private OrderRequest orderRequest;
-    private ProductResponse productResponse;
+    private ReservationResponse reservationResponse;
 
     @BeforeEach
     void setUp() {
@@ -56,50 +83,270 @@ class OrderServiceImplTest {
                 .quantity(2)
                 .build();
 
-        productResponse = ProductResponse.builder()
-                .id(1L)
-                .name("Laptop")
-                .price(50000.0)
-                .quantity(10)
+        reservationResponse = ReservationResponse.builder()
+                .reservationId("r-1")
+                .productId(1L)
+                .quantity(2)
+                .status("RESERVED")
+                .unitPrice(50000.0)
                 .build();
     }
 
     @Test
-    @DisplayName("Should place order successfully")
+    @DisplayName("Should place order successfully, priced from the reservation")
     void shouldPlaceOrderSuccessfully() {
-        when(productClient.getProductById(1L)).thenReturn(productResponse);
-        when(productClient.reduceProductQuantity(1L, 2)).thenReturn(productResponse);
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(productClient.confirmReservation("r-1")).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
 
         OrderResponse response = orderService.placeOrder(orderRequest);
 
         assertThat(response.getOrderId()).isEqualTo(1L);
         assertThat(response.getStatus()).isEqualTo("SUCCESS");
         assertThat(response.getTotalAmount()).isEqualTo(100000.0);
-        verify(productClient, times(1)).getProductById(1L);
-        verify(productClient, times(1)).reduceProductQuantity(1L, 2);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(productClient, never()).getProductById(anyLong());
+        verify(productClient, times(1)).reserveProduct(any(ReservationRequest.class));
+        InOrder placement = inOrder(orderRepository, productClient);
+        placement.verify(orderRepository).saveAndFlush(argThat(saved -> saved.getStatus() == OrderStatus.PENDING));
+        placement.verify(productClient).confirmReservation("r-1");
+        placement.verify(orderRepository).save(argThat(saved -> saved.getId() == 1L
+                && saved.getStatus() == OrderStatus.SUCCESS));
+    }
+
+    @Test
+    @DisplayName("Should answer a confirmed order that could not be marked SUCCESS as PENDING, without retrying")
+    void shouldLeaveConfirmedOrderPendingWhenSuccessIsNotSaved() {
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(productClient.confirmReservation("r-1")).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("DB down"));
+
+        OrderResponse response = orderService.placeOrder(orderRequest);
+
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        verify(productClient, never()).releaseReservation(anyString());
+    }
+
+    @Test
+    @DisplayName("Should throw ProductServiceException when reservation returns null")
+    void shouldThrowProductServiceExceptionWhenReservationNull() {
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> orderService.placeOrder(orderRequest))
+                .isInstanceOf(ProductServiceException.class)
+                .hasMessageContaining("Failed to reserve product stock");
+        verify(orderRepository, never()).saveAndFlush(any(Order.class));
     }
 
     @Test
-    @DisplayName("Should throw ProductServiceException when product not found via Feign")
-    void shouldThrowProductServiceExceptionWhenProductNull() {
-        when(productClient.getProductById(anyLong())).thenReturn(null);
+    @DisplayName("Should release reservation and refuse the order when the reservation has no price")
+    void shouldRefuseOrderWhenReservationHasNoPrice() {
+        reservationResponse.setUnitPrice(null);
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
 
         assertThatThrownBy(() -> orderService.placeOrder(orderRequest))
                 .isInstanceOf(ProductServiceException.class)
-                .hasMessageContaining("Product Service is unavailable");
+                .hasMessageContaining("without a price");
+        verify(productClient, times(1)).releaseReservation("r-1");
+        verify(orderRepository, never()).saveAndFlush(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should release reservation and refuse the asynchronous order when the reservation has no price")
+    void shouldRefuseAsyncOrderWhenReservationHasNoPrice() {
+        reservationResponse.setUnitPrice(null);
+        when(reactiveProductClient.reserveProduct(any(ReservationRequest.class))).thenReturn(Mono.just(reservationResponse));
+        when(reactiveProductClient.releaseReservation("r-1")).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> orderService.placeOrderAsync(orderRequest).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ProductServiceException.class);
+        verify(reactiveProductClient, times(1)).releaseReservation("r-1");
+        verify(orderRepository, never()).saveAndFlush(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should release reservation when saving the order fails")
+    void shouldReleaseReservationWhenSaveFails() {
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenThrow(new IllegalStateException("DB down"));
+
+        assertThatThrownBy(() -> orderService.placeOrder(orderRequest))
+                .isInstanceOf(IllegalStateException.class);
+        verify(productClient, times(1)).releaseReservation("r-1");
+        verify(productClient, never()).confirmReservation(anyString());
     }
 
     @Test
-    @DisplayName("Should throw ProductServiceException when reduce quantity returns null")
-    void shouldThrowProductServiceExceptionWhenReduceQuantityNull() {
-        when(productClient.getProductById(1L)).thenReturn(productResponse);
-        when(productClient.reduceProductQuantity(anyLong(), anyInt())).thenReturn(null);
+    @DisplayName("Should throw ProductServiceException when confirmation returns null")
+    void shouldThrowProductServiceExceptionWhenConfirmationNull() {
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+        when(productClient.confirmReservation("r-1")).thenReturn(null);
 
         assertThatThrownBy(() -> orderService.placeOrder(orderRequest))
                 .isInstanceOf(ProductServiceException.class)
-                .hasMessageContaining("Failed to reduce product stock");
+                .hasMessageContaining("Failed to confirm");
+        verify(productClient, times(1)).releaseReservation("r-1");
+        verify(orderRepository, times(1)).save(argThat(saved -> saved.getStatus() == OrderStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("Should release reservation and mark the order FAILED when confirmation throws")
+    void shouldAbandonOrderWhenConfirmationThrows() {
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+        when(productClient.confirmReservation("r-1")).thenThrow(new IllegalStateException("read timed out"));
+        doThrow(new IllegalStateException("connection refused")).when(productClient).releaseReservation("r-1");
+
+        assertThatThrownBy(() -> orderService.placeOrder(orderRequest))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("read timed out");
+        verify(productClient, times(1)).releaseReservation("r-1");
+        verify(orderRepository, times(1)).save(argThat(saved -> saved.getId() == 1L
+                && saved.getStatus() == OrderStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("Should mark the order FAILED without a release when the reservation has expired")
+    void shouldFailOrderWhenReservationExpired() {
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+        when(productClient.confirmReservation("r-1")).thenThrow(new ReservationExpiredException("r-1"));
+
+        assertThatThrownBy(() -> orderService.placeOrder(orderRequest))
+                .isInstanceOf(ReservationExpiredException.class);
+        assertThatThrownBy(() -> orderService.placeOrderFallback(orderRequest, new ReservationExpiredException("r-1")))
+                .isInstanceOf(ReservationExpiredException.class);
+        verify(productClient, never()).releaseReservation(anyString());
+        verify(orderRepository, times(1)).save(argThat(saved -> saved.getId() == 1L
+                && saved.getStatus() == OrderStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("Should confirm the product from the replica without asking Product Service")
+    void shouldConfirmProductFromReplica() {
+        when(productReplica.isSynced()).thenReturn(true);
+        when(productReplica.find(1L)).thenReturn(new ProductResponse(1L, "Laptop", 50000.0, 10));
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(productClient.confirmReservation("r-1")).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+
+        assertThat(orderService.placeOrder(orderRequest).getStatus()).isEqualTo("SUCCESS");
+        verify(productClient, never()).getProductById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should refuse an order for a product that neither the replica nor Product Service knows")
+    void shouldRefuseOrderForUnknownProduct() {
+        when(productReplica.isSynced()).thenReturn(true);
+        when(productClient.getProductById(1L)).thenReturn(null);
+
+        assertThatThrownBy(() -> orderService.placeOrder(orderRequest))
+                .isInstanceOf(ProductServiceException.class)
+                .hasMessageContaining("Product not found");
+        verify(productClient, never()).reserveProduct(any(ReservationRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should place an order for a product newer than the replica")
+    void shouldPlaceOrderForProductNewerThanReplica() {
+        when(productReplica.isSynced()).thenReturn(true);
+        when(productClient.getProductById(1L)).thenReturn(new ProductResponse(1L, "Laptop", 50000.0, 10));
+        when(productClient.reserveProduct(any(ReservationRequest.class))).thenReturn(reservationResponse);
+        when(productClient.confirmReservation("r-1")).thenReturn(reservationResponse);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+
+        assertThat(orderService.placeOrder(orderRequest).getStatus()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    @DisplayName("Should refuse an asynchronous order for a product that neither the replica nor Product Service knows")
+    void shouldRefuseAsyncOrderForUnknownProduct() {
+        when(productReplica.isSynced()).thenReturn(true);
+        when(reactiveProductClient.getProductById(1L)).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> orderService.placeOrderAsync(orderRequest).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ProductServiceException.class)
+                .hasMessageContaining("Product not found");
+        verify(reactiveProductClient, never()).reserveProduct(any(ReservationRequest.class));
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    @DisplayName("Should place an asynchronous order for a product newer than the replica")
+    void shouldPlaceAsyncOrderForProductNewerThanReplica() throws Exception {
+        when(productReplica.isSynced()).thenReturn(true);
+        when(reactiveProductClient.getProductById(1L))
+                .thenReturn(Mono.just(new ProductResponse(1L, "Laptop", 50000.0, 10)));
+        when(reactiveProductClient.reserveProduct(any(ReservationRequest.class))).thenReturn(Mono.just(reservationResponse));
+        when(reactiveProductClient.confirmReservation("r-1")).thenReturn(Mono.just(reservationResponse));
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+
+        assertThat(orderService.placeOrderAsync(orderRequest).get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    @DisplayName("Should place order asynchronously through the non-blocking client")
+    void shouldPlaceOrderAsynchronously() throws Exception {
+        when(reactiveProductClient.reserveProduct(any(ReservationRequest.class))).thenReturn(Mono.just(reservationResponse));
+        when(reactiveProductClient.confirmReservation("r-1")).thenReturn(Mono.just(reservationResponse));
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+
+        OrderResponse response = orderService.placeOrderAsync(orderRequest).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getOrderId()).isEqualTo(1L);
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        verify(orderRepository).saveAndFlush(argThat(saved -> saved.getStatus() == OrderStatus.PENDING));
+        verify(orderRepository).save(argThat(saved -> saved.getStatus() == OrderStatus.SUCCESS));
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    @DisplayName("Should release reservation when the asynchronous save fails")
+    void shouldReleaseReservationWhenAsyncSaveFails() {
+        when(reactiveProductClient.reserveProduct(any(ReservationRequest.class))).thenReturn(Mono.just(reservationResponse));
+        when(reactiveProductClient.releaseReservation("r-1")).thenReturn(Mono.empty());
+        when(orderRepository.saveAndFlush(any(Order.class))).thenThrow(new IllegalStateException("DB down"));
+
+        assertThatThrownBy(() -> orderService.placeOrderAsync(orderRequest).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        verify(reactiveProductClient, times(1)).releaseReservation("r-1");
+        verify(reactiveProductClient, never()).confirmReservation(anyString());
+    }
+
+    @Test
+    @DisplayName("Should release reservation and mark the order FAILED when the asynchronous confirmation fails")
+    void shouldAbandonOrderWhenAsyncConfirmationFails() {
+        when(reactiveProductClient.reserveProduct(any(ReservationRequest.class))).thenReturn(Mono.just(reservationResponse));
+        when(reactiveProductClient.confirmReservation("r-1")).thenReturn(Mono.error(new IllegalStateException("503")));
+        when(reactiveProductClient.releaseReservation("r-1")).thenReturn(Mono.empty());
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+
+        assertThatThrownBy(() -> orderService.placeOrderAsync(orderRequest).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        verify(reactiveProductClient, times(1)).releaseReservation("r-1");
+        verify(orderRepository, times(1)).save(argThat(saved -> saved.getStatus() == OrderStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("Should release reservation and mark the order FAILED when the placement is cancelled after the save")
+    void shouldAbandonOrderWhenAsyncPlacementIsCancelled() throws Exception {
+        when(reactiveProductClient.reserveProduct(any(ReservationRequest.class))).thenReturn(Mono.just(reservationResponse));
+        when(reactiveProductClient.confirmReservation("r-1")).thenReturn(Mono.never());
+        when(reactiveProductClient.releaseReservation("r-1")).thenReturn(Mono.empty());
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
+
+        CompletableFuture<OrderResponse> placement = orderService.placeOrderAsync(orderRequest);
+        verify(reactiveProductClient, timeout(5_000)).confirmReservation("r-1");
+        // What the time limiter does when the timeout runs out
+        placement.cancel(true);
+
+        verify(reactiveProductClient, timeout(5_000)).releaseReservation("r-1");
+        verify(orderRepository, timeout(5_000)).save(argThat(saved -> saved.getStatus() == OrderStatus.FAILED));
     }
 
     @Test
@@ -111,6 +358,72 @@ class OrderServiceImplTest {
 
         assertThat(response.getOrderId()).isEqualTo(1L);
         assertThat(response.getProductId()).isEqualTo(1L);
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    @DisplayName("Should accept order as PENDING and hand it to the pipeline")
+    void shouldAcceptOrderAsPending() {
+        when(orderPipeline.tryAdmit()).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order pending = invocation.getArgument(0);
+            pending.setId(7L);
+            return pending;
+        });
+
+        OrderResponse response = orderService.acceptOrder(orderRequest);
+
+        assertThat(response.getOrderId()).isEqualTo(7L);
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        assertThat(response.getTotalAmount()).isNull();
+        verify(orderPipeline, times(1)).submit(argThat(pending -> pending.getId() == 7L));
+        verifyNoInteractions(productClient, reactiveProductClient);
+    }
+
+    @Test
+    @DisplayName("Should refuse order without storing it when the pipeline is full")
+    void shouldRefuseOrderWhenPipelineFull() {
+        when(orderPipeline.tryAdmit()).thenReturn(false);
+
+        assertThatThrownBy(() -> orderService.acceptOrder(orderRequest))
+                .isInstanceOf(OrderPipelineFullException.class);
+
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should refuse an accepted order for an unknown product before it takes a pipeline slot")
+    void shouldRefuseAcceptedOrderForUnknownProduct() {
+        when(productReplica.isSynced()).thenReturn(true);
+        when(productClient.getProductById(1L)).thenReturn(null);
+
+        assertThatThrownBy(() -> orderService.acceptOrder(orderRequest))
+                .isInstanceOf(ProductServiceException.class);
+
+        verify(orderPipeline, never()).tryAdmit();
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should give the pipeline slot back when the accepted order cannot be saved")
+    void shouldCancelAdmissionWhenAcceptedSaveFails() {
+        when(orderPipeline.tryAdmit()).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> orderService.acceptOrder(orderRequest))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(orderPipeline, times(1)).cancelAdmission();
+        verify(orderPipeline, never()).submit(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Should report the progress of an accepted order")
+    void shouldReportProgressOfAcceptedOrder() {
+        order.setStatus(OrderStatus.PROCESSING);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThat(orderService.getOrderById(1L).getStatus()).isEqualTo("PROCESSING");
     }
 
     @Test
@@ -126,7 +439,7 @@ class OrderServiceImplTest {
     @Test
     @DisplayName("Should return all orders")
     void shouldReturnAllOrders() {
-        when(orderRepository.findAll()).thenReturn(List.of(order));
+        when(orderRepository.findAllOrderResponses()).thenReturn(List.of(orderResponse()));
 
         List<OrderResponse> responses = orderService.getAllOrders();
 
@@ -134,6 +447,28 @@ class OrderServiceImplTest {
         assertThat(responses.get(0).getOrderId()).isEqualTo(1L);
     }
 
+    @Test
+    @DisplayName("Should return keyset page of orders")
+    void shouldReturnKeysetPageOfOrders() {
+        when(orderRepository.findOrderResponsesAfter(0L, Limit.of(1))).thenReturn(List.of(orderResponse()));
+
+        CursorPageResponse<OrderResponse> page = orderService.getOrdersPage(null, 1);
+
+        assertThat(page.getItems()).extracting(OrderResponse::getOrderId).containsExactly(1L);
+        assertThat(page.getNextCursor()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should stream orders to the consumer")
+    void shouldStreamOrdersToConsumer() {
+        when(orderRepository.streamAllOrderResponses()).thenReturn(Stream.of(orderResponse()));
+        List<OrderResponse> streamed = new ArrayList<>();
+
+        orderService.streamAllOrders(streamed::add);
+
+        assertThat(streamed).extracting(OrderResponse::getOrderId).containsExactly(1L);
+    }
+
     @Test
     @DisplayName("Should return fallback response when circuit breaker triggers")
     void shouldReturnFallbackWhenCircuitBreakerTriggers() {
@@ -144,5 +479,20 @@ class OrderServiceImplTest {
         assertThat(fallback.getStatus()).contains("FAILED");
         assertThat(fallback.getTotalAmount()).isEqualTo(0.0);
     }
-}
 
+    @Test
+    @DisplayName("Should pass a call turned away by the concurrency limit through the fallback")
+    void shouldRethrowOverloadFromFallback() {
+        ProductServiceOverloadedException overloaded = new ProductServiceOverloadedException(20);
+
+        assertThatThrownBy(() -> orderService.placeOrderFallback(orderRequest, overloaded))
+                .isSameAs(overloaded);
+        assertThat(orderService.placeOrderAsyncFallback(orderRequest, overloaded))
+                .isCompletedExceptionally();
+    }
+
+    private OrderResponse orderResponse() {
+        return new OrderResponse(order.getId(), order.getProductId(), order.getQuantity(),
+                order.getTotalAmount(), "SUCCESS");
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.client.ReactiveProductClient;
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.OrderResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import com.ecommerce.orderservice.service.OrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "resilience4j.timelimiter.instances.productService.timeout-duration=300ms"
+})
+class OrderServiceTimeLimiterTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockBean
+    private ReactiveProductClient reactiveProductClient;
+
+    @Test
+    @DisplayName("Should time out a stalled asynchronous placement and cancel the remote call")
+    void shouldTimeOutStalledPlacementAndCancelRemoteCall() throws Exception {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(reactiveProductClient.reserveProduct(any(ReservationRequest.class)))
+                .thenReturn(Mono.<ReservationResponse>never()
+                        .doOnCancel(cancelled::countDown));
+
+        long start = System.nanoTime();
+        OrderResponse response = orderService.placeOrderAsync(
+                OrderRequest.builder().productId(1L).quantity(1).build()).get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(response.getStatus()).startsWith("FAILED");
+        assertThat(elapsedMillis).isBetween(250L, 2_000L);
+        assertThat(cancelled.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
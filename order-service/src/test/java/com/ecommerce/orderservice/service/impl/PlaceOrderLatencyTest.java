@@ -0,0 +1,199 @@
+package com.ecommerce.orderservice.service.impl;
+
+import com.ecommerce.orderservice.client.ProductClient;
+import com.ecommerce.orderservice.dto.OrderRequest;
+import com.ecommerce.orderservice.dto.ProductResponse;
+import com.ecommerce.orderservice.dto.ReservationRequest;
+import com.ecommerce.orderservice.dto.ReservationResponse;
+import com.ecommerce.orderservice.entity.Order;
+import com.ecommerce.orderservice.exception.ProductServiceException;
+import com.ecommerce.orderservice.replica.ProductReplica;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares order placement latency against a product service stub with a fixed per-call delay:
+ * the placement as it was before orders were priced from the reservation (price lookup, then
+ * reserve and confirm, kept below as {@link PreviousOrderPlacement}) versus the current one.
+ */
+@Slf4j
+class PlaceOrderLatencyTest {
+
+    private static final long CALL_LATENCY_MILLIS = 5;
+    private static final int ORDERS = 40;
+
+    private SlowProductClient productClient;
+    private OrderServiceImpl orderService;
+    private PreviousOrderPlacement previousPlacement;
+
+    @BeforeEach
+    void setUp() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenAnswer(returnsFirstArg());
+        productClient = new SlowProductClient();
+        orderService = new OrderServiceImpl(orderRepository, productClient, null, null, mock(ProductReplica.class));
+        previousPlacement = new PreviousOrderPlacement(orderRepository, productClient);
+    }
+
+    @Test
+    @DisplayName("Reserve-and-price should take one round trip less than lookup-then-reserve")
+    void reserveAndPriceShouldBeFasterThanLookupThenReserve() {
+        OrderRequest request = OrderRequest.builder().productId(1L).quantity(2).build();
+
+        long lookupThenReserveNanos = measure(() -> previousPlacement.placeOrder(request));
+        int lookupThenReserveCalls = productClient.calls.getAndSet(0);
+
+        long reserveAndPriceNanos = measure(() -> orderService.placeOrder(request));
+        int reserveAndPriceCalls = productClient.calls.getAndSet(0);
+
+        log.info("Per order with {} ms per call - lookup then reserve: {} calls, {} us; reserve and price: {} calls, {} us",
+                CALL_LATENCY_MILLIS,
+                lookupThenReserveCalls / ORDERS, TimeUnit.NANOSECONDS.toMicros(lookupThenReserveNanos),
+                reserveAndPriceCalls / ORDERS, TimeUnit.NANOSECONDS.toMicros(reserveAndPriceNanos));
+
+        assertThat(reserveAndPriceCalls).isEqualTo(ORDERS * 2);
+        assertThat(lookupThenReserveCalls).isEqualTo(ORDERS * 3);
+        assertThat(reserveAndPriceNanos).isLessThan(lookupThenReserveNanos);
+    }
+
+    private long measure(Runnable placement) {
+        productClient.calls.set(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            placement.run();
+        }
+        return (System.nanoTime() - start) / ORDERS;
+    }
+
+    /**
+     * {@code OrderServiceImpl.placeOrder} as it was before the reservation carried the unit price,
+     * without the Resilience4j annotations, which do not change the calls made.
+     */
+    private static final class PreviousOrderPlacement {
+
+        private final OrderRepository orderRepository;
+        private final ProductClient productClient;
+
+        PreviousOrderPlacement(OrderRepository orderRepository, ProductClient productClient) {
+            this.orderRepository = orderRepository;
+            this.productClient = productClient;
+        }
+
+        Order placeOrder(OrderRequest request) {
+            // Step 1: Fetch product details from Product Service
+            ProductResponse product = productClient.getProductById(request.getProductId());
+            if (product == null) {
+                throw new ProductServiceException(
+                        "Product Service is unavailable. Please try again later.");
+            }
+
+            // Step 2: Reserve stock; unconfirmed reservations return to the pool when they expire
+            ReservationResponse reservation = productClient.reserveProduct(ReservationRequest.builder()
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .build());
+            if (reservation == null) {
+                throw new ProductServiceException(
+                        "Failed to reserve product stock. Please try again later.");
+            }
+
+            // Step 3: Calculate total amount
+            double totalAmount = product.getPrice() * request.getQuantity();
+
+            // Step 4: Save the order, handing the stock back if that fails
+            Order order = Order.builder()
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .totalAmount(totalAmount)
+                    .build();
+
+            Order savedOrder;
+            try {
+                savedOrder = orderRepository.saveAndFlush(order);
+            } catch (RuntimeException ex) {
+                productClient.releaseReservation(reservation.getReservationId());
+                throw ex;
+            }
+
+            // Step 5: Confirm the reservation so the stock is taken for good
+            if (productClient.confirmReservation(reservation.getReservationId()) == null) {
+                throw new ProductServiceException(
+                        "Failed to confirm product stock reservation. Please try again later.");
+            }
+            return savedOrder;
+        }
+    }
+
+    private static final class SlowProductClient implements ProductClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ProductResponse getProductById(Long id) {
+            roundTrip();
+            return new ProductResponse(id, "Laptop", 50000.0, 1_000_000);
+        }
+
+        @Override
+        public ProductResponse getProductById(Long id, String hedgeId) {
+            return getProductById(id);
+        }
+
+        @Override
+        public List<ProductResponse> getProductsByIds(List<Long> ids) {
+            roundTrip();
+            return ids.stream().map(id -> new ProductResponse(id, "Laptop", 50000.0, 1_000_000)).toList();
+        }
+
+        @Override
+        public ProductResponse reduceProductQuantity(Long id, int quantity) {
+            roundTrip();
+            return new ProductResponse(id, "Laptop", 50000.0, 1_000_000);
+        }
+
+        @Override
+        public ReservationResponse reserveProduct(ReservationRequest request) {
+            roundTrip();
+            return ReservationResponse.builder()
+                    .reservationId("r-" + calls.get())
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .status("RESERVED")
+                    .unitPrice(50000.0)
+                    .build();
+        }
+
+        @Override
+        public ReservationResponse confirmReservation(String reservationId) {
+            roundTrip();
+            return ReservationResponse.builder().reservationId(reservationId).status("CONFIRMED").build();
+        }
+
+        @Override
+        public void releaseReservation(String reservationId) {
+            roundTrip();
+        }
+
+        private void roundTrip() {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(CALL_LATENCY_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.productservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Read-through cache for product lookups. Size, expiry and whether caching is on at all are
+ * set per environment through spring.cache.* (spring.cache.type=none disables it).
+ * <p>
+ * The caching advice wraps the transactional advice, so evictions happen only after the
+ * write has committed and a cache hit never opens a transaction.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+}
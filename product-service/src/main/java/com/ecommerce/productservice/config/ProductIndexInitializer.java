@@ -0,0 +1,33 @@
+package com.ecommerce.productservice.config;
+
+import com.ecommerce.productservice.search.ProductPriceIndex;
+import com.ecommerce.productservice.search.ProductSearchIndex;
+import com.ecommerce.productservice.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the in-memory product indexes from the database once the application is up;
+ * from then on ProductServiceImpl keeps them current on every write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductIndexInitializer {
+
+    private final ProductService productService;
+    private final ProductSearchIndex searchIndex;
+    private final ProductPriceIndex priceIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        productService.streamAllProducts(product -> {
+            searchIndex.index(product.getId(), product.getName());
+            priceIndex.index(product.getId(), product.getPrice(), product.getQuantity());
+        });
+        log.info("Product search and price indexes built with {} products", searchIndex.size());
+    }
+}
@@ -1,15 +1,34 @@
 package com.ecommerce.productservice.controller;
 
+import com.ecommerce.dto.CursorPageResponse;
+import com.ecommerce.productservice.dto.ImportResponse;
+import com.ecommerce.productservice.dto.ProductChangeFeedResponse;
 import com.ecommerce.productservice.dto.ProductRequest;
 import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.ReservationRequest;
+import com.ecommerce.productservice.dto.ReservationResponse;
+import com.ecommerce.productservice.dto.StockBatchRequest;
+import com.ecommerce.productservice.dto.StockBatchResponse;
+import com.ecommerce.productservice.feed.ProductChangeFeed;
+import com.ecommerce.productservice.importer.ProductRowReader;
+import com.ecommerce.productservice.service.ProductImportService;
 import com.ecommerce.productservice.service.ProductService;
+import com.ecommerce.productservice.service.ReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -18,7 +37,17 @@ import java.util.List;
 @Slf4j
 public class ProductController {
 
+    /**
+     * Binary JSON, offered next to JSON on the endpoints Order Service calls. It asks for it in
+     * {@code Accept}; everyone else still gets JSON.
+     */
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     private final ProductService productService;
+    private final ReservationService reservationService;
+    private final ProductImportService productImportService;
+    private final ProductChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request) {
@@ -27,6 +56,26 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Bulk import from a streamed CSV body ({@code name,price,quantity}, optional header row).
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResponse> importProductsCsv(InputStream body) {
+        log.info("POST /products/import - Importing products from CSV");
+        ImportResponse response = productImportService.importProducts(body, ProductRowReader.Format.CSV);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bulk import from a streamed NDJSON body, one product request per line.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResponse> importProductsNdjson(InputStream body) {
+        log.info("POST /products/import - Importing products from NDJSON");
+        ImportResponse response = productImportService.importProducts(body, ProductRowReader.Format.NDJSON);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<List<ProductResponse>> getAllProducts() {
         log.info("GET /products - Fetching all products");
@@ -34,7 +83,81 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/{id}")
+    /**
+     * Keyset pagination: {@code GET /products?limit=100&after=<nextCursor of previous page>}.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getProductsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam int limit) {
+        log.info("GET /products?after={}&limit={} - Fetching product page", after, limit);
+        CursorPageResponse<ProductResponse> page = productService.getProductsPage(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Streams the whole catalog as newline-delimited JSON, one product per line.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        log.info("GET /products/stream - Streaming all products");
+        StreamingResponseBody body = outputStream ->
+                productService.streamAllProducts(product -> writeLine(outputStream, product));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /products/search?q={} - Searching products", query);
+        List<ProductResponse> products = productService.searchProducts(query, limit);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Price-range filter, cheapest first: {@code GET /products/filter?minPrice=10&maxPrice=50&inStock=true}.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<ProductResponse>> filterProducts(
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("GET /products/filter?minPrice={}&maxPrice={}&inStock={} - Filtering products",
+                minPrice, maxPrice, inStock);
+        List<ProductResponse> products = productService.filterProducts(minPrice, maxPrice, inStock, limit);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Multi-get: {@code GET /products/batch?ids=1,2,3}. Unknown ids are left out of the result.
+     */
+    @GetMapping(value = "/batch", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestParam List<Long> ids) {
+        log.info("GET /products/batch - Fetching {} products by id", ids.size());
+        List<ProductResponse> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Long-polled change feed: {@code GET /products/changes?after=<sequence>&waitMs=25000}. Without
+     * {@code after}, answers at once with the position to start from.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangeFeedResponse> getProductChanges(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        log.debug("GET /products/changes?after={} - Reading product changes", after);
+        ProductChangeFeedResponse response = changeFeed.read(
+                after, Math.max(1, Math.min(limit, 1000)), Duration.ofMillis(Math.max(0, waitMs)));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
         log.info("GET /products/{} - Fetching product by id", id);
         ProductResponse response = productService.getProductById(id);
@@ -60,7 +183,7 @@ public class ProductController {
     /**
      * Internal API used by Order Service to reduce product stock.
      */
-    @PutMapping("/reduce/{id}")
+    @PutMapping(value = "/reduce/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<ProductResponse> reduceProductQuantity(
             @PathVariable Long id,
             @RequestParam int quantity) {
@@ -68,5 +191,50 @@ public class ProductController {
         ProductResponse response = productService.reduceProductQuantity(id, quantity);
         return ResponseEntity.ok(response);
     }
-}
 
+    /**
+     * Internal API: reduces stock for several products at once, all or nothing. A rejected batch
+     * answers 400 with the per-line outcome.
+     */
+    @PutMapping("/reduce")
+    public ResponseEntity<StockBatchResponse> reduceProductQuantities(@Valid @RequestBody StockBatchRequest request) {
+        log.info("PUT /products/reduce - Reducing stock for {} lines", request.getLines().size());
+        StockBatchResponse response = productService.reduceProductQuantities(request.getLines());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Internal API used by Order Service: takes stock on hold until confirmed, released or expired.
+     */
+    @PostMapping(value = "/reservations", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ReservationResponse> reserveProduct(@Valid @RequestBody ReservationRequest request) {
+        log.info("POST /products/reservations - Reserving {} units of product {}",
+                request.getQuantity(), request.getProductId());
+        ReservationResponse response = reservationService.reserve(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping(value = "/reservations/{reservationId}/confirm",
+            produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ReservationResponse> confirmReservation(@PathVariable String reservationId) {
+        log.info("POST /products/reservations/{}/confirm - Confirming reservation", reservationId);
+        ReservationResponse response = reservationService.confirm(reservationId);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseReservation(@PathVariable String reservationId) {
+        log.info("DELETE /products/reservations/{} - Releasing reservation", reservationId);
+        reservationService.release(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists the first rejected rows by line number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResponse {
+
+    private long imported;
+    private long rejected;
+    private List<String> errors;
+    private long durationMillis;
+    private long rowsPerSecond;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the product change feed. {@code product} is the product as it stood right after
+ * the change, so replaying changes in sequence order rebuilds the catalog; it is null for
+ * {@code DELETED}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String STOCK_CHANGED = "STOCK_CHANGED";
+
+    private long sequence;
+    private String type;
+    private Long productId;
+    private ProductResponse product;
+}
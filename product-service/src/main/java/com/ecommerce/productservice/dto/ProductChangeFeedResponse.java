@@ -0,0 +1,26 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A read of the product change feed. Resume by passing the sequence of the last change applied
+ * as {@code after}. {@code reset} means the changes after that position are no longer held, and
+ * a new {@code epoch} means Product Service restarted and numbered its changes afresh; either way
+ * the consumer reloads the catalog and continues from {@code lastSequence}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeFeedResponse {
+
+    private String epoch;
+    private long lastSequence;
+    private boolean reset;
+    private List<ProductChangeEvent> changes;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationRequest {
+
+    @NotNull(message = "Product ID must not be null")
+    private Long productId;
+
+    @NotNull(message = "Quantity must not be null")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    /**
+     * Optional time-to-live; the configured default applies when absent.
+     */
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Long ttlSeconds;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationResponse {
+
+    private String reservationId;
+    private Long productId;
+    private Integer quantity;
+    private String status;
+    private LocalDateTime expiresAt;
+
+    /**
+     * Authoritative unit price at the moment the stock was taken, so callers need no separate lookup.
+     */
+    private Double unitPrice;
+}
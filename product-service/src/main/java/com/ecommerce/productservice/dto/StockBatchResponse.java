@@ -0,0 +1,25 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of an all-or-nothing batch decrement: {@code REDUCED} when every line was applied,
+ * {@code REJECTED} when none was, with the failing lines marked in {@code lines}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchResponse {
+
+    public static final String REDUCED = "REDUCED";
+    public static final String REJECTED = "REJECTED";
+
+    private String status;
+    private List<StockLineResult> lines;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one batch line. {@code available} is the stock left after the line when it
+ * could be served, or the stock it could not be served from otherwise (null if not found).
+ * {@code unitPrice} is the product's current price, so callers can price the line without a lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLineResult {
+
+    public static final String OK = "OK";
+    public static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private Long productId;
+    private Integer quantity;
+    private Integer available;
+    private Double unitPrice;
+    private String status;
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A batch line that has been applied, under the idempotency key its caller sent. Written in the
+ * same transaction as the decrement, so a line sent again after a lost answer is recognised
+ * instead of taking the stock twice.
+ */
+@Entity
+@Table(name = "stock_deductions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockDeduction {
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "unit_price", nullable = false)
+    private Double unitPrice;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.productservice.exception;
+
+public class InventoryTimeoutException extends RuntimeException {
+
+    public InventoryTimeoutException(Long productId) {
+        super("Timed out waiting for the inventory writer to reduce stock for product id: " + productId);
+    }
+}
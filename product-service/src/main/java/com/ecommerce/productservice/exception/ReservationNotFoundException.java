@@ -0,0 +1,8 @@
+package com.ecommerce.productservice.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException(String reservationId) {
+        super("Reservation not found or already expired with id: " + reservationId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.productservice.exception;
+
+import com.ecommerce.productservice.dto.StockBatchResponse;
+import lombok.Getter;
+
+/**
+ * Thrown when at least one line of a batch decrement cannot be served; rolls the whole batch back.
+ */
+@Getter
+public class StockBatchRejectedException extends RuntimeException {
+
+    private final StockBatchResponse response;
+
+    public StockBatchRejectedException(StockBatchResponse response) {
+        super("Stock batch rejected: not every line could be served");
+        this.response = response;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.productservice.feed;
+
+import com.ecommerce.productservice.dto.ProductChangeEvent;
+import com.ecommerce.productservice.dto.ProductChangeFeedResponse;
+import com.ecommerce.productservice.dto.ProductResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ordered, in-memory log of product changes for consumers that keep their own copy of the catalog.
+ * <p>
+ * Every create, update, delete and stock change is appended with the next sequence number once it
+ * has committed. The last {@code retention} changes are kept in a ring; a consumer further behind
+ * than that is told to reload. Sequences restart with the process, which shows as a new epoch.
+ * Readers long-poll: a read with nothing new waits for the next change, up to {@code max-wait}.
+ */
+@Component
+@Slf4j
+public class ProductChangeFeed {
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final ProductChangeEvent[] ring;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    private long lastSequence;
+
+    public ProductChangeFeed(@Value("${product.change-feed.retention:100000}") int retention,
+                             @Value("${product.change-feed.max-wait:30s}") Duration maxWait) {
+        this.ring = new ProductChangeEvent[retention];
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public void created(ProductResponse product) {
+        append(ProductChangeEvent.CREATED, product.getId(), product);
+    }
+
+    public void updated(ProductResponse product) {
+        append(ProductChangeEvent.UPDATED, product.getId(), product);
+    }
+
+    public void stockChanged(ProductResponse product) {
+        append(ProductChangeEvent.STOCK_CHANGED, product.getId(), product);
+    }
+
+    public void deleted(Long productId) {
+        append(ProductChangeEvent.DELETED, productId, null);
+    }
+
+    /**
+     * Returns up to {@code limit} changes with a sequence above {@code after}, waiting up to
+     * {@code wait} (capped at {@code max-wait}) for one if there are none yet. Without
+     * {@code after}, returns no changes, only the position to continue from.
+     */
+    public ProductChangeFeedResponse read(Long after, int limit, Duration wait) {
+        lock.lock();
+        try {
+            if (after == null) {
+                return response(false, List.of());
+            }
+
+            long remaining = Math.min(wait.toNanos(), maxWaitNanos);
+            while (lastSequence == after && remaining > 0) {
+                try {
+                    remaining = appended.awaitNanos(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            // Ahead of the feed (an earlier epoch) or behind what the ring still holds
+            if (after > lastSequence || after < lastSequence - ring.length) {
+                log.info("Change feed reader at sequence {} is out of range (last: {}), asking it to reload",
+                        after, lastSequence);
+                return response(true, List.of());
+            }
+
+            long last = Math.min(lastSequence, after + Math.max(limit, 1));
+            List<ProductChangeEvent> changes = new ArrayList<>((int) (last - after));
+            for (long sequence = after + 1; sequence <= last; sequence++) {
+                changes.add(ring[slot(sequence)]);
+            }
+            return response(false, changes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(String type, Long productId, ProductResponse product) {
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            ring[slot(sequence)] = ProductChangeEvent.builder()
+                    .sequence(sequence)
+                    .type(type)
+                    .productId(productId)
+                    .product(product)
+                    .build();
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    private ProductChangeFeedResponse response(boolean reset, List<ProductChangeEvent> changes) {
+        return ProductChangeFeedResponse.builder()
+                .epoch(epoch)
+                .lastSequence(lastSequence)
+                .reset(reset)
+                .changes(changes)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.productservice.importer;
+
+import com.ecommerce.productservice.dto.ProductRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads product rows from a CSV ({@code name,price,quantity}, optional header) or NDJSON body
+ * one line at a time, so an import never holds more than the current line in memory.
+ * A row that cannot be parsed is returned with its error instead of failing the import.
+ */
+public class ProductRowReader {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    public ProductRowReader(Reader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the next non-blank row, or null at the end of the input
+     */
+    public Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isHeader(line))) {
+                continue;
+            }
+            try {
+                return new Row(lineNumber, format == Format.CSV ? parseCsv(line) : parseJson(line), null);
+            } catch (JsonProcessingException ex) {
+                return new Row(lineNumber, null, ex.getOriginalMessage());
+            } catch (IllegalArgumentException ex) {
+                return new Row(lineNumber, null, ex.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private ProductRequest parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, ProductRequest.class);
+    }
+
+    private static ProductRequest parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 3) {
+            throw new IllegalArgumentException("expected 3 fields (name,price,quantity) but found " + fields.size());
+        }
+        return ProductRequest.builder()
+                .name(fields.get(0))
+                .price(Double.valueOf(fields.get(1).trim()))
+                .quantity(Integer.valueOf(fields.get(2).trim()))
+                .build();
+    }
+
+    /**
+     * Splits one CSV line; fields may be quoted, with {@code ""} standing for a literal quote.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("name,");
+    }
+
+    public record Row(long lineNumber, ProductRequest product, String error) {
+    }
+}
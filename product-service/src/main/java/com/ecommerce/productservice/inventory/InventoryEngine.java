@@ -0,0 +1,334 @@
+package com.ecommerce.productservice.inventory;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.exception.InventoryTimeoutException;
+import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional single-writer inventory mode for flash-sale traffic.
+ * <p>
+ * Stock decrements are published to a lock-free ring buffer and applied by one writer
+ * thread against an in-memory view of each SKU, so callers never queue on the row lock.
+ * The writer group-commits the net change per SKU in one transaction per batch and only
+ * then acknowledges the callers, so an acknowledged decrement is always durable.
+ * <p>
+ * The view keeps at most {@code max-skus} products, dropping the least recently used ones
+ * between batches. A caller that is not picked up by the writer within {@code timeout}
+ * withdraws its decrement and gets an {@link InventoryTimeoutException}.
+ */
+@Component
+@Slf4j
+public class InventoryEngine {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxSkus;
+    private final long timeoutNanos;
+    private final RingBuffer<Command> ringBuffer;
+    // Access-ordered, so the eldest entries are the least recently used SKUs
+    private final Map<Long, Product> stock = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public InventoryEngine(ProductRepository productRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${inventory.single-writer.enabled:false}") boolean enabled,
+                           @Value("${inventory.single-writer.buffer-size:65536}") int bufferSize,
+                           @Value("${inventory.single-writer.batch-size:256}") int batchSize,
+                           @Value("${inventory.single-writer.max-skus:10000}") int maxSkus,
+                           @Value("${inventory.single-writer.timeout:5s}") Duration timeout) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxSkus = maxSkus;
+        this.timeoutNanos = timeout.toNanos();
+        this.ringBuffer = enabled ? new RingBuffer<>(bufferSize) : null;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "inventory-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Single-writer inventory engine started (batch size: {})", batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reduces stock through the writer thread, blocking until the change is committed.
+     * <p>
+     * If the writer has not picked the decrement up within the timeout it is withdrawn and
+     * never applied. Once picked up, the caller waits for the batch commit, which is bounded
+     * by a single transaction.
+     *
+     * @return a snapshot of the product carrying its quantity after this decrement
+     * @throws InventoryTimeoutException if the decrement was withdrawn
+     */
+    public Product reduce(Long id, int quantity) {
+        CompletableFuture<Product> result = new CompletableFuture<>();
+        Command command = new Command(id, quantity, result);
+        long deadline = System.nanoTime() + timeoutNanos;
+        publish(command, deadline);
+        try {
+            return result.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (TimeoutException | InterruptedException ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (command.withdraw()) {
+                throw new InventoryTimeoutException(id);
+            }
+            return awaitClaimed(result);
+        }
+    }
+
+    /**
+     * Drops the in-memory view of a product after it was changed outside the engine.
+     */
+    public void invalidate(Long id) {
+        if (enabled) {
+            publish(new Command(id, 0, null), Long.MAX_VALUE);
+        }
+    }
+
+    private void publish(Command command, long deadline) {
+        while (!ringBuffer.offer(command)) {
+            if (command.result != null && System.nanoTime() - deadline >= 0) {
+                throw new InventoryTimeoutException(command.productId);
+            }
+            // Buffer full: back-pressure the caller until the writer catches up
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        LockSupport.unpark(writer);
+    }
+
+    private static Product awaitClaimed(CompletableFuture<Product> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new CompletionException(cause);
+    }
+
+    private void runWriter() {
+        List<Command> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Command command;
+            while (batch.size() < batchSize && (command = ringBuffer.poll()) != null) {
+                batch.add(command);
+            }
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                processBatch(batch);
+            } catch (RuntimeException ex) {
+                log.error("Inventory writer failed to process batch of {} commands", batch.size(), ex);
+                batch.forEach(c -> c.fail(ex));
+                stock.clear();
+            }
+            batch.clear();
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Long> eldest = stock.keySet().iterator();
+        for (int excess = stock.size() - maxSkus; excess > 0; excess--) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void processBatch(List<Command> batch) {
+        // Sorted so rows are updated in id order, like the locking batch path, and cannot deadlock with it
+        Map<Long, Integer> deltas = new TreeMap<>();
+        List<Command> accepted = new ArrayList<>(batch.size());
+
+        for (Command command : batch) {
+            if (command.isInvalidation()) {
+                stock.remove(command.productId);
+                continue;
+            }
+            if (!command.claim()) {
+                // The caller timed out and withdrew this decrement
+                continue;
+            }
+            Product slot = stock.computeIfAbsent(command.productId, this::load);
+            if (slot == null) {
+                command.fail(new ProductNotFoundException(command.productId));
+            } else if (slot.getQuantity() < command.quantity) {
+                command.fail(new InsufficientStockException(command.productId, slot.getQuantity(), command.quantity));
+            } else {
+                slot.setQuantity(slot.getQuantity() - command.quantity);
+                command.snapshot = copyOf(slot);
+                deltas.merge(command.productId, command.quantity, Integer::sum);
+                accepted.add(command);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> deltas.forEach((id, delta) -> {
+                if (productRepository.decrementQuantity(id, delta) == 0) {
+                    throw new StaleStockException(id);
+                }
+            }));
+        } catch (StaleStockException ex) {
+            // The database moved underneath the in-memory view; replay one by one against it
+            log.warn("In-memory stock for product id: {} was stale, replaying batch", ex.productId);
+            deltas.keySet().forEach(stock::remove);
+            accepted.forEach(this::applyDirectly);
+            return;
+        }
+
+        accepted.forEach(Command::complete);
+    }
+
+    private void applyDirectly(Command command) {
+        try {
+            if (productRepository.decrementQuantity(command.productId, command.quantity) == 0) {
+                Product current = load(command.productId);
+                if (current == null) {
+                    throw new ProductNotFoundException(command.productId);
+                }
+                throw new InsufficientStockException(command.productId, current.getQuantity(), command.quantity);
+            }
+            Product current = load(command.productId);
+            if (current == null) {
+                throw new ProductNotFoundException(command.productId);
+            }
+            command.snapshot = current;
+            command.complete();
+        } catch (RuntimeException ex) {
+            command.fail(ex);
+        }
+    }
+
+    private Product load(Long id) {
+        return productRepository.findById(id).map(InventoryEngine::copyOf).orElse(null);
+    }
+
+    private static Product copyOf(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .build();
+    }
+
+    private static final class Command {
+
+        private static final int PENDING = 0;
+        private static final int CLAIMED = 1;
+        private static final int WITHDRAWN = 2;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final Long productId;
+        private final int quantity;
+        private final CompletableFuture<Product> result;
+        private Product snapshot;
+
+        private Command(Long productId, int quantity, CompletableFuture<Product> result) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.result = result;
+        }
+
+        private boolean isInvalidation() {
+            return result == null;
+        }
+
+        private boolean claim() {
+            return state.compareAndSet(PENDING, CLAIMED);
+        }
+
+        private boolean withdraw() {
+            return state.compareAndSet(PENDING, WITHDRAWN);
+        }
+
+        private void complete() {
+            result.complete(snapshot);
+        }
+
+        private void fail(Throwable ex) {
+            if (result != null) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private static final class StaleStockException extends RuntimeException {
+
+        private final Long productId;
+
+        private StaleStockException(Long productId) {
+            super("Stale in-memory stock for product id: " + productId, null, false, false);
+            this.productId = productId;
+        }
+    }
+}
@@ -1,10 +1,102 @@
 package com.ecommerce.productservice.repository;
 
+import com.ecommerce.productservice.dto.ProductResponse;
 import com.ecommerce.productservice.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
 
+    /**
+     * Reads every product straight into its response shape, without hydrating managed entities.
+     */
+    @Query("SELECT new com.ecommerce.productservice.dto.ProductResponse(p.id, p.name, p.price, p.quantity) "
+            + "FROM Product p ORDER BY p.id")
+    List<ProductResponse> findAllProductResponses();
+
+    /**
+     * Keyset page: the next {@code limit} products after the given id, in id order.
+     */
+    @Query("SELECT new com.ecommerce.productservice.dto.ProductResponse(p.id, p.name, p.price, p.quantity) "
+            + "FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<ProductResponse> findProductResponsesAfter(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT new com.ecommerce.productservice.dto.ProductResponse(p.id, p.name, p.price, p.quantity) "
+            + "FROM Product p WHERE p.id IN :ids")
+    List<ProductResponse> findProductResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Database equivalent of the in-memory price index, cheapest first; kept for comparison with it.
+     */
+    @Query("SELECT new com.ecommerce.productservice.dto.ProductResponse(p.id, p.name, p.price, p.quantity) "
+            + "FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice "
+            + "AND (:inStock = false OR p.quantity > 0) ORDER BY p.price, p.id")
+    List<ProductResponse> findProductResponsesByPriceRange(@Param("minPrice") double minPrice,
+                                                           @Param("maxPrice") double maxPrice,
+                                                           @Param("inStock") boolean inStock,
+                                                           Limit limit);
+
+    /**
+     * Streams every product in id order; must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecommerce.productservice.dto.ProductResponse(p.id, p.name, p.price, p.quantity) "
+            + "FROM Product p ORDER BY p.id")
+    Stream<ProductResponse> streamAllProductResponses();
+
+    /**
+     * Decrements stock in a single guarded UPDATE so concurrent orders cannot oversell.
+     *
+     * @return number of rows updated: 1 on success, 0 if the product is missing or has too little stock
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity "
+            + "WHERE p.id = :id AND p.quantity >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * The guarded UPDATE, then the row read back in the same transaction. The UPDATE holds the
+     * row lock until commit, so the quantity read is the one this decrement left.
+     *
+     * @return the product as updated, or empty if it is missing or has too little stock
+     */
+    @Transactional
+    default Optional<Product> decrementQuantityAndGet(Long id, int quantity) {
+        return decrementQuantity(id, quantity) == 1 ? findById(id) : Optional.empty();
+    }
+
+    /**
+     * Loads and write-locks the given products in id order; every caller locking in the same
+     * order is what keeps concurrent multi-product batches from deadlocking.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns previously taken stock, e.g. when a reservation is released or expires.
+     *
+     * @return number of rows updated: 1 on success, 0 if the product no longer exists
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :id")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /**
+     * Closes a reservation; confirm, release and expiry all go through here, on any instance.
+     *
+     * @return 1 for the caller that closed it, 0 if it was already closed or never existed
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteReservation(@Param("id") String id);
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.productservice.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: scheduling, cancelling and expiring a timeout are all O(1)
+ * regardless of how many timeouts are pending.
+ * <p>
+ * The wheel is driven externally: every call to {@link #advance()} moves it forward by
+ * one tick and returns the payloads that came due.
+ */
+public class HashedTimingWheel<T> {
+
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int pending;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(int wheelSize) {
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.buckets = (Timeout<T>[]) new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+    }
+
+    /**
+     * Schedules a payload to come due after the given number of ticks (at least one).
+     */
+    public synchronized Timeout<T> schedule(T payload, long ticks) {
+        long delay = Math.max(1, ticks);
+        Timeout<T> timeout = new Timeout<>(payload);
+        timeout.remainingRounds = (delay - 1) / buckets.length;
+        timeout.bucket = (int) ((currentTick + delay) & mask);
+        link(timeout);
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Removes a timeout before it comes due.
+     *
+     * @return false if it had already expired or been cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        pending--;
+        return true;
+    }
+
+    public synchronized List<T> advance() {
+        currentTick++;
+        int index = (int) (currentTick & mask);
+        List<T> expired = new ArrayList<>();
+        Timeout<T> timeout = buckets[index];
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                unlink(timeout);
+                pending--;
+                expired.add(timeout.payload);
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+
+    private void link(Timeout<T> timeout) {
+        Timeout<T> head = buckets[timeout.bucket];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[timeout.bucket] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    /**
+     * Handle to a scheduled payload; an intrusive list node so cancellation is O(1).
+     */
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private long remainingRounds;
+        private int bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload) {
+            this.payload = payload;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.productservice.search;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Sorted, duplicate-free list of product ids backed by a primitive {@code long[]}.
+ * Ids are mostly assigned in increasing order, so additions are usually an append.
+ */
+final class LongPostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits ids in ascending order until the visitor returns false.
+     *
+     * @return false if the visitor stopped early
+     */
+    boolean forEachWhile(LongPredicate visitor) {
+        for (int i = 0; i < size; i++) {
+            if (!visitor.test(ids[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ecommerce.productservice.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of products ordered by price, with an in-stock flag per product.
+ * <p>
+ * Every product owns a fixed slot. Slots are kept in a primitive array sorted by (price, id),
+ * with a parallel {@code double[]} of prices, so a price range is a binary search followed by a
+ * sequential scan. In-stock is a bit per slot, which makes stock changes O(1) and leaves the
+ * sorted arrays untouched; only a price change moves a product.
+ */
+@Component
+public class ProductPriceIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Sorted by (price, id): position -> price / slot
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Per slot
+    private long[] slotIds = new long[INITIAL_CAPACITY];
+    private double[] slotPrices = new double[INITIAL_CAPACITY];
+    private final BitSet inStock = new BitSet();
+    private int slotCount;
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a product, or moves it if its price changed.
+     */
+    public void index(Long id, double price, int quantity) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (slot != null && Double.compare(slotPrices[slot], price) == 0) {
+                inStock.set(slot, quantity > 0);
+                return;
+            }
+            if (slot == null) {
+                slot = allocateSlot(id);
+                slotById.put(id, slot);
+            } else {
+                deleteAt(positionOf(slot));
+            }
+            slotPrices[slot] = price;
+            insertAt(lowerBound(price, id), slot);
+            inStock.set(slot, quantity > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a stock change; products the index does not know are ignored.
+     */
+    public void updateStock(Long id, int quantity) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (slot != null) {
+                inStock.set(slot, quantity > 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            deleteAt(positionOf(slot));
+            inStock.clear(slot);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds up to {@code limit} products priced within [minPrice, maxPrice], cheapest first
+     * (ties by id), optionally only those in stock.
+     */
+    public List<Long> filter(double minPrice, double maxPrice, boolean inStockOnly, int limit) {
+        return filterAfter(minPrice, maxPrice, inStockOnly, null, limit).ids();
+    }
+
+    /**
+     * Same as {@link #filter}, but resumes after the last product of an earlier answer, so a caller
+     * that had to drop some of them can ask for more without being handed any twice.
+     *
+     * @param after an earlier answer for the same range, or null to start at {@code minPrice}
+     */
+    public Matches filterAfter(double minPrice, double maxPrice, boolean inStockOnly, Matches after, int limit) {
+        if (limit <= 0 || minPrice > maxPrice) {
+            return Matches.NONE;
+        }
+
+        lock.readLock().lock();
+        try {
+            int position = lowerBound(minPrice, Long.MIN_VALUE);
+            if (after != null) {
+                position = Math.max(position, lowerBound(after.lastPrice(), after.lastId() + 1));
+            }
+            List<Long> results = new ArrayList<>(Math.min(limit, size));
+            double lastPrice = Double.NEGATIVE_INFINITY;
+            long lastId = Long.MIN_VALUE;
+            for (; position < size && prices[position] <= maxPrice && results.size() < limit; position++) {
+                int slot = slots[position];
+                if (!inStockOnly || inStock.get(slot)) {
+                    lastPrice = prices[position];
+                    lastId = slotIds[slot];
+                    results.add(lastId);
+                }
+            }
+            return new Matches(results, lastPrice, lastId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Product ids in (price, id) order, and the key of the last one to resume after.
+     */
+    public record Matches(List<Long> ids, double lastPrice, long lastId) {
+
+        static final Matches NONE = new Matches(List.of(), Double.NEGATIVE_INFINITY, Long.MIN_VALUE);
+    }
+
+    private int allocateSlot(long id) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == slotIds.length) {
+                slotIds = Arrays.copyOf(slotIds, slotCount * 2);
+                slotPrices = Arrays.copyOf(slotPrices, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        slotIds[slot] = id;
+        return slot;
+    }
+
+    private int positionOf(int slot) {
+        return lowerBound(slotPrices[slot], slotIds[slot]);
+    }
+
+    /**
+     * First position whose (price, id) is not less than the given key.
+     */
+    private int lowerBound(double price, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Double.compare(prices[mid], price);
+            if (cmp == 0) {
+                cmp = Long.compare(slotIds[slots[mid]], id);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void insertAt(int position, int slot) {
+        if (size == prices.length) {
+            prices = Arrays.copyOf(prices, size * 2);
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        System.arraycopy(prices, position, prices, position + 1, size - position);
+        System.arraycopy(slots, position, slots, position + 1, size - position);
+        prices[position] = slotPrices[slot];
+        slots[position] = slot;
+        size++;
+    }
+
+    private void deleteAt(int position) {
+        System.arraycopy(prices, position + 1, prices, position, size - position - 1);
+        System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+        size--;
+    }
+}
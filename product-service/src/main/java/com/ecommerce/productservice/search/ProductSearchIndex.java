@@ -0,0 +1,194 @@
+package com.ecommerce.productservice.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product names.
+ * <p>
+ * Names are split into lower-case alphanumeric terms; every query term matches as a prefix,
+ * and a product matches when all query terms do. Terms are kept in a sorted map so a prefix
+ * is a contiguous range, and each term maps to a primitive posting list of product ids.
+ * A forward index (id to terms) makes updates and removals incremental.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private final NavigableMap<String, LongPostingList> postings = new TreeMap<>();
+    private final Map<Long, String[]> termsById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a product, or re-indexes it if its name changed.
+     */
+    public void index(Long id, String name) {
+        String[] tokens = tokenize(name);
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+            String[] terms = new String[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                String token = tokens[i];
+                LongPostingList list = postings.get(token);
+                if (list == null) {
+                    list = new LongPostingList();
+                    postings.put(token, list);
+                } else {
+                    // Reuse the dictionary's instance so the forward index does not duplicate strings
+                    token = postings.ceilingKey(token);
+                }
+                list.add(id);
+                terms[i] = token;
+            }
+            termsById.put(id, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds up to {@code limit} products whose name has, for every query term, a term starting with it.
+     * The most selective query term drives the scan; the others are checked against the forward index.
+     * A short prefix can span a large share of the dictionary, so ranges are only sized as far as it
+     * takes to lose to the narrowest one found so far, and a lone term is not sized at all.
+     */
+    public List<Long> search(String query, int limit) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, LongPostingList> driver = null;
+            long driverSize = Long.MAX_VALUE;
+            // Longer prefixes tend to be narrower, so sizing them first lowers the cap for the rest
+            String[] bySelectivity = tokens.clone();
+            Arrays.sort(bySelectivity, Comparator.comparingInt(String::length).reversed());
+            for (String token : bySelectivity) {
+                NavigableMap<String, LongPostingList> range = prefixRange(token);
+                if (range.isEmpty()) {
+                    return List.of();
+                }
+                if (bySelectivity.length == 1) {
+                    driver = range;
+                    break;
+                }
+                long rangeSize = rangeSize(range, driverSize);
+                if (rangeSize < driverSize) {
+                    driver = range;
+                    driverSize = rangeSize;
+                }
+            }
+
+            Set<Long> results = new LinkedHashSet<>();
+            for (LongPostingList list : driver.values()) {
+                boolean more = list.forEachWhile(id -> {
+                    if (matchesAll(termsById.get(id), tokens)) {
+                        results.add(id);
+                    }
+                    return results.size() < limit;
+                });
+                if (!more) {
+                    break;
+                }
+            }
+            return new ArrayList<>(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeTerms(Long id) {
+        String[] terms = termsById.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            LongPostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private NavigableMap<String, LongPostingList> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Number of postings in the range, or any value of at least {@code cap} once it gets that far.
+     */
+    private static long rangeSize(NavigableMap<String, LongPostingList> range, long cap) {
+        long size = 0;
+        for (LongPostingList list : range.values()) {
+            size += list.size();
+            if (size >= cap) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    private static boolean matchesAll(String[] terms, String[] prefixes) {
+        for (String prefix : prefixes) {
+            boolean matched = false;
+            for (String term : terms) {
+                if (term.startsWith(prefix)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ImportResponse;
+import com.ecommerce.productservice.importer.ProductRowReader;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ImportResponse importProducts(InputStream input, ProductRowReader.Format format);
+}
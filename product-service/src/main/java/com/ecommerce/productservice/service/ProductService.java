@@ -1,9 +1,13 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.dto.CursorPageResponse;
 import com.ecommerce.productservice.dto.ProductRequest;
 import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.StockBatchResponse;
+import com.ecommerce.productservice.dto.StockLineRequest;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
@@ -11,12 +15,26 @@ public interface ProductService {
 
     List<ProductResponse> getAllProducts();
 
+    CursorPageResponse<ProductResponse> getProductsPage(Long after, int limit);
+
+    void streamAllProducts(Consumer<ProductResponse> consumer);
+
     ProductResponse getProductById(Long id);
 
+    List<ProductResponse> getProductsByIds(List<Long> ids);
+
+    List<ProductResponse> searchProducts(String query, int limit);
+
+    List<ProductResponse> filterProducts(Double minPrice, Double maxPrice, boolean inStock, int limit);
+
     ProductResponse updateProduct(Long id, ProductRequest request);
 
     void deleteProduct(Long id);
 
     ProductResponse reduceProductQuantity(Long id, int quantity);
+
+    StockBatchResponse reduceProductQuantities(List<StockLineRequest> lines);
+
+    ProductResponse restoreProductQuantity(Long id, int quantity);
 }
 
@@ -0,0 +1,13 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ReservationRequest;
+import com.ecommerce.productservice.dto.ReservationResponse;
+
+public interface ReservationService {
+
+    ReservationResponse reserve(ReservationRequest request);
+
+    ReservationResponse confirm(String reservationId);
+
+    void release(String reservationId);
+}
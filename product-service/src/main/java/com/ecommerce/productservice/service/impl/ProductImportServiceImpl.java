@@ -0,0 +1,167 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.dto.ImportResponse;
+import com.ecommerce.productservice.dto.ProductRequest;
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.feed.ProductChangeFeed;
+import com.ecommerce.productservice.importer.ProductRowReader;
+import com.ecommerce.productservice.search.ProductPriceIndex;
+import com.ecommerce.productservice.search.ProductSearchIndex;
+import com.ecommerce.productservice.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk product import. Rows are parsed as the body is read and inserted in batches of
+ * {@code product.import.batch-size}, one transaction per batch; Hibernate sends each batch as
+ * JDBC batched inserts (the sequence-based id allocates ids without a round trip per row).
+ * The persistence context is cleared after every batch, so memory stays flat however large
+ * the import is.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int PROGRESS_LOG_BATCHES = 100;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex searchIndex;
+    private final ProductPriceIndex priceIndex;
+    private final ProductChangeFeed changeFeed;
+    private final int batchSize;
+
+    public ProductImportServiceImpl(EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    ProductSearchIndex searchIndex,
+                                    ProductPriceIndex priceIndex,
+                                    ProductChangeFeed changeFeed,
+                                    @Value("${product.import.batch-size:500}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.priceIndex = priceIndex;
+        this.changeFeed = changeFeed;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportResponse importProducts(InputStream input, ProductRowReader.Format format) {
+        log.info("Importing products from {} (batch size: {})", format, batchSize);
+
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        long batches = 0;
+        List<String> errors = new ArrayList<>();
+        List<Product> batch = new ArrayList<>(batchSize);
+
+        ProductRowReader reader = new ProductRowReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8), format, objectMapper);
+        try {
+            ProductRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                String error = row.error() != null ? row.error() : validate(row.product());
+                if (error != null) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("line " + row.lineNumber() + ": " + error);
+                    }
+                    continue;
+                }
+                batch.add(mapToProduct(row.product()));
+                if (batch.size() == batchSize) {
+                    imported += insertBatch(batch);
+                    if (++batches % PROGRESS_LOG_BATCHES == 0) {
+                        log.info("Imported {} products so far ({} rows/s)", imported, rowsPerSecond(imported, start));
+                    }
+                }
+            }
+            imported += insertBatch(batch);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("Import finished: {} imported, {} rejected in {} ms ({} rows/s)",
+                imported, rejected, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond(imported, start));
+
+        return ImportResponse.builder()
+                .imported(imported)
+                .rejected(rejected)
+                .errors(errors)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(rowsPerSecond(imported, start))
+                .build();
+    }
+
+    private int insertBatch(List<Product> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            batch.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        for (Product product : batch) {
+            searchIndex.index(product.getId(), product.getName());
+            priceIndex.index(product.getId(), product.getPrice(), product.getQuantity());
+            changeFeed.created(ProductResponse.builder()
+                    .id(product.getId())
+                    .name(product.getName())
+                    .price(product.getPrice())
+                    .quantity(product.getQuantity())
+                    .build());
+        }
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    private String validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.iterator().next().getMessage();
+    }
+
+    private static long rowsPerSecond(long rows, long startNanos) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        return rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    private static Product mapToProduct(ProductRequest request) {
+        return Product.builder()
+                .name(request.getName())
+                .price(request.getPrice())
+                .quantity(request.getQuantity())
+                .build();
+    }
+}
@@ -1,19 +1,49 @@
 package com.ecommerce.productservice.service.impl;
 
+import com.ecommerce.dto.CursorPageResponse;
+import com.ecommerce.productservice.config.CacheConfig;
 import com.ecommerce.productservice.dto.ProductRequest;
 import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.StockBatchResponse;
+import com.ecommerce.productservice.dto.StockLineRequest;
+import com.ecommerce.productservice.dto.StockLineResult;
 import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.StockDeduction;
 import com.ecommerce.productservice.exception.InsufficientStockException;
 import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.exception.StockBatchRejectedException;
+import com.ecommerce.productservice.feed.ProductChangeFeed;
+import com.ecommerce.productservice.inventory.InventoryEngine;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.StockDeductionRepository;
+import com.ecommerce.productservice.search.ProductPriceIndex;
+import com.ecommerce.productservice.search.ProductSearchIndex;
 import com.ecommerce.productservice.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +51,16 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final ProductRepository productRepository;
+    private final InventoryEngine inventoryEngine;
+    private final ProductSearchIndex searchIndex;
+    private final ProductPriceIndex priceIndex;
+    private final CacheManager cacheManager;
+    private final ProductChangeFeed changeFeed;
+    private final StockDeductionRepository stockDeductionRepository;
 
     @Override
     public ProductResponse createProduct(ProductRequest request) {
@@ -34,6 +73,11 @@ public class ProductServiceImpl implements ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        afterCommit(() -> {
+            searchIndex.index(savedProduct.getId(), savedProduct.getName());
+            priceIndex.index(savedProduct.getId(), savedProduct.getPrice(), savedProduct.getQuantity());
+            changeFeed.created(mapToProductResponse(savedProduct));
+        });
         log.info("Product created successfully with id: {}", savedProduct.getId());
 
         return mapToProductResponse(savedProduct);
@@ -44,14 +88,42 @@ public class ProductServiceImpl implements ProductService {
     public List<ProductResponse> getAllProducts() {
         log.info("Fetching all products");
 
-        return productRepository.findAll()
-                .stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+        return productRepository.findAllProductResponses();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getProductsPage(Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.info("Fetching {} products after id: {}", pageSize, after);
+
+        List<ProductResponse> items = productRepository
+                .findProductResponsesAfter(after != null ? after : 0L, Limit.of(pageSize));
+
+        Long nextCursor = items.size() == pageSize ? items.get(items.size() - 1).getId() : null;
+        return CursorPageResponse.<ProductResponse>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    /**
+     * Hands products to the consumer one at a time straight from the result set; no entities
+     * are managed, so the heap stays flat however large the catalog is.
+     */
     @Override
     @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductResponse> consumer) {
+        log.info("Streaming all products");
+
+        try (Stream<ProductResponse> products = productRepository.streamAllProductResponses()) {
+            products.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponse getProductById(Long id) {
         log.info("Fetching product with id: {}", id);
 
@@ -61,7 +133,67 @@ public class ProductServiceImpl implements ProductService {
         return mapToProductResponse(product);
     }
 
+    /**
+     * Multi-get in one {@code IN} query, in the order the ids were given. Unknown ids are left
+     * out, and at most {@code MAX_PAGE_SIZE} distinct ids are looked up.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        log.info("Fetching {} products by id", ids.size());
+
+        return findInOrder(ids.stream().distinct().limit(MAX_PAGE_SIZE).toList());
+    }
+
+    /**
+     * Resolves matching ids from the in-memory name index, then loads just those rows,
+     * keeping the order the index returned them in.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchProducts(String query, int limit) {
+        log.info("Searching products for: {}", query);
+
+        List<Long> ids = searchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        return findInOrder(ids);
+    }
+
+    /**
+     * Resolves the price range from the in-memory price index, then loads just those rows.
+     * Rows are re-checked against the range and stock, since the database is authoritative;
+     * when some are dropped the index is asked for more, after the last one it answered, until
+     * the page is full or the range runs out.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponse> filterProducts(Double minPrice, Double maxPrice, boolean inStock, int limit) {
+        double min = minPrice != null ? minPrice : 0.0;
+        double max = maxPrice != null ? maxPrice : Double.MAX_VALUE;
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.info("Filtering products priced {} to {}, in stock only: {}", min, max, inStock);
+
+        List<ProductResponse> results = new ArrayList<>(pageSize);
+        // A product the index moves between rounds could otherwise be answered twice
+        Set<Long> seen = new HashSet<>();
+        ProductPriceIndex.Matches matches = null;
+        while (results.size() < pageSize) {
+            int wanted = pageSize - results.size();
+            matches = priceIndex.filterAfter(min, max, inStock, matches, wanted);
+            for (ProductResponse product : findInOrder(matches.ids())) {
+                if (product.getPrice() >= min && product.getPrice() <= max
+                        && (!inStock || product.getQuantity() > 0) && seen.add(product.getId())) {
+                    results.add(product);
+                }
+            }
+            if (matches.ids().size() < wanted) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponse updateProduct(Long id, ProductRequest request) {
         log.info("Updating product with id: {}", id);
 
@@ -73,12 +205,19 @@ public class ProductServiceImpl implements ProductService {
         product.setQuantity(request.getQuantity());
 
         Product updatedProduct = productRepository.save(product);
+        afterCommit(() -> {
+            inventoryEngine.invalidate(id);
+            searchIndex.index(id, updatedProduct.getName());
+            priceIndex.index(id, updatedProduct.getPrice(), updatedProduct.getQuantity());
+            changeFeed.updated(mapToProductResponse(updatedProduct));
+        });
         log.info("Product updated successfully with id: {}", updatedProduct.getId());
 
         return mapToProductResponse(updatedProduct);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(Long id) {
         log.info("Deleting product with id: {}", id);
 
@@ -87,27 +226,216 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.deleteById(id);
+        afterCommit(() -> {
+            inventoryEngine.invalidate(id);
+            searchIndex.remove(id);
+            priceIndex.remove(id);
+            changeFeed.deleted(id);
+        });
         log.info("Product deleted successfully with id: {}", id);
     }
 
+    /**
+     * Runs without a surrounding transaction: both stock paths commit on their own, and
+     * callers waiting on the inventory writer must not hold a pooled connection meanwhile.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponse reduceProductQuantity(Long id, int quantity) {
         log.info("Reducing quantity of product id: {} by: {}", id, quantity);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
-
-        if (product.getQuantity() < quantity) {
-            throw new InsufficientStockException(id, product.getQuantity(), quantity);
+        if (inventoryEngine.isEnabled()) {
+            Product updatedProduct = inventoryEngine.reduce(id, quantity);
+            priceIndex.updateStock(id, updatedProduct.getQuantity());
+            changeFeed.stockChanged(mapToProductResponse(updatedProduct));
+            log.info("Product quantity reduced via inventory engine. New quantity: {}", updatedProduct.getQuantity());
+            return mapToProductResponse(updatedProduct);
         }
 
-        product.setQuantity(product.getQuantity() - quantity);
-        Product updatedProduct = productRepository.save(product);
+        // Guarded UPDATE: the stock check and the decrement happen atomically in the database,
+        // and the updated row is read back before the row lock is let go
+        Product updatedProduct = productRepository.decrementQuantityAndGet(id, quantity).orElseThrow(() -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ProductNotFoundException(id));
+            return new InsufficientStockException(id, product.getQuantity(), quantity);
+        });
+        priceIndex.updateStock(id, updatedProduct.getQuantity());
+        changeFeed.stockChanged(mapToProductResponse(updatedProduct));
         log.info("Product quantity reduced successfully. New quantity: {}", updatedProduct.getQuantity());
 
         return mapToProductResponse(updatedProduct);
     }
 
+    /**
+     * Applies every line or none in one transaction. All rows are write-locked up front in id
+     * order, then every line is checked before anything changes; lines on the same product
+     * draw from the same stock.
+     * <p>
+     * Lines whose idempotency key was applied before are answered from that record and take no
+     * stock; the keys of newly applied lines are recorded in the same transaction.
+     */
+    @Override
+    public StockBatchResponse reduceProductQuantities(List<StockLineRequest> lines) {
+        log.info("Reducing stock for {} lines", lines.size());
+
+        Map<String, StockDeduction> applied = new HashMap<>();
+        List<String> keys = lines.stream().map(StockLineRequest::getIdempotencyKey)
+                .filter(Objects::nonNull).distinct().toList();
+        if (!keys.isEmpty()) {
+            stockDeductionRepository.findAllById(keys)
+                    .forEach(deduction -> applied.put(deduction.getIdempotencyKey(), deduction));
+        }
+
+        List<Long> ids = lines.stream()
+                .filter(line -> !applied.containsKey(line.getIdempotencyKey()))
+                .map(StockLineRequest::getProductId).distinct().sorted().toList();
+        Map<Long, Product> products = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Product product : productRepository.lockAllByIdIn(ids)) {
+                products.put(product.getId(), product);
+            }
+        }
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        products.forEach((id, product) -> remaining.put(id, product.getQuantity()));
+
+        List<StockLineResult> results = new ArrayList<>(lines.size());
+        List<StockDeduction> deductions = new ArrayList<>();
+        Set<String> keysInBatch = new HashSet<>();
+        boolean rejected = false;
+        for (StockLineRequest line : lines) {
+            StockDeduction previous = applied.get(line.getIdempotencyKey());
+            if (previous != null) {
+                results.add(StockLineResult.builder()
+                        .productId(previous.getProductId())
+                        .quantity(previous.getQuantity())
+                        .unitPrice(previous.getUnitPrice())
+                        .status(StockLineResult.OK)
+                        .build());
+                continue;
+            }
+            if (line.getIdempotencyKey() != null && !keysInBatch.add(line.getIdempotencyKey())) {
+                throw new IllegalArgumentException("Idempotency key repeated in batch: " + line.getIdempotencyKey());
+            }
+
+            Integer available = remaining.get(line.getProductId());
+            Product product = products.get(line.getProductId());
+            String status;
+            if (available == null) {
+                status = StockLineResult.NOT_FOUND;
+                rejected = true;
+            } else if (available < line.getQuantity()) {
+                status = StockLineResult.INSUFFICIENT_STOCK;
+                rejected = true;
+            } else {
+                available -= line.getQuantity();
+                remaining.put(line.getProductId(), available);
+                status = StockLineResult.OK;
+                if (line.getIdempotencyKey() != null) {
+                    deductions.add(StockDeduction.builder()
+                            .idempotencyKey(line.getIdempotencyKey())
+                            .productId(line.getProductId())
+                            .quantity(line.getQuantity())
+                            .unitPrice(product.getPrice())
+                            .appliedAt(LocalDateTime.now())
+                            .build());
+                }
+            }
+            results.add(StockLineResult.builder()
+                    .productId(line.getProductId())
+                    .quantity(line.getQuantity())
+                    .available(available)
+                    .unitPrice(product != null ? product.getPrice() : null)
+                    .status(status)
+                    .build());
+        }
+
+        if (rejected) {
+            log.info("Stock batch rejected, no lines applied");
+            throw new StockBatchRejectedException(StockBatchResponse.builder()
+                    .status(StockBatchResponse.REJECTED)
+                    .lines(results)
+                    .build());
+        }
+
+        remaining.forEach((id, quantity) -> products.get(id).setQuantity(quantity));
+        stockDeductionRepository.saveAll(deductions);
+        List<ProductResponse> changed = products.values().stream().map(this::mapToProductResponse).toList();
+        afterCommit(() -> {
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+            remaining.forEach((id, quantity) -> {
+                if (cache != null) {
+                    cache.evict(id);
+                }
+                inventoryEngine.invalidate(id);
+                priceIndex.updateStock(id, quantity);
+            });
+            changed.forEach(changeFeed::stockChanged);
+        });
+        log.info("Stock batch applied to {} products", remaining.size());
+
+        return StockBatchResponse.builder()
+                .status(StockBatchResponse.REDUCED)
+                .lines(results)
+                .build();
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public ProductResponse restoreProductQuantity(Long id, int quantity) {
+        log.info("Restoring quantity of product id: {} by: {}", id, quantity);
+
+        if (productRepository.incrementQuantity(id, quantity) == 0) {
+            throw new ProductNotFoundException(id);
+        }
+
+        Product updatedProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+        afterCommit(() -> {
+            inventoryEngine.invalidate(id);
+            priceIndex.updateStock(id, updatedProduct.getQuantity());
+            changeFeed.stockChanged(mapToProductResponse(updatedProduct));
+        });
+        log.info("Product quantity restored successfully. New quantity: {}", updatedProduct.getQuantity());
+
+        return mapToProductResponse(updatedProduct);
+    }
+
+    /**
+     * Loads the given products, keeping the order of the id list.
+     */
+    private List<ProductResponse> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return productRepository.findProductResponsesByIdIn(ids).stream()
+                .sorted(Comparator.comparing(product -> rank.get(product.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Defers side effects until the surrounding transaction commits, or runs them
+     * immediately when there is none.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private ProductResponse mapToProductResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
@@ -0,0 +1,234 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.ReservationRequest;
+import com.ecommerce.productservice.dto.ReservationResponse;
+import com.ecommerce.productservice.entity.StockReservation;
+import com.ecommerce.productservice.exception.ReservationNotFoundException;
+import com.ecommerce.productservice.repository.StockReservationRepository;
+import com.ecommerce.productservice.reservation.HashedTimingWheel;
+import com.ecommerce.productservice.service.ProductService;
+import com.ecommerce.productservice.service.ReservationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserving takes the stock immediately and reports the unit price it was taken at; a reservation
+ * that is neither confirmed nor released before its TTL runs out is expired by a hashed timing
+ * wheel and its stock is returned to the pool.
+ * <p>
+ * Open reservations are rows in {@code stock_reservations}, so any instance can confirm or release
+ * one, and a restarted instance reloads them onto its wheel instead of stranding their stock.
+ * The wheel only schedules expiry; deleting the row decides whether confirm, release or expiry wins.
+ * Release and expiry delete the row and return its stock in one transaction, so a failed restore
+ * leaves the reservation open rather than losing its units.
+ */
+@Service
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private static final String RESERVED = "RESERVED";
+    private static final String CONFIRMED = "CONFIRMED";
+    // How long an expiry whose stock could not be returned waits before it is tried again
+    private static final Duration EXPIRY_RETRY = Duration.ofSeconds(5);
+
+    private final ProductService productService;
+    private final StockReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultTtl;
+    private final Duration tick;
+    private final HashedTimingWheel<StockReservation> timingWheel;
+    // Expiries this instance has scheduled, by reservation id
+    private final Map<String, HashedTimingWheel.Timeout<StockReservation>> timeouts = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService ticker;
+
+    public ReservationServiceImpl(ProductService productService,
+                                  StockReservationRepository reservationRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${reservation.default-ttl:10m}") Duration defaultTtl,
+                                  @Value("${reservation.tick:100ms}") Duration tick,
+                                  @Value("${reservation.wheel-size:1024}") int wheelSize) {
+        this.productService = productService;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultTtl = defaultTtl;
+        this.tick = tick;
+        this.timingWheel = new HashedTimingWheel<>(wheelSize);
+    }
+
+    @PostConstruct
+    void start() {
+        recoverReservations();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = tick.toMillis();
+        ticker.scheduleAtFixedRate(this::expireDueReservations, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @Override
+    public ReservationResponse reserve(ReservationRequest request) {
+        log.info("Reserving {} units of product id: {}", request.getQuantity(), request.getProductId());
+
+        ProductResponse product = productService.reduceProductQuantity(request.getProductId(), request.getQuantity());
+
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : defaultTtl;
+        StockReservation reservation;
+        try {
+            reservation = reservationRepository.save(StockReservation.builder()
+                    .id(UUID.randomUUID().toString())
+                    .productId(request.getProductId())
+                    .quantity(request.getQuantity())
+                    .unitPrice(product.getPrice())
+                    .expiresAt(LocalDateTime.now().plus(ttl))
+                    .build());
+        } catch (RuntimeException ex) {
+            productService.restoreProductQuantity(request.getProductId(), request.getQuantity());
+            throw ex;
+        }
+
+        scheduleExpiry(reservation, ttl);
+        log.info("Reservation {} created, expires at: {}", reservation.getId(), reservation.getExpiresAt());
+
+        return mapToReservationResponse(reservation, RESERVED);
+    }
+
+    @Override
+    public ReservationResponse confirm(String reservationId) {
+        log.info("Confirming reservation: {}", reservationId);
+
+        StockReservation reservation = claim(reservationId);
+        cancelExpiry(reservationId);
+        log.info("Reservation {} confirmed", reservationId);
+
+        return mapToReservationResponse(reservation, CONFIRMED);
+    }
+
+    @Override
+    public void release(String reservationId) {
+        log.info("Releasing reservation: {}", reservationId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            StockReservation reservation = claim(reservationId);
+            productService.restoreProductQuantity(reservation.getProductId(), reservation.getQuantity());
+        });
+        cancelExpiry(reservationId);
+        log.info("Reservation {} released", reservationId);
+    }
+
+    /**
+     * Advances the timing wheel by one tick and returns the stock of every reservation that came due.
+     * One whose stock cannot be returned keeps its row and is put back on the wheel.
+     */
+    void expireDueReservations() {
+        for (StockReservation reservation : timingWheel.advance()) {
+            String reservationId = reservation.getId();
+            timeouts.remove(reservationId);
+            try {
+                boolean expired = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    if (reservationRepository.deleteReservation(reservationId) == 0) {
+                        return false;
+                    }
+                    productService.restoreProductQuantity(reservation.getProductId(), reservation.getQuantity());
+                    return true;
+                }));
+                if (expired) {
+                    log.info("Reservation {} expired, returned {} units of product id: {}",
+                            reservationId, reservation.getQuantity(), reservation.getProductId());
+                }
+            } catch (RuntimeException ex) {
+                log.error("Failed to return stock for expired reservation {}, retrying in {}",
+                        reservationId, EXPIRY_RETRY, ex);
+                scheduleExpiry(reservation, EXPIRY_RETRY);
+            }
+        }
+    }
+
+    /**
+     * Puts every open reservation on the wheel, for the time it has left; those already past
+     * their expiry come due on the next tick. Instances that load the same reservation race
+     * for its row like any other claim, so its stock is still returned once.
+     */
+    void recoverReservations() {
+        LocalDateTime now = LocalDateTime.now();
+        int recovered = 0;
+        for (StockReservation reservation : reservationRepository.findAll()) {
+            if (!timeouts.containsKey(reservation.getId())) {
+                scheduleExpiry(reservation, Duration.between(now, reservation.getExpiresAt()));
+                recovered++;
+            }
+        }
+        log.info("Recovered {} open reservations", recovered);
+    }
+
+    int openReservations() {
+        return timeouts.size();
+    }
+
+    private void scheduleExpiry(StockReservation reservation, Duration ttl) {
+        long ticks = ceilDiv(Math.max(ttl.toMillis(), 0), tick.toMillis());
+        timeouts.put(reservation.getId(), timingWheel.schedule(reservation, ticks));
+    }
+
+    /**
+     * Deleting the row is the single point that decides whether confirm, release or expiry wins
+     * for a reservation.
+     */
+    private StockReservation claim(String reservationId) {
+        StockReservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+        if (reservationRepository.deleteReservation(reservationId) == 0) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        return reservation;
+    }
+
+    /**
+     * Takes a claimed reservation off the wheel, once its deletion has committed.
+     */
+    private void cancelExpiry(String reservationId) {
+        HashedTimingWheel.Timeout<StockReservation> timeout = timeouts.remove(reservationId);
+        if (timeout != null) {
+            timingWheel.cancel(timeout);
+        }
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private ReservationResponse mapToReservationResponse(StockReservation reservation, String status) {
+        return ReservationResponse.builder()
+                .reservationId(reservation.getId())
+                .productId(reservation.getProductId())
+                .quantity(reservation.getQuantity())
+                .status(status)
+                .expiresAt(reservation.getExpiresAt())
+                .unitPrice(reservation.getUnitPrice())
+                .build();
+    }
+}
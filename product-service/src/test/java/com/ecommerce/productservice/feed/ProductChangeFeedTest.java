@@ -0,0 +1,114 @@
+package com.ecommerce.productservice.feed;
+
+import com.ecommerce.productservice.dto.ProductChangeEvent;
+import com.ecommerce.productservice.dto.ProductChangeFeedResponse;
+import com.ecommerce.productservice.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductChangeFeedTest {
+
+    private ProductChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ProductChangeFeed(4, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should number changes in order and resume after a given sequence")
+    void shouldNumberChangesInOrderAndResumeAfterSequence() {
+        feed.created(product(1L, 10));
+        feed.stockChanged(product(1L, 7));
+        feed.deleted(1L);
+
+        ProductChangeFeedResponse all = feed.read(0L, 100, Duration.ZERO);
+        ProductChangeFeedResponse rest = feed.read(1L, 100, Duration.ZERO);
+
+        assertThat(all.getChanges()).extracting(ProductChangeEvent::getType).containsExactly(
+                ProductChangeEvent.CREATED, ProductChangeEvent.STOCK_CHANGED, ProductChangeEvent.DELETED);
+        assertThat(all.getChanges()).extracting(ProductChangeEvent::getSequence).containsExactly(1L, 2L, 3L);
+        assertThat(all.getLastSequence()).isEqualTo(3L);
+        assertThat(rest.getChanges()).extracting(ProductChangeEvent::getSequence).containsExactly(2L, 3L);
+        assertThat(rest.getChanges().get(0).getProduct().getQuantity()).isEqualTo(7);
+        assertThat(rest.getChanges().get(1).getProduct()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should hand out at most the requested number of changes")
+    void shouldHandOutAtMostRequestedChanges() {
+        feed.created(product(1L, 10));
+        feed.created(product(2L, 10));
+        feed.created(product(3L, 10));
+
+        ProductChangeFeedResponse response = feed.read(0L, 2, Duration.ZERO);
+
+        assertThat(response.getChanges()).extracting(ProductChangeEvent::getProductId).containsExactly(1L, 2L);
+        assertThat(response.getLastSequence()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should give the starting position without changes when no sequence is given")
+    void shouldGiveStartingPositionWithoutSequence() {
+        feed.created(product(1L, 10));
+
+        ProductChangeFeedResponse response = feed.read(null, 100, Duration.ofSeconds(5));
+
+        assertThat(response.getChanges()).isEmpty();
+        assertThat(response.getLastSequence()).isEqualTo(1L);
+        assertThat(response.isReset()).isFalse();
+        assertThat(response.getEpoch()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Should ask a reader to reload once the changes after its position are gone")
+    void shouldAskReaderToReloadWhenBehindRetention() {
+        for (long id = 1; id <= 6; id++) {
+            feed.created(product(id, 10));
+        }
+
+        assertThat(feed.read(1L, 100, Duration.ZERO).isReset()).isTrue();
+        assertThat(feed.read(2L, 100, Duration.ZERO).getChanges())
+                .extracting(ProductChangeEvent::getSequence).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(feed.read(7L, 100, Duration.ZERO).isReset()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A caught-up reader should wait for the next change")
+    void caughtUpReaderShouldWaitForNextChange() throws Exception {
+        feed.created(product(1L, 10));
+
+        CompletableFuture<ProductChangeFeedResponse> poll =
+                CompletableFuture.supplyAsync(() -> feed.read(1L, 100, Duration.ofSeconds(5)));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(poll).isNotDone();
+
+        feed.updated(product(1L, 4));
+
+        ProductChangeFeedResponse response = poll.get(2, TimeUnit.SECONDS);
+        assertThat(response.getChanges()).extracting(ProductChangeEvent::getType)
+                .containsExactly(ProductChangeEvent.UPDATED);
+    }
+
+    @Test
+    @DisplayName("A caught-up reader should get an empty answer once the wait is over")
+    void caughtUpReaderShouldGetEmptyAnswerAfterWait() {
+        feed.created(product(1L, 10));
+
+        ProductChangeFeedResponse response = feed.read(1L, 100, Duration.ofMillis(50));
+
+        assertThat(response.getChanges()).isEmpty();
+        assertThat(response.isReset()).isFalse();
+    }
+
+    private static ProductResponse product(Long id, int quantity) {
+        return ProductResponse.builder().id(id).name("Product " + id).price(10.0).quantity(quantity).build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.ecommerce.productservice.inventory;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.exception.InventoryTimeoutException;
+import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises the single-writer inventory mode against H2 and compares it with the guarded
+ * JPA decrement on the same flash-sale workload.
+ */
+@DataJpaTest(properties = {
+        "inventory.single-writer.enabled=true",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(InventoryEngine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class InventoryEngineTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 4000;
+    private static final int INITIAL_STOCK = 1000;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should never oversell and should need fewer transactions than the JPA path under a flash sale")
+    void shouldNeverOversellUnderFlashSale() throws Exception {
+        Long engineProductId = saveProduct(INITIAL_STOCK);
+        Long jpaProductId = saveProduct(INITIAL_STOCK);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        int engineSucceeded = runConcurrently(() -> {
+            inventoryEngine.reduce(engineProductId, 1);
+            return true;
+        });
+        long engineNanos = System.nanoTime() - start;
+        long engineTransactions = statistics.getTransactionCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        int jpaSucceeded = runConcurrently(() -> productRepository.decrementQuantity(jpaProductId, 1) == 1);
+        long jpaNanos = System.nanoTime() - start;
+        long jpaTransactions = statistics.getTransactionCount();
+
+        log.info("Single-writer engine: {} ops/s in {} transactions, JPA guarded decrement: {} ops/s in {} transactions",
+                opsPerSecond(engineNanos), engineTransactions, opsPerSecond(jpaNanos), jpaTransactions);
+
+        assertThat(engineSucceeded).isEqualTo(INITIAL_STOCK);
+        assertThat(jpaSucceeded).isEqualTo(INITIAL_STOCK);
+        assertThat(productRepository.findById(engineProductId).orElseThrow().getQuantity()).isZero();
+        // Every JPA attempt takes the row lock in its own transaction; the engine commits once per
+        // batch and turns rejected attempts away from memory, so it can never need more than one
+        // transaction per unit sold plus the initial load
+        assertThat(jpaTransactions).isGreaterThanOrEqualTo(ATTEMPTS);
+        assertThat(engineTransactions).isLessThanOrEqualTo(INITIAL_STOCK + 1L);
+    }
+
+    @Test
+    @DisplayName("Should pick up stock changed outside the engine after invalidation")
+    void shouldPickUpRestockAfterInvalidation() {
+        Long id = saveProduct(5);
+        inventoryEngine.reduce(id, 5);
+
+        Product product = productRepository.findById(id).orElseThrow();
+        product.setQuantity(50);
+        productRepository.save(product);
+        inventoryEngine.invalidate(id);
+
+        assertThat(inventoryEngine.reduce(id, 40).getQuantity()).isEqualTo(10);
+        assertThat(productRepository.findById(id).orElseThrow().getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should reject decrements for missing products or insufficient stock")
+    void shouldRejectInvalidDecrements() {
+        Long id = saveProduct(2);
+
+        assertThatThrownBy(() -> inventoryEngine.reduce(id, 3))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThatThrownBy(() -> inventoryEngine.reduce(Long.MAX_VALUE, 1))
+                .isInstanceOf(ProductNotFoundException.class);
+        assertThat(productRepository.findById(id).orElseThrow().getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should withdraw a decrement the writer has not picked up in time")
+    void shouldWithdrawDecrementAfterTimeout() throws Exception {
+        Long id = saveProduct(5);
+        InventoryEngine stalled = new InventoryEngine(productRepository, transactionManager,
+                true, 16, 16, 100, Duration.ofMillis(50));
+
+        // The writer is not running yet, so nothing can pick the decrement up
+        assertThatThrownBy(() -> stalled.reduce(id, 2))
+                .isInstanceOf(InventoryTimeoutException.class);
+
+        stalled.start();
+        assertThat(stalled.reduce(id, 1).getQuantity()).isEqualTo(4);
+        stalled.stop();
+        assertThat(productRepository.findById(id).orElseThrow().getQuantity()).isEqualTo(4);
+    }
+
+    private Long saveProduct(int quantity) {
+        return productRepository.save(Product.builder()
+                .name("Flash Sale Item")
+                .price(999.0)
+                .quantity(quantity)
+                .build()).getId();
+    }
+
+    private int runConcurrently(Callable<Boolean> attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>(ATTEMPTS);
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return attempt.call();
+                    } catch (RuntimeException ex) {
+                        return false;
+                    }
+                }));
+            }
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long opsPerSecond(long elapsedNanos) {
+        return ATTEMPTS * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives many parallel stock decrements against a single product to verify that the
+ * guarded UPDATE never oversells. Its throughput is judged by what it costs the database:
+ * Hibernate's statement count, one per attempt against two for the old read-modify-write
+ * approach. Wall-clock rates are only logged.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class ProductRepositoryConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 4000;
+    private static final int INITIAL_STOCK = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Guarded decrement should never oversell and take one statement per attempt")
+    void guardedDecrementShouldNeverOversell() throws Exception {
+        Long id = saveProduct();
+        Statistics statistics = statistics();
+
+        long start = System.nanoTime();
+        int succeeded = runConcurrently(() -> productRepository.decrementQuantity(id, 1) == 1);
+        long elapsedNanos = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount();
+
+        log.info("Guarded decrement: {} attempts in {} ms ({} ops/s), {} statements",
+                ATTEMPTS, elapsedNanos / 1_000_000, opsPerSecond(elapsedNanos), statements);
+
+        assertThat(succeeded).isEqualTo(INITIAL_STOCK);
+        assertThat(statements).isEqualTo(ATTEMPTS);
+        assertThat(productRepository.findById(id)).get()
+                .extracting(Product::getQuantity)
+                .isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Decrement-and-get should hand each winner its own new quantity, read only after a decrement")
+    void decrementAndGetShouldReadBackOwnQuantity() throws Exception {
+        Long id = saveProduct();
+        Queue<Integer> quantities = new ConcurrentLinkedQueue<>();
+        Statistics statistics = statistics();
+
+        int succeeded = runConcurrently(() -> productRepository.decrementQuantityAndGet(id, 1)
+                .map(product -> quantities.add(product.getQuantity()))
+                .orElse(false));
+
+        assertThat(succeeded).isEqualTo(INITIAL_STOCK);
+        // One UPDATE per attempt, and a read for each that took stock
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(ATTEMPTS + INITIAL_STOCK);
+        // Every winner saw the stock its own decrement left, so no two saw the same
+        assertThat(quantities).doesNotHaveDuplicates().hasSize(INITIAL_STOCK)
+                .allSatisfy(quantity -> assertThat(quantity).isBetween(0, INITIAL_STOCK - 1));
+    }
+
+    @Test
+    @DisplayName("Read-modify-write baseline for throughput comparison")
+    void readModifyWriteBaseline() throws Exception {
+        Long id = saveProduct();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Statistics statistics = statistics();
+
+        long start = System.nanoTime();
+        int succeeded = runConcurrently(() -> Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Product product = productRepository.findById(id).orElseThrow();
+            if (product.getQuantity() < 1) {
+                return false;
+            }
+            product.setQuantity(product.getQuantity() - 1);
+            productRepository.save(product);
+            return true;
+        })));
+        long elapsedNanos = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount();
+
+        int remaining = productRepository.findById(id).orElseThrow().getQuantity();
+        log.info("Read-modify-write: {} attempts in {} ms ({} ops/s), {} statements, {} acknowledged, {} lost updates",
+                ATTEMPTS, elapsedNanos / 1_000_000, opsPerSecond(elapsedNanos), statements,
+                succeeded, succeeded - (INITIAL_STOCK - remaining));
+
+        assertThat(remaining).isBetween(0, INITIAL_STOCK);
+        // A read for every attempt plus a write for every decrement that landed
+        assertThat(statements).isGreaterThanOrEqualTo(ATTEMPTS + INITIAL_STOCK - remaining);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Long saveProduct() {
+        return productRepository.save(Product.builder()
+                .name("Flash Sale Item")
+                .price(999.0)
+                .quantity(INITIAL_STOCK)
+                .build()).getId();
+    }
+
+    private int runConcurrently(Callable<Boolean> attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>(ATTEMPTS);
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return attempt.call();
+                    } catch (Exception ex) {
+                        return false;
+                    }
+                }));
+            }
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long opsPerSecond(long elapsedNanos) {
+        return ATTEMPTS * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+}
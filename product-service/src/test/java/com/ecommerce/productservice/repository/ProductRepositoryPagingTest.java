@@ -0,0 +1,166 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.dto.ProductResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks a large catalog page by page and as a stream, and checks that what either holds at a time
+ * is bounded by the page, not the table: no entity is loaded into the persistence context, every
+ * page is one statement of at most {@code PAGE_SIZE} rows, and a page deep in the table costs
+ * about what the first one does.
+ * <p>
+ * The cached context is shared with tests that commit rows of their own, so ids come from the
+ * product sequence and the walk starts below the first row inserted here.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Slf4j
+class ProductRepositoryPagingTest {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 1_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long existingRows;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        existingRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, name, price, quantity) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        statement.setString(1, "Paged product " + (i + 1));
+                        statement.setDouble(2, 10.0 + i % 1_000);
+                        statement.setInt(3, i % 50);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ROWS;
+                    }
+                });
+        // Sequence values are above every id already handed out, so the rows here are the last ROWS
+        start = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) - 1 FROM products WHERE name LIKE 'Paged product %'", Long.class);
+    }
+
+    @Test
+    @DisplayName("Keyset pages over a large table should each hold one page and nothing else")
+    void keysetPagesShouldStayBoundedByPageSize() {
+        Statistics statistics = statistics();
+        long after = start;
+        int pages = 0;
+        int rows = 0;
+        List<ProductResponse> page;
+        do {
+            page = productRepository.findProductResponsesAfter(after, Limit.of(PAGE_SIZE));
+            assertThat(page.size()).isLessThanOrEqualTo(PAGE_SIZE);
+            for (ProductResponse product : page) {
+                assertThat(product.getId()).isGreaterThan(after);
+                after = product.getId();
+            }
+            rows += page.size();
+            pages++;
+        } while (page.size() == PAGE_SIZE);
+
+        assertThat(rows).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(managedEntities()).isZero();
+    }
+
+    @Test
+    @DisplayName("A page deep in a large table should cost about what the first page does")
+    void deepPageShouldCostAboutAsMuchAsFirstPage() {
+        long lastPageAfter = jdbcTemplate.queryForObject(
+                "SELECT id FROM products WHERE id > ? ORDER BY id OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY",
+                Long.class, start, ROWS - PAGE_SIZE - 1);
+        for (int i = 0; i < 20; i++) {
+            productRepository.findProductResponsesAfter(start, Limit.of(PAGE_SIZE));
+            productRepository.findProductResponsesAfter(lastPageAfter, Limit.of(PAGE_SIZE));
+        }
+
+        long firstPageBytes = allocatedBytes(start);
+        long lastPageBytes = allocatedBytes(lastPageAfter);
+        log.info("Allocated per page of {} rows out of {}: first {} KB, last {} KB",
+                PAGE_SIZE, ROWS, firstPageBytes / 1024, lastPageBytes / 1024);
+
+        assertThat(lastPageBytes).isLessThan(2 * firstPageBytes);
+    }
+
+    @Test
+    @DisplayName("Streaming a large table should hand rows over without managing any of them")
+    void streamShouldNotAccumulateEntities() {
+        Statistics statistics = statistics();
+        AtomicLong streamed = new AtomicLong();
+        AtomicLong maxManaged = new AtomicLong();
+
+        try (Stream<ProductResponse> products = productRepository.streamAllProductResponses()) {
+            products.forEach(product -> {
+                if (streamed.incrementAndGet() % PAGE_SIZE == 0) {
+                    maxManaged.accumulateAndGet(managedEntities(), Math::max);
+                }
+            });
+        }
+
+        assertThat(streamed.get()).isEqualTo(existingRows + ROWS);
+        assertThat(maxManaged.get()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private long managedEntities() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    private long allocatedBytes(long after) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        assertThat(productRepository.findProductResponsesAfter(after, Limit.of(PAGE_SIZE))).hasSize(PAGE_SIZE);
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+}
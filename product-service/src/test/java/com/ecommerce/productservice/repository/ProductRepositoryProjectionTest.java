@@ -0,0 +1,109 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.entity.Product;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the DTO projection queries and compares them with loading managed entities and
+ * copying them field by field, per 10k rows.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Slf4j
+class ProductRepositoryProjectionTest {
+
+    private static final int ROWS = 10_000;
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            products.add(Product.builder()
+                    .name("Product " + i)
+                    .price(10.0 + i)
+                    .quantity(i % 50)
+                    .build());
+        }
+        productRepository.saveAll(products);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should read keyset pages straight into response shapes")
+    void shouldReadKeysetPagesIntoResponses() {
+        List<ProductResponse> firstPage = productRepository.findProductResponsesAfter(0L, Limit.of(100));
+        List<ProductResponse> secondPage = productRepository.findProductResponsesAfter(
+                firstPage.get(99).getId(), Limit.of(100));
+
+        assertThat(firstPage).hasSize(100);
+        assertThat(secondPage).hasSize(100);
+        assertThat(secondPage.get(0).getId()).isGreaterThan(firstPage.get(99).getId());
+        assertThat(secondPage.get(0).getName()).isEqualTo("Product 100");
+    }
+
+    @Test
+    @DisplayName("Projection should allocate less than entity hydration per 10k rows")
+    void projectionShouldAllocateLessThanEntityHydration() {
+        Supplier<List<ProductResponse>> entityPath = () -> productRepository.findAll().stream()
+                .map(p -> new ProductResponse(p.getId(), p.getName(), p.getPrice(), p.getQuantity()))
+                .collect(Collectors.toList());
+        Supplier<List<ProductResponse>> projectionPath = productRepository::findAllProductResponses;
+
+        Measurement entities = measure(entityPath);
+        Measurement projections = measure(projectionPath);
+
+        log.info("Per {} rows - entities: {} KB, {} ms; projection: {} KB, {} ms",
+                ROWS, entities.allocatedBytes / 1024, entities.nanos / 1_000_000,
+                projections.allocatedBytes / 1024, projections.nanos / 1_000_000);
+
+        assertThat(projections.allocatedBytes).isLessThan(entities.allocatedBytes);
+    }
+
+    private Measurement measure(Supplier<List<ProductResponse>> path) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(path.get()).hasSize(ROWS);
+            entityManager.clear();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.get();
+            entityManager.clear();
+        }
+        return new Measurement(
+                (allocatedBytes() - allocatedBefore) / ITERATIONS,
+                (System.nanoTime() - start) / ITERATIONS);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    private record Measurement(long allocatedBytes, long nanos) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the in-memory price index with the equivalent JPA range query on the same rows. The
+ * cost is checked by what each path does, statements sent and bytes allocated, rather than by
+ * wall-clock time, which depends on the machine running the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Slf4j
+class ProductPriceIndexBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int QUERIES = 500;
+    private static final int LIMIT = 50;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ProductPriceIndex priceIndex = new ProductPriceIndex();
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            products.add(Product.builder()
+                    .name("Product " + i)
+                    .price((double) random.nextInt(100_000) / 100)
+                    .quantity(random.nextInt(4))
+                    .build());
+        }
+        productRepository.saveAll(products)
+                .forEach(p -> priceIndex.index(p.getId(), p.getPrice(), p.getQuantity()));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Price index should match the JPA query without touching the database")
+    void priceIndexShouldMatchJpaQueryWithoutTouchingDatabase() {
+        Random random = new Random(7);
+        double[] minPrices = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            minPrices[i] = random.nextInt(900);
+        }
+
+        for (double min : minPrices) {
+            List<Long> fromDatabase = productRepository
+                    .findProductResponsesByPriceRange(min, min + 50, true, Limit.of(LIMIT)).stream()
+                    .map(ProductResponse::getId)
+                    .collect(Collectors.toList());
+            assertThat(priceIndex.filter(min, min + 50, true, LIMIT)).isEqualTo(fromDatabase);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Statistics statistics = statistics();
+
+        long start = System.nanoTime();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        for (double min : minPrices) {
+            productRepository.findProductResponsesByPriceRange(min, min + 50, true, Limit.of(LIMIT));
+        }
+        long jpaBytes = (threads.getCurrentThreadAllocatedBytes() - allocated) / QUERIES;
+        long jpaMicros = (System.nanoTime() - start) / QUERIES / 1_000;
+        long jpaStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        allocated = threads.getCurrentThreadAllocatedBytes();
+        for (double min : minPrices) {
+            priceIndex.filter(min, min + 50, true, LIMIT);
+        }
+        long indexBytes = (threads.getCurrentThreadAllocatedBytes() - allocated) / QUERIES;
+        long indexMicros = (System.nanoTime() - start) / QUERIES / 1_000;
+
+        log.info("Price filter over {} rows - JPA query: {} us, {} bytes; price index: {} us, {} bytes per query",
+                ROWS, jpaMicros, jpaBytes, indexMicros, indexBytes);
+
+        assertThat(jpaStatements).isEqualTo(QUERIES);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(indexBytes).isLessThan(jpaBytes);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.productservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductPriceIndexTest {
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex();
+    }
+
+    @Test
+    @DisplayName("Should return products in the range cheapest first, ties by id")
+    void shouldReturnRangeCheapestFirst() {
+        index.index(1L, 30.0, 5);
+        index.index(2L, 10.0, 5);
+        index.index(3L, 20.0, 5);
+        index.index(4L, 20.0, 5);
+        index.index(5L, 99.0, 5);
+
+        assertThat(index.filter(10.0, 30.0, false, 10)).containsExactly(2L, 3L, 4L, 1L);
+        assertThat(index.filter(15.0, 25.0, false, 10)).containsExactly(3L, 4L);
+        assertThat(index.filter(15.0, 25.0, false, 1)).containsExactly(3L);
+        assertThat(index.filter(100.0, 200.0, false, 10)).isEmpty();
+        assertThat(index.filter(50.0, 10.0, false, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should resume after an earlier answer without repeating it")
+    void shouldResumeAfterEarlierAnswer() {
+        index.index(1L, 30.0, 5);
+        index.index(2L, 10.0, 5);
+        index.index(3L, 20.0, 0);
+        index.index(4L, 20.0, 5);
+        index.index(5L, 20.0, 5);
+
+        ProductPriceIndex.Matches first = index.filterAfter(10.0, 30.0, true, null, 2);
+        assertThat(first.ids()).containsExactly(2L, 4L);
+
+        ProductPriceIndex.Matches second = index.filterAfter(10.0, 30.0, true, first, 2);
+        assertThat(second.ids()).containsExactly(5L, 1L);
+        assertThat(index.filterAfter(10.0, 30.0, true, second, 2).ids()).isEmpty();
+
+        // An earlier answer below the range does not widen it
+        assertThat(index.filterAfter(15.0, 30.0, true, index.filterAfter(0.0, 10.0, true, null, 1), 10).ids())
+                .containsExactly(4L, 5L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should track stock changes without moving products")
+    void shouldTrackStockChanges() {
+        index.index(1L, 10.0, 0);
+        index.index(2L, 20.0, 3);
+
+        assertThat(index.filter(0.0, 100.0, true, 10)).containsExactly(2L);
+
+        index.updateStock(1L, 4);
+        index.updateStock(2L, 0);
+        index.updateStock(99L, 5);
+
+        assertThat(index.filter(0.0, 100.0, true, 10)).containsExactly(1L);
+        assertThat(index.filter(0.0, 100.0, false, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should move products on price change and reuse slots after removal")
+    void shouldMoveOnPriceChangeAndReuseSlots() {
+        index.index(1L, 10.0, 1);
+        index.index(2L, 20.0, 1);
+        index.index(1L, 30.0, 1);
+
+        assertThat(index.filter(0.0, 100.0, false, 10)).containsExactly(2L, 1L);
+
+        index.remove(2L);
+        index.index(3L, 5.0, 0);
+
+        assertThat(index.filter(0.0, 100.0, false, 10)).containsExactly(3L, 1L);
+        assertThat(index.filter(0.0, 100.0, true, 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should agree with a brute-force scan after random writes")
+    void shouldAgreeWithBruteForceScan() {
+        Random random = new Random(7);
+        double[] prices = new double[500];
+        int[] quantities = new int[500];
+        boolean[] present = new boolean[500];
+
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(prices.length);
+            if (random.nextInt(10) == 0) {
+                index.remove((long) id);
+                present[id] = false;
+            } else if (present[id] && random.nextBoolean()) {
+                quantities[id] = random.nextInt(3);
+                index.updateStock((long) id, quantities[id]);
+            } else {
+                prices[id] = random.nextInt(100);
+                quantities[id] = random.nextInt(3);
+                index.index((long) id, prices[id], quantities[id]);
+                present[id] = true;
+            }
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for (int price = 25; price <= 75; price++) {
+            for (int id = 0; id < prices.length; id++) {
+                if (present[id] && prices[id] == price && quantities[id] > 0) {
+                    expected.add((long) id);
+                }
+            }
+        }
+        assertThat(index.filter(25.0, 75.0, true, Integer.MAX_VALUE)).isEqualTo(expected);
+    }
+}
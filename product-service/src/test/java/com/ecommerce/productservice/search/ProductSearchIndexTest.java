@@ -0,0 +1,112 @@
+package com.ecommerce.productservice.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class ProductSearchIndexTest {
+
+    private static final String[] ADJECTIVES = {
+            "red", "blue", "green", "black", "white", "silver", "gold", "compact", "wireless", "smart",
+            "portable", "premium", "classic", "ultra", "mini", "pro", "eco", "rugged", "slim", "heavy"
+    };
+    private static final String[] NOUNS = {
+            "laptop", "phone", "tablet", "monitor", "keyboard", "mouse", "headphones", "speaker", "camera", "charger",
+            "router", "printer", "watch", "drone", "lamp", "chair", "desk", "backpack", "bottle", "jacket"
+    };
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+    }
+
+    @Test
+    @DisplayName("Should match every query term as a prefix")
+    void shouldMatchEveryQueryTermAsPrefix() {
+        index.index(1L, "Gaming Laptop 15\"");
+        index.index(2L, "Laptop Stand");
+        index.index(3L, "Gaming Mouse");
+
+        assertThat(index.search("lap", 10)).containsExactly(1L, 2L);
+        assertThat(index.search("GAM lap", 10)).containsExactly(1L);
+        assertThat(index.search("gaming", 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("keyboard", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the index current on rename and removal")
+    void shouldKeepIndexCurrentOnRenameAndRemoval() {
+        index.index(1L, "Gaming Laptop");
+        index.index(1L, "Office Chair");
+        index.index(2L, "Office Desk");
+
+        assertThat(index.search("laptop", 10)).isEmpty();
+        assertThat(index.search("office", 10)).containsExactly(1L, 2L);
+
+        index.remove(2L);
+
+        assertThat(index.search("office", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should respect the result limit and not return duplicates")
+    void shouldRespectLimitWithoutDuplicates() {
+        index.index(1L, "Red Redwood Table");
+        index.index(2L, "Red Chair");
+        index.index(3L, "Red Lamp");
+
+        assertThat(index.search("red", 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("red", 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should drive a query with a broad prefix from its narrowest term")
+    void shouldDriveBroadPrefixFromNarrowestTerm() {
+        for (long id = 1; id <= 10_000; id++) {
+            index.index(id, (id % 1_000 == 0 ? "Drone " : "Lamp ") + id);
+        }
+
+        assertThat(index.search("1 dro", 20)).containsExactly(1_000L, 10_000L);
+        assertThat(index.search("dro 1", 20)).containsExactly(1_000L, 10_000L);
+        assertThat(index.search("1 lamp", 3)).containsExactly(1L, 10L, 100L);
+        assertThat(index.search("1 chair", 20)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should answer queries in under a millisecond on a million products")
+    void shouldAnswerQueriesQuicklyOnMillionProducts() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 1_000_000; id++) {
+            index.index(id, ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + id);
+        }
+        String[] queries = {"lap", "wireless head", "red lamp", "gold dro", "999999", "pro cam", "slim"};
+
+        for (int i = 0; i < 2_000; i++) {
+            index.search(queries[i % queries.length], 20);
+        }
+        int runs = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            index.search(queries[i % queries.length], 20);
+        }
+        long averageMicros = (System.nanoTime() - start) / runs / 1_000;
+        log.info("Average search latency on {} products: {} us", index.size(), averageMicros);
+
+        List<Long> hits = index.search("red lamp", 20);
+        assertThat(hits).hasSize(20);
+        assertThat(index.search("999999", 20)).containsExactly(999_999L);
+        assertThat(averageMicros).isLessThan(1_000);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.dto.ImportResponse;
+import com.ecommerce.productservice.importer.ProductRowReader;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.ProductSearchIndex;
+import com.ecommerce.productservice.service.ProductImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "product.import.batch-size=100"
+})
+@Slf4j
+class ProductImportServiceImplTest {
+
+    private static final int ROWS = 50_000;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should import a streamed CSV body in batches and report throughput")
+    void shouldImportStreamedCsvInBatches() {
+        ImportResponse response = productImportService.importProducts(
+                generatedCsv(ROWS), ProductRowReader.Format.CSV);
+
+        log.info("Imported {} rows in {} ms ({} rows/s)",
+                response.getImported(), response.getDurationMillis(), response.getRowsPerSecond());
+
+        assertThat(response.getImported()).isEqualTo(ROWS);
+        assertThat(response.getRejected()).isZero();
+        assertThat(response.getRowsPerSecond()).isPositive();
+        assertThat(productRepository.count()).isEqualTo(ROWS);
+        assertThat(searchIndex.search("imported 49999", 10)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should skip rows that fail to parse or validate and report their line numbers")
+    void shouldSkipInvalidRowsAndReportLineNumbers() {
+        String csv = """
+                name,price,quantity
+                "Desk, oak",120.5,3
+                Chair,abc,1
+
+                Lamp,15.0,-2
+                "Lamp ""XL""\",25.0,4
+                Shelf,30.0
+                """;
+
+        ImportResponse response = productImportService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductRowReader.Format.CSV);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(3);
+        assertThat(response.getErrors()).hasSize(3);
+        assertThat(response.getErrors().get(0)).startsWith("line 3:");
+        assertThat(response.getErrors().get(1)).isEqualTo("line 5: Product quantity must be zero or positive");
+        assertThat(response.getErrors().get(2)).startsWith("line 7:");
+        assertThat(productRepository.findAll())
+                .extracting("name")
+                .containsExactlyInAnyOrder("Desk, oak", "Lamp \"XL\"");
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows")
+    void shouldImportNdjsonRows() {
+        String ndjson = """
+                {"name":"Monitor","price":9000.0,"quantity":4}
+                {"name":"","price":10.0,"quantity":1}
+                {"name":"Webcam","price":2500.0,"quantity":0}
+                not json
+                """;
+
+        ImportResponse response = productImportService.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ProductRowReader.Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+
+    /**
+     * Produces the CSV body lazily, one line at a time, like a client upload would.
+     */
+    private static InputStream generatedCsv(int rows) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int row = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String line = row < 0
+                        ? "name,price,quantity\n"
+                        : "Imported " + row + "," + (10.0 + row % 1000) + "," + (row % 20) + "\n";
+                row++;
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.config.CacheConfig;
+import com.ecommerce.productservice.dto.ProductRequest;
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+class ProductServiceCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache and record hits")
+    void shouldServeRepeatedLookupsFromCache() {
+        Long id = createProduct(10).getId();
+        double hitsBefore = cacheHits();
+
+        productService.getProductById(id);
+        productService.getProductById(id);
+
+        assertThat(cacheHits() - hitsBefore).isEqualTo(1.0);
+        assertThat(productsCache().get(id)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached product on update, stock reduction and delete")
+    void shouldInvalidateCachedProductOnWrites() {
+        Long id = createProduct(10).getId();
+
+        productService.getProductById(id);
+        productService.updateProduct(id, ProductRequest.builder()
+                .name("Laptop Pro").price(60000.0).quantity(10).build());
+        assertThat(productsCache().get(id)).isNull();
+        assertThat(productService.getProductById(id).getName()).isEqualTo("Laptop Pro");
+
+        productService.reduceProductQuantity(id, 4);
+        assertThat(productsCache().get(id)).isNull();
+        assertThat(productService.getProductById(id).getQuantity()).isEqualTo(6);
+
+        productService.deleteProduct(id);
+        assertThat(productsCache().get(id)).isNull();
+    }
+
+    private ProductResponse createProduct(int quantity) {
+        return productService.createProduct(ProductRequest.builder()
+                .name("Laptop")
+                .price(50000.0)
+                .quantity(quantity)
+                .build());
+    }
+
+    private Cache productsCache() {
+        return cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.PRODUCTS_CACHE)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
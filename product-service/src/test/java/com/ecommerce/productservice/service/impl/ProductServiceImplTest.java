@@ -1,11 +1,22 @@
 package com.ecommerce.productservice.service.impl;
 
+import com.ecommerce.dto.CursorPageResponse;
 import com.ecommerce.productservice.dto.ProductRequest;
 import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.StockBatchResponse;
+import com.ecommerce.productservice.dto.StockLineRequest;
+import com.ecommerce.productservice.dto.StockLineResult;
 import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.StockDeduction;
 import com.ecommerce.productservice.exception.InsufficientStockException;
 import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.exception.StockBatchRejectedException;
+import com.ecommerce.productservice.feed.ProductChangeFeed;
+import com.ecommerce.productservice.inventory.InventoryEngine;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.repository.StockDeductionRepository;
+import com.ecommerce.productservice.search.ProductPriceIndex;
+import com.ecommerce.productservice.search.ProductSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,14 +24,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +48,24 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private InventoryEngine inventoryEngine;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductPriceIndex priceIndex;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ProductChangeFeed changeFeed;
+
+    @Mock
+    private StockDeductionRepository stockDeductionRepository;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -63,12 +100,15 @@ class ProductServiceImplTest {
         assertThat(response.getPrice()).isEqualTo(50000.0);
         assertThat(response.getQuantity()).isEqualTo(10);
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(searchIndex, times(1)).index(1L, "Laptop");
+        verify(priceIndex, times(1)).index(1L, 50000.0, 10);
+        verify(changeFeed, times(1)).created(response);
     }
 
     @Test
     @DisplayName("Should return all products")
     void shouldReturnAllProducts() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
+        when(productRepository.findAllProductResponses()).thenReturn(List.of(productResponse(product)));
 
         List<ProductResponse> responses = productService.getAllProducts();
 
@@ -76,6 +116,42 @@ class ProductServiceImplTest {
         assertThat(responses.get(0).getName()).isEqualTo("Laptop");
     }
 
+    @Test
+    @DisplayName("Should return keyset page with next cursor when page is full")
+    void shouldReturnKeysetPageWithNextCursor() {
+        Product second = Product.builder().id(2L).name("Phone").price(20000.0).quantity(5).build();
+        when(productRepository.findProductResponsesAfter(0L, Limit.of(2)))
+                .thenReturn(List.of(productResponse(product), productResponse(second)));
+
+        CursorPageResponse<ProductResponse> page = productService.getProductsPage(null, 2);
+
+        assertThat(page.getItems()).extracting(ProductResponse::getId).containsExactly(1L, 2L);
+        assertThat(page.getNextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should return last keyset page without next cursor")
+    void shouldReturnLastKeysetPageWithoutNextCursor() {
+        when(productRepository.findProductResponsesAfter(0L, Limit.of(2)))
+                .thenReturn(List.of(productResponse(product)));
+
+        CursorPageResponse<ProductResponse> page = productService.getProductsPage(0L, 2);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should stream products to the consumer")
+    void shouldStreamProductsToConsumer() {
+        when(productRepository.streamAllProductResponses()).thenReturn(Stream.of(productResponse(product)));
+        List<ProductResponse> streamed = new ArrayList<>();
+
+        productService.streamAllProducts(streamed::add);
+
+        assertThat(streamed).extracting(ProductResponse::getName).containsExactly("Laptop");
+    }
+
     @Test
     @DisplayName("Should return product by id")
     void shouldReturnProductById() {
@@ -87,6 +163,73 @@ class ProductServiceImplTest {
         assertThat(response.getName()).isEqualTo("Laptop");
     }
 
+    @Test
+    @DisplayName("Should return search results in index order")
+    void shouldReturnSearchResultsInIndexOrder() {
+        Product phone = Product.builder().id(2L).name("Laptop Stand").price(2000.0).quantity(5).build();
+        when(searchIndex.search("lap", 20)).thenReturn(List.of(2L, 1L));
+        when(productRepository.findProductResponsesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(productResponse(product), productResponse(phone)));
+
+        List<ProductResponse> results = productService.searchProducts("lap", 20);
+
+        assertThat(results).extracting(ProductResponse::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should fetch several products in one query, in request order, without duplicates")
+    void shouldFetchProductsByIdsInRequestOrder() {
+        ProductResponse mouse = new ProductResponse(2L, "Mouse", 500.0, 5);
+        when(productRepository.findProductResponsesByIdIn(List.of(2L, 1L, 99L)))
+                .thenReturn(List.of(productResponse(product), mouse));
+
+        List<ProductResponse> results = productService.getProductsByIds(List.of(2L, 1L, 2L, 99L));
+
+        assertThat(results).extracting(ProductResponse::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should not query the database when search has no hits")
+    void shouldNotQueryDatabaseWhenSearchHasNoHits() {
+        when(searchIndex.search("zzz", 20)).thenReturn(List.of());
+
+        assertThat(productService.searchProducts("zzz", 20)).isEmpty();
+        verify(productRepository, never()).findProductResponsesByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should drop filter hits that no longer match the database")
+    void shouldDropFilterHitsThatNoLongerMatch() {
+        Product soldOut = Product.builder().id(2L).name("Mouse").price(45000.0).quantity(0).build();
+        when(priceIndex.filterAfter(eq(40000.0), eq(60000.0), eq(true), isNull(), eq(50)))
+                .thenReturn(new ProductPriceIndex.Matches(List.of(2L, 1L), 50000.0, 1L));
+        when(productRepository.findProductResponsesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(productResponse(product), productResponse(soldOut)));
+
+        List<ProductResponse> results = productService.filterProducts(40000.0, 60000.0, true, 50);
+
+        assertThat(results).extracting(ProductResponse::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should fill the filter page past hits that no longer match")
+    void shouldFillFilterPagePastDroppedHits() {
+        Product soldOut = Product.builder().id(2L).name("Mouse").price(45000.0).quantity(0).build();
+        Product monitor = Product.builder().id(3L).name("Monitor").price(55000.0).quantity(4).build();
+        ProductPriceIndex.Matches first = new ProductPriceIndex.Matches(List.of(2L, 1L), 50000.0, 1L);
+        when(priceIndex.filterAfter(eq(40000.0), eq(60000.0), eq(true), isNull(), eq(2))).thenReturn(first);
+        when(priceIndex.filterAfter(40000.0, 60000.0, true, first, 1))
+                .thenReturn(new ProductPriceIndex.Matches(List.of(3L), 55000.0, 3L));
+        when(productRepository.findProductResponsesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(productResponse(product), productResponse(soldOut)));
+        when(productRepository.findProductResponsesByIdIn(List.of(3L)))
+                .thenReturn(List.of(productResponse(monitor)));
+
+        List<ProductResponse> results = productService.filterProducts(40000.0, 60000.0, true, 2);
+
+        assertThat(results).extracting(ProductResponse::getId).containsExactly(1L, 3L);
+    }
+
     @Test
     @DisplayName("Should throw ProductNotFoundException when product not found")
     void shouldThrowProductNotFoundExceptionWhenProductNotFound() {
@@ -100,17 +243,36 @@ class ProductServiceImplTest {
     @Test
     @DisplayName("Should reduce quantity successfully")
     void shouldReduceQuantitySuccessfully() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        product.setQuantity(7);
+        when(productRepository.decrementQuantityAndGet(1L, 3)).thenReturn(Optional.of(product));
 
-        productService.reduceProductQuantity(1L, 3);
+        ProductResponse response = productService.reduceProductQuantity(1L, 3);
 
-        verify(productRepository, times(1)).save(any(Product.class));
+        assertThat(response.getQuantity()).isEqualTo(7);
+        verify(productRepository, times(1)).decrementQuantityAndGet(1L, 3);
+        verify(productRepository, never()).findById(anyLong());
+        verify(priceIndex, times(1)).updateStock(1L, 7);
+        verify(changeFeed, times(1)).stockChanged(response);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    @DisplayName("Should reduce quantity through inventory engine when enabled")
+    void shouldReduceQuantityThroughInventoryEngineWhenEnabled() {
+        product.setQuantity(7);
+        when(inventoryEngine.isEnabled()).thenReturn(true);
+        when(inventoryEngine.reduce(1L, 3)).thenReturn(product);
+
+        ProductResponse response = productService.reduceProductQuantity(1L, 3);
+
+        assertThat(response.getQuantity()).isEqualTo(7);
+        verify(productRepository, never()).decrementQuantityAndGet(anyLong(), anyInt());
     }
 
     @Test
     @DisplayName("Should throw InsufficientStockException when not enough stock")
     void shouldThrowInsufficientStockExceptionWhenNotEnoughStock() {
+        when(productRepository.decrementQuantityAndGet(1L, 100)).thenReturn(Optional.empty());
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
 
         assertThatThrownBy(() -> productService.reduceProductQuantity(1L, 100))
@@ -118,6 +280,92 @@ class ProductServiceImplTest {
                 .hasMessageContaining("Insufficient stock");
     }
 
+    @Test
+    @DisplayName("Should throw ProductNotFoundException when reducing stock of non-existent product")
+    void shouldThrowProductNotFoundExceptionWhenReducingNonExistentProduct() {
+        when(productRepository.decrementQuantityAndGet(99L, 1)).thenReturn(Optional.empty());
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.reduceProductQuantity(99L, 1))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should apply every line of a stock batch, locking rows in id order")
+    void shouldApplyEveryLineOfStockBatch() {
+        Product mouse = Product.builder().id(2L).name("Mouse").price(500.0).quantity(5).build();
+        when(productRepository.lockAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(product, mouse));
+
+        StockBatchResponse response = productService.reduceProductQuantities(List.of(
+                new StockLineRequest(2L, 3, null),
+                new StockLineRequest(1L, 4, null),
+                new StockLineRequest(1L, 6, null)));
+
+        assertThat(response.getStatus()).isEqualTo(StockBatchResponse.REDUCED);
+        assertThat(response.getLines()).extracting(StockLineResult::getAvailable).containsExactly(2, 6, 0);
+        assertThat(response.getLines()).extracting(StockLineResult::getUnitPrice).containsExactly(500.0, 50000.0, 50000.0);
+        assertThat(product.getQuantity()).isZero();
+        assertThat(mouse.getQuantity()).isEqualTo(2);
+        verify(priceIndex, times(1)).updateStock(1L, 0);
+        verify(inventoryEngine, times(1)).invalidate(2L);
+        verify(changeFeed, times(2)).stockChanged(any(ProductResponse.class));
+    }
+
+    @Test
+    @DisplayName("Should answer a replayed batch line from its record without taking stock again")
+    void shouldNotTakeStockTwiceForReplayedLine() {
+        Product mouse = Product.builder().id(2L).name("Mouse").price(500.0).quantity(5).build();
+        when(stockDeductionRepository.findAllById(List.of("order-7", "order-8"))).thenReturn(List.of(
+                new StockDeduction("order-7", 1L, 4, 50000.0, LocalDateTime.now())));
+        when(productRepository.lockAllByIdIn(List.of(2L))).thenReturn(List.of(mouse));
+
+        StockBatchResponse response = productService.reduceProductQuantities(List.of(
+                new StockLineRequest(1L, 4, "order-7"),
+                new StockLineRequest(2L, 3, "order-8")));
+
+        assertThat(response.getStatus()).isEqualTo(StockBatchResponse.REDUCED);
+        assertThat(response.getLines()).extracting(StockLineResult::getStatus)
+                .containsOnly(StockLineResult.OK);
+        assertThat(response.getLines()).extracting(StockLineResult::getUnitPrice).containsExactly(50000.0, 500.0);
+        assertThat(product.getQuantity()).isEqualTo(10);
+        assertThat(mouse.getQuantity()).isEqualTo(2);
+        verify(stockDeductionRepository, times(1)).saveAll(argThat((Iterable<StockDeduction> deductions) ->
+                deductions.iterator().next().getIdempotencyKey().equals("order-8")));
+    }
+
+    @Test
+    @DisplayName("Should reject the whole stock batch and report the failing lines")
+    void shouldRejectWholeStockBatch() {
+        when(productRepository.lockAllByIdIn(List.of(1L, 99L))).thenReturn(List.of(product));
+
+        assertThatThrownBy(() -> productService.reduceProductQuantities(List.of(
+                new StockLineRequest(1L, 4, null),
+                new StockLineRequest(1L, 7, null),
+                new StockLineRequest(99L, 1, null))))
+                .isInstanceOfSatisfying(StockBatchRejectedException.class, ex -> {
+                    assertThat(ex.getResponse().getStatus()).isEqualTo(StockBatchResponse.REJECTED);
+                    assertThat(ex.getResponse().getLines()).extracting(StockLineResult::getStatus).containsExactly(
+                            StockLineResult.OK, StockLineResult.INSUFFICIENT_STOCK, StockLineResult.NOT_FOUND);
+                });
+
+        assertThat(product.getQuantity()).isEqualTo(10);
+        verify(priceIndex, never()).updateStock(anyLong(), anyInt());
+        verifyNoInteractions(changeFeed);
+    }
+
+    @Test
+    @DisplayName("Should restore quantity successfully")
+    void shouldRestoreQuantitySuccessfully() {
+        product.setQuantity(12);
+        when(productRepository.incrementQuantity(1L, 2)).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        ProductResponse response = productService.restoreProductQuantity(1L, 2);
+
+        assertThat(response.getQuantity()).isEqualTo(12);
+        verify(inventoryEngine, times(1)).invalidate(1L);
+    }
+
     @Test
     @DisplayName("Should delete product successfully")
     void shouldDeleteProductSuccessfully() {
@@ -127,6 +375,9 @@ class ProductServiceImplTest {
         productService.deleteProduct(1L);
 
         verify(productRepository, times(1)).deleteById(1L);
+        verify(searchIndex, times(1)).remove(1L);
+        verify(priceIndex, times(1)).remove(1L);
+        verify(changeFeed, times(1)).deleted(1L);
     }
 
     @Test
@@ -137,5 +388,8 @@ class ProductServiceImplTest {
         assertThatThrownBy(() -> productService.deleteProduct(99L))
                 .isInstanceOf(ProductNotFoundException.class);
     }
-}
 
+    private static ProductResponse productResponse(Product product) {
+        return new ProductResponse(product.getId(), product.getName(), product.getPrice(), product.getQuantity());
+    }
+}
@@ -0,0 +1,265 @@
+package com.ecommerce.productservice.service.impl;
+
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.ReservationRequest;
+import com.ecommerce.productservice.dto.ReservationResponse;
+import com.ecommerce.productservice.entity.StockReservation;
+import com.ecommerce.productservice.exception.InsufficientStockException;
+import com.ecommerce.productservice.exception.ReservationNotFoundException;
+import com.ecommerce.productservice.repository.StockReservationRepository;
+import com.ecommerce.productservice.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTest {
+
+    @Mock
+    private ProductService productService;
+
+    // Backed by a map standing in for the table; stub-only so hundreds of thousands of calls are not recorded
+    @Mock(stubOnly = true)
+    private StockReservationRepository reservationRepository;
+
+    // Rolling back puts the rows deleted inside the transaction back into the table
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, StockReservation> table = new ConcurrentHashMap<>();
+    private final Map<String, StockReservation> deletedInTransaction = new ConcurrentHashMap<>();
+    private boolean inTransaction;
+
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationServiceImpl(
+                productService, reservationRepository, transactionManager, Duration.ofSeconds(1), Duration.ofMillis(100), 8);
+        lenient().when(productService.reduceProductQuantity(anyLong(), anyInt()))
+                .thenReturn(new ProductResponse(1L, "Laptop", 50000.0, 8));
+        lenient().when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> {
+            StockReservation reservation = invocation.getArgument(0);
+            table.put(reservation.getId(), reservation);
+            return reservation;
+        });
+        lenient().when(reservationRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        lenient().when(reservationRepository.deleteReservation(anyString())).thenAnswer(invocation -> {
+            StockReservation deleted = table.remove(invocation.<String>getArgument(0));
+            if (deleted == null) {
+                return 0;
+            }
+            if (inTransaction) {
+                deletedInTransaction.put(deleted.getId(), deleted);
+            }
+            return 1;
+        });
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            inTransaction = true;
+            return null;
+        });
+        lenient().doAnswer(invocation -> endTransaction(false)).when(transactionManager).commit(any());
+        lenient().doAnswer(invocation -> endTransaction(true)).when(transactionManager).rollback(any());
+        lenient().when(reservationRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(table.values()));
+    }
+
+    @Test
+    @DisplayName("Should take stock when reserving")
+    void shouldTakeStockWhenReserving() {
+        ReservationResponse response = reservationService.reserve(request(1L, 2));
+
+        assertThat(response.getReservationId()).isNotBlank();
+        assertThat(response.getStatus()).isEqualTo("RESERVED");
+        assertThat(response.getExpiresAt()).isNotNull();
+        assertThat(response.getUnitPrice()).isEqualTo(50000.0);
+        verify(productService, times(1)).reduceProductQuantity(1L, 2);
+    }
+
+    @Test
+    @DisplayName("Should not create reservation when stock is insufficient")
+    void shouldNotCreateReservationWhenStockInsufficient() {
+        when(productService.reduceProductQuantity(1L, 100))
+                .thenThrow(new InsufficientStockException(1L, 10, 100));
+
+        assertThatThrownBy(() -> reservationService.reserve(request(1L, 100)))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(reservationService.openReservations()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep stock taken and stop expiry when confirmed")
+    void shouldKeepStockWhenConfirmed() {
+        String id = reservationService.reserve(request(1L, 2)).getReservationId();
+
+        ReservationResponse response = reservationService.confirm(id);
+        advanceTicks(20);
+
+        assertThat(response.getStatus()).isEqualTo("CONFIRMED");
+        verify(productService, never()).restoreProductQuantity(anyLong(), anyInt());
+        assertThatThrownBy(() -> reservationService.confirm(id))
+                .isInstanceOf(ReservationNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should return stock when released")
+    void shouldReturnStockWhenReleased() {
+        String id = reservationService.reserve(request(1L, 2)).getReservationId();
+
+        reservationService.release(id);
+
+        verify(productService, times(1)).restoreProductQuantity(1L, 2);
+        assertThatThrownBy(() -> reservationService.release(id))
+                .isInstanceOf(ReservationNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep the reservation open when its stock cannot be returned on release")
+    void shouldKeepReservationWhenReleaseRestoreFails() {
+        String id = reservationService.reserve(request(1L, 2)).getReservationId();
+        doThrow(new IllegalStateException("Database unavailable"))
+                .doReturn(new ProductResponse(1L, "Laptop", 50000.0, 10))
+                .when(productService).restoreProductQuantity(1L, 2);
+
+        assertThatThrownBy(() -> reservationService.release(id))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(table).containsKey(id);
+        assertThat(reservationService.openReservations()).isEqualTo(1);
+
+        reservationService.release(id);
+
+        verify(productService, times(2)).restoreProductQuantity(1L, 2);
+        assertThat(table).isEmpty();
+        assertThat(reservationService.openReservations()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should retry an expiry whose stock could not be returned")
+    void shouldRetryExpiryWhenRestoreFails() {
+        String id = reservationService.reserve(request(1L, 2)).getReservationId();
+        doThrow(new IllegalStateException("Database unavailable"))
+                .doReturn(new ProductResponse(1L, "Laptop", 50000.0, 10))
+                .when(productService).restoreProductQuantity(1L, 2);
+
+        advanceTicks(10);
+        assertThat(table).containsKey(id);
+        assertThat(reservationService.openReservations()).isEqualTo(1);
+
+        // Retried five seconds, or 50 ticks, later
+        advanceTicks(50);
+        verify(productService, times(2)).restoreProductQuantity(1L, 2);
+        assertThat(table).isEmpty();
+        assertThat(reservationService.openReservations()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return stock once the TTL elapses without confirmation")
+    void shouldReturnStockWhenExpired() {
+        String id = reservationService.reserve(request(1L, 2)).getReservationId();
+
+        advanceTicks(9);
+        verify(productService, never()).restoreProductQuantity(anyLong(), anyInt());
+
+        advanceTicks(1);
+        verify(productService, times(1)).restoreProductQuantity(1L, 2);
+        assertThatThrownBy(() -> reservationService.confirm(id))
+                .isInstanceOf(ReservationNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should expire hundreds of thousands of open reservations")
+    void shouldExpireManyOpenReservations() {
+        reservationService = new ReservationServiceImpl(
+                productService, reservationRepository, transactionManager, Duration.ofSeconds(10), Duration.ofMillis(100), 1024);
+        int count = 200_000;
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(reservationService.reserve(request((long) i % 100, 1)).getReservationId());
+        }
+        for (int i = 0; i < count; i += 2) {
+            reservationService.confirm(ids.get(i));
+        }
+
+        advanceTicks(100);
+
+        assertThat(reservationService.openReservations()).isZero();
+        assertThat(table).isEmpty();
+        verify(productService, times(count / 2)).restoreProductQuantity(anyLong(), eq(1));
+    }
+
+    @Test
+    @DisplayName("Should hand the stock back when the reservation cannot be stored")
+    void shouldReturnStockWhenReservationNotStored() {
+        doThrow(new IllegalStateException("Database unavailable"))
+                .when(reservationRepository).save(any(StockReservation.class));
+
+        assertThatThrownBy(() -> reservationService.reserve(request(1L, 2)))
+                .isInstanceOf(IllegalStateException.class);
+        verify(productService, times(1)).restoreProductQuantity(1L, 2);
+        assertThat(reservationService.openReservations()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should confirm and expire reservations taken before a restart, returning stock once")
+    void shouldRecoverReservationsAfterRestart() {
+        String confirmedId = reservationService.reserve(request(1L, 2)).getReservationId();
+        reservationService.reserve(request(2L, 3));
+        ReservationServiceImpl previous = reservationService;
+
+        reservationService = new ReservationServiceImpl(
+                productService, reservationRepository, transactionManager, Duration.ofSeconds(1), Duration.ofMillis(100), 8);
+        reservationService.recoverReservations();
+
+        assertThat(reservationService.openReservations()).isEqualTo(2);
+        assertThat(reservationService.confirm(confirmedId).getStatus()).isEqualTo("CONFIRMED");
+        advanceTicks(10);
+        verify(productService, times(1)).restoreProductQuantity(2L, 3);
+
+        // The instance that took them still has both on its wheel, but finds the rows gone
+        for (int i = 0; i < 10; i++) {
+            previous.expireDueReservations();
+        }
+        verify(productService, times(1)).restoreProductQuantity(anyLong(), anyInt());
+        assertThat(table).isEmpty();
+    }
+
+    private Object endTransaction(boolean rollback) {
+        if (rollback) {
+            table.putAll(deletedInTransaction);
+        }
+        deletedInTransaction.clear();
+        inTransaction = false;
+        return null;
+    }
+
+    private void advanceTicks(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            reservationService.expireDueReservations();
+        }
+    }
+
+    private static ReservationRequest request(Long productId, int quantity) {
+        return ReservationRequest.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+}
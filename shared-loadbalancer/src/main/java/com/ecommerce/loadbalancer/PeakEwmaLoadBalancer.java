@@ -0,0 +1,251 @@
+package com.ecommerce.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks two instances at random and sends the request to the one expected to answer sooner
+ * (power of two choices). The estimate is an instance's peak EWMA latency times one more than its
+ * requests in flight:
+ * <ul>
+ *     <li>a slower response raises the average at once, a faster one lowers it gradually</li>
+ *     <li>the average decays towards zero while an instance gets no responses, so one that was
+ *     slow is tried again after a while</li>
+ *     <li>an instance with requests out but no response yet is avoided until it answers</li>
+ * </ul>
+ * Latencies and in-flight counts come from this balancer also being the client's
+ * {@link LoadBalancerLifecycle}, which the gateway's load-balancer filter, Feign and
+ * {@code @LoadBalanced} WebClients all report to.
+ * <p>
+ * Requests carrying the same {@value #HEDGE_ID_HEADER} are attempts at one call: while the first
+ * is out, later ones are sent to any other instance, so a hedge never queues behind the request
+ * it is hedging.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    public static final String HEDGE_ID_HEADER = "X-Hedge-Id";
+
+    // Cost of an instance with requests out and no latency known yet, as in Finagle's peak EWMA
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final double decayNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    // Hedge id -> the instance its first attempt went to, while that attempt is out
+    private final Map<String, String> hedgedInstances = new ConcurrentHashMap<>();
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                                Duration decay) {
+        this(supplierProvider, serviceId, decay, System::nanoTime);
+    }
+
+    PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                         Duration decay, LongSupplier nanoClock) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.decayNanos = decay.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String hedgeId = hedgeId(request);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances, hedgeId);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, String hedgeId) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        forgetDepartedInstances(instances);
+        if (hedgeId == null) {
+            return choose(instances);
+        }
+        String hedged = hedgedInstances.get(hedgeId);
+        List<ServiceInstance> candidates = instances;
+        if (hedged != null && instances.size() > 1) {
+            candidates = new ArrayList<>(instances.size() - 1);
+            for (ServiceInstance instance : instances) {
+                if (!key(instance).equals(hedged)) {
+                    candidates.add(instance);
+                }
+            }
+            if (candidates.isEmpty()) {
+                candidates = instances;
+            }
+        }
+        Response<ServiceInstance> response = choose(candidates);
+        hedgedInstances.putIfAbsent(hedgeId, key(response.getServer()));
+        return response;
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        long now = nanoClock.getAsLong();
+        return new DefaultResponse(stats(a).cost(now) <= stats(b).cost(now) ? a : b);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(nanoClock.getAsLong());
+        }
+        if (lbResponse.hasServer()) {
+            stats(lbResponse.getServer()).started();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        Request<Object> request = completionContext.getLoadBalancerRequest();
+        String hedgeId = hedgeId(request);
+        if (hedgeId != null) {
+            hedgedInstances.remove(hedgeId, key(lbResponse.getServer()));
+        }
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        InstanceStats instance = stats(lbResponse.getServer());
+        long now = nanoClock.getAsLong();
+        if (request != null && request.getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() != 0) {
+            instance.completed(now - context.getRequestStartTime(), now);
+        } else {
+            instance.completed(-1, now);
+        }
+    }
+
+    /**
+     * Current cost of {@code instance}, lower is better.
+     */
+    double cost(ServiceInstance instance) {
+        return stats(instance).cost(nanoClock.getAsLong());
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new InstanceStats(nanoClock.getAsLong()));
+    }
+
+    /**
+     * Drops what is known about instances no longer registered, once they could make up half of
+     * what is kept.
+     */
+    private void forgetDepartedInstances(List<ServiceInstance> instances) {
+        if (stats.size() <= instances.size() * 2) {
+            return;
+        }
+        Set<String> current = new HashSet<>();
+        instances.forEach(instance -> current.add(key(instance)));
+        stats.keySet().retainAll(current);
+    }
+
+    private static String hedgeId(Request<?> request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null && context.getClientRequest().getHeaders() != null) {
+            return context.getClientRequest().getHeaders().getFirst(HEDGE_ID_HEADER);
+        }
+        return null;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    @Override
+    public String toString() {
+        return "PeakEwmaLoadBalancer[" + serviceId + "]";
+    }
+
+    private final class InstanceStats {
+
+        private double ewmaNanos;
+        private long stampNanos;
+        private int inFlight;
+
+        InstanceStats(long nowNanos) {
+            this.stampNanos = nowNanos;
+        }
+
+        synchronized void started() {
+            inFlight++;
+        }
+
+        /**
+         * Records a response that took {@code latencyNanos}, or only that the request is over when
+         * that is not known (negative).
+         */
+        synchronized void completed(long latencyNanos, long nowNanos) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (latencyNanos < 0) {
+                return;
+            }
+            if (latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(nowNanos - stampNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            stampNanos = nowNanos;
+        }
+
+        synchronized double cost(long nowNanos) {
+            double decayed = ewmaNanos * Math.exp(-Math.max(0, nowNanos - stampNanos) / decayNanos);
+            if (decayed == 0 && inFlight > 0) {
+                return PENALTY + inFlight;
+            }
+            return decayed * (inFlight + 1);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load-balancer client configuration that replaces round-robin with {@link PeakEwmaLoadBalancer},
+ * unless {@code loadbalancer.peak-ewma.enabled} is false. It is read into each client's own
+ * context, so it must stay out of component scanning: no {@code @Configuration}.
+ * <p>
+ * That context has no conversion service, so {@code loadbalancer.peak-ewma.decay} is read as a
+ * string and parsed here rather than injected as a {@code Duration}.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "loadbalancer.peak-ewma.enabled", havingValue = "true", matchIfMissing = true)
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment,
+                                                     LoadBalancerClientFactory loadBalancerClientFactory) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId,
+                DurationStyle.detectAndParse(environment.getProperty("loadbalancer.peak-ewma.decay", "10s")));
+    }
+}
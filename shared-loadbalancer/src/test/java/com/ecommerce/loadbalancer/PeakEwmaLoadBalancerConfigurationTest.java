@@ -0,0 +1,92 @@
+package com.ecommerce.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Makes a real load-balanced call through a client context built from
+ * {@link PeakEwmaLoadBalancerConfiguration}, the way the gateway and Order Service register it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.loadbalancer.cache.enabled=false",
+        "loadbalancer.peak-ewma.decay=5s"
+})
+class PeakEwmaLoadBalancerConfigurationTest {
+
+    private static final String SERVICE_ID = "catalog";
+
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private LoadBalancerClientFactory loadBalancerClientFactory;
+
+    @DynamicPropertySource
+    static void instances(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances." + SERVICE_ID + "[0].uri",
+                () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("A load-balanced call should be routed by the peak EWMA balancer")
+    void loadBalancedCallShouldGoThroughPeakEwma() {
+        assertThat(restTemplate.getForObject("http://" + SERVICE_ID + "/ping", String.class)).isEqualTo("pong");
+        assertThat(loadBalancerClientFactory.getInstance(SERVICE_ID)).isInstanceOf(PeakEwmaLoadBalancer.class);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/ping", exchange -> {
+                byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+    static class TestApplication {
+
+        @Bean
+        @LoadBalanced
+        RestTemplate restTemplate() {
+            return new RestTemplate();
+        }
+    }
+}
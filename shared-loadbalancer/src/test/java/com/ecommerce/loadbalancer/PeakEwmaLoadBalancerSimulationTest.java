@@ -0,0 +1,160 @@
+package com.ecommerce.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends 3k requests from 32 callers to five local Product Service stubs, each serving at most 8
+ * requests at a time, one of them ten times slower than the rest. It is run once with the default
+ * round-robin balancer and once with {@link PeakEwmaLoadBalancer}, which is told about each
+ * request the way Feign and the gateway tell it. The comparison is p99 latency, queueing included.
+ */
+class PeakEwmaLoadBalancerSimulationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PeakEwmaLoadBalancerSimulationTest.class);
+
+    private static final String SERVICE_ID = "PRODUCT-SERVICE";
+    private static final int REQUESTS = 3_000;
+    private static final int CALLERS = 32;
+    private static final int STUB_WORKERS = 8;
+    private static final Duration FAST = Duration.ofMillis(4);
+    private static final Duration SLOW = Duration.ofMillis(40);
+
+    @Test
+    @DisplayName("Peak EWMA should steer around a slow instance and cut p99 latency against round-robin")
+    void peakEwmaShouldCutTailLatency() throws Exception {
+        Map<String, StubInstance> roundRobinStubs = stubs();
+        long[] roundRobin = latencies(new RoundRobinLoadBalancer(provider(roundRobinStubs), SERVICE_ID),
+                roundRobinStubs);
+
+        Map<String, StubInstance> peakEwmaStubs = stubs();
+        long[] peakEwma = latencies(new PeakEwmaLoadBalancer(provider(peakEwmaStubs), SERVICE_ID,
+                Duration.ofSeconds(10)), peakEwmaStubs);
+
+        log.info("{} requests from {} callers, one of {} stubs at {} ms, the rest at {} ms - "
+                        + "round-robin: p50 {} ms, p99 {} ms, slow stub served {}; "
+                        + "peak EWMA: p50 {} ms, p99 {} ms, slow stub served {}",
+                REQUESTS, CALLERS, peakEwmaStubs.size(), SLOW.toMillis(), FAST.toMillis(),
+                millis(percentile(roundRobin, 0.50)), millis(percentile(roundRobin, 0.99)),
+                roundRobinStubs.get("slow").served.get(),
+                millis(percentile(peakEwma, 0.50)), millis(percentile(peakEwma, 0.99)),
+                peakEwmaStubs.get("slow").served.get());
+
+        assertThat(percentile(peakEwma, 0.99)).isLessThan(percentile(roundRobin, 0.99) / 2);
+        assertThat(peakEwmaStubs.get("slow").served.get()).isLessThan(REQUESTS / 20);
+    }
+
+    private static long[] latencies(ReactorServiceInstanceLoadBalancer loadBalancer, Map<String, StubInstance> stubs)
+            throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Long>> calls = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                calls.add(callers.submit(() -> call(loadBalancer, stubs)));
+            }
+            long[] latencies = new long[REQUESTS];
+            for (int i = 0; i < REQUESTS; i++) {
+                latencies[i] = calls.get(i).get(60, TimeUnit.SECONDS);
+            }
+            Arrays.sort(latencies);
+            return latencies;
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    private static long call(ReactorServiceInstanceLoadBalancer loadBalancer, Map<String, StubInstance> stubs)
+            throws InterruptedException {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> response = loadBalancer.choose(request).block();
+        PeakEwmaLoadBalancer lifecycle = loadBalancer instanceof PeakEwmaLoadBalancer peakEwma ? peakEwma : null;
+        if (lifecycle != null) {
+            lifecycle.onStartRequest(request, response);
+        }
+        long start = System.nanoTime();
+        stubs.get(response.getServer().getInstanceId()).serve();
+        long latency = System.nanoTime() - start;
+        if (lifecycle != null) {
+            lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+        }
+        return latency;
+    }
+
+    private static Map<String, StubInstance> stubs() {
+        Map<String, StubInstance> stubs = new LinkedHashMap<>();
+        for (int i = 1; i <= 4; i++) {
+            stubs.put("fast-" + i, new StubInstance("fast-" + i, FAST));
+        }
+        stubs.put("slow", new StubInstance("slow", SLOW));
+        return stubs;
+    }
+
+    private static ObjectProvider<ServiceInstanceListSupplier> provider(Map<String, StubInstance> stubs) {
+        return ServiceInstanceListSuppliers.toProvider(SERVICE_ID,
+                stubs.values().stream().map(stub -> stub.instance).toArray(ServiceInstance[]::new));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * A Product Service instance that takes a fixed time per request and serves at most
+     * {@link #STUB_WORKERS} at once; the rest wait their turn.
+     */
+    private static final class StubInstance {
+
+        private final ServiceInstance instance;
+        private final Duration latency;
+        private final Semaphore workers = new Semaphore(STUB_WORKERS, true);
+        private final AtomicInteger served = new AtomicInteger();
+
+        StubInstance(String id, Duration latency) {
+            this.instance = new DefaultServiceInstance(id, SERVICE_ID, id + ".local", 8081, false);
+            this.latency = latency;
+        }
+
+        void serve() throws InterruptedException {
+            workers.acquire();
+            try {
+                Thread.sleep(latency.toMillis());
+                served.incrementAndGet();
+            } finally {
+                workers.release();
+            }
+        }
+    }
+}
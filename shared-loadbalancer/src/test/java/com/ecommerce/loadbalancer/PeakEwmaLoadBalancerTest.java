@@ -0,0 +1,123 @@
+package com.ecommerce.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE_ID = "PRODUCT-SERVICE";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ServiceInstance fast = instance("fast");
+    private final ServiceInstance slow = instance("slow");
+    private final PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(
+            ServiceInstanceListSuppliers.toProvider(SERVICE_ID, fast, slow), SERVICE_ID, Duration.ofSeconds(10),
+            clock::get);
+
+    @Test
+    @DisplayName("The instance that has been answering faster should be chosen")
+    void fasterInstanceShouldBeChosen() {
+        call(fast, 10);
+        call(slow, 100);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(loadBalancer.choose().block().getServer()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    @DisplayName("A fast instance with many requests out should lose to a slower idle one")
+    void requestsInFlightShouldRaiseCost() {
+        call(fast, 10);
+        call(slow, 100);
+        for (int i = 0; i < 20; i++) {
+            start(fast);
+        }
+
+        assertThat(loadBalancer.choose().block().getServer()).isEqualTo(slow);
+    }
+
+    @Test
+    @DisplayName("A slow response should raise the estimate at once, a fast one lower it gradually")
+    void slowResponsesShouldCountAtOnce() {
+        call(fast, 10);
+        call(fast, 200);
+        assertThat(loadBalancer.cost(fast)).isEqualTo((double) TimeUnit.MILLISECONDS.toNanos(200));
+
+        call(fast, 10);
+        assertThat(loadBalancer.cost(fast)).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(190));
+    }
+
+    @Test
+    @DisplayName("An instance with requests out and no answer yet should be avoided")
+    void unansweredInstanceShouldBeAvoided() {
+        start(slow);
+        call(fast, 50);
+
+        assertThat(loadBalancer.choose().block().getServer()).isEqualTo(fast);
+    }
+
+    @Test
+    @DisplayName("A hedge should never be sent to the instance the request it hedges went to")
+    void hedgeShouldAvoidPrimaryInstance() {
+        for (int i = 0; i < 50; i++) {
+            Request<Object> primary = hedgeAttempt("hedge-" + i);
+            Response<ServiceInstance> primaryChoice = loadBalancer.choose(primary).block();
+            loadBalancer.onStartRequest(primary, primaryChoice);
+
+            Request<Object> hedge = hedgeAttempt("hedge-" + i);
+            Response<ServiceInstance> hedgeChoice = loadBalancer.choose(hedge).block();
+
+            assertThat(hedgeChoice.getServer()).isNotEqualTo(primaryChoice.getServer());
+            loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, hedge, hedgeChoice));
+            loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, primary, primaryChoice));
+        }
+    }
+
+    private Request<Object> start(ServiceInstance instance) {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        loadBalancer.onStartRequest(request, new DefaultResponse(instance));
+        return request;
+    }
+
+    private void call(ServiceInstance instance, long latencyMillis) {
+        Request<Object> request = start(instance);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+    }
+
+    private static Request<Object> hedgeAttempt(String hedgeId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(PeakEwmaLoadBalancer.HEDGE_ID_HEADER, hedgeId);
+        RequestData data = new RequestData(HttpMethod.GET, URI.create("http://" + SERVICE_ID + "/products/1"),
+                headers, new LinkedMultiValueMap<>(), Map.of());
+        return new DefaultRequest<>(new RequestDataContext(data));
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, SERVICE_ID, id + ".local", 8081, false);
+    }
+}